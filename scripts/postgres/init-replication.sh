@@ -0,0 +1,6 @@
+#!/bin/bash
+# Allow streaming replication connections for the local read replica (compose profile "replica").
+# Runs once, when the primary's data directory is first initialised.
+set -e
+
+echo "host replication ${POSTGRES_USER} all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -1,12 +1,15 @@
 package org.identityshelf.adminapi;
 
+import org.identityshelf.data.config.IdentityDataConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication(scanBasePackages = {
     "org.identityshelf.adminapi",
     "org.identityshelf.core"
 })
+@Import(IdentityDataConfig.class)
 public class AdminApiApplication {
     public static void main(String[] args) {
         SpringApplication.run(AdminApiApplication.class, args);
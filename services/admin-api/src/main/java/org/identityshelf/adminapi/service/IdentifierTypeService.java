@@ -1,30 +1,39 @@
 package org.identityshelf.adminapi.service;
 
 import org.identityshelf.core.domain.IdentifierType;
+import org.identityshelf.data.repository.IdentityDefinitionRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class IdentifierTypeService {
     
+    private final IdentityDefinitionRepository definitionRepository;
+    
+    public IdentifierTypeService(IdentityDefinitionRepository definitionRepository) {
+        this.definitionRepository = definitionRepository;
+    }
+    
+    @Transactional(readOnly = true)
     public List<IdentifierType> getAllIdentifierTypes() {
-        // TODO: Implement
-        return List.of();
+        return definitionRepository.findIdentifierTypes(false);
     }
     
+    @Transactional(readOnly = true)
     public List<IdentifierType> getSearchableIdentifierTypes() {
-        // TODO: Implement
-        return List.of();
+        return definitionRepository.findIdentifierTypes(true);
     }
     
+    @Transactional(readOnly = true)
     public IdentifierType getIdentifierType(String id) {
-        // TODO: Implement
-        return null;
+        return definitionRepository.findIdentifierTypeById(UUID.fromString(id)).orElse(null);
     }
     
+    @Transactional(readOnly = true)
     public IdentifierType getIdentifierTypeByName(String name) {
-        // TODO: Implement
-        return null;
+        return definitionRepository.findIdentifierTypeByName(name).orElse(null);
     }
     
     public IdentifierType createIdentifierType(Object request) {
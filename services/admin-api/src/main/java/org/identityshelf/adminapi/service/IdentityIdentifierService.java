@@ -1,13 +1,37 @@
 package org.identityshelf.adminapi.service;
 
 import org.identityshelf.core.domain.IdentityIdentifier;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.data.repository.IdentifierSearchRepository;
+import org.identityshelf.data.repository.IdentityCounterRepository;
+import org.identityshelf.data.repository.IdentityIdentifierRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.UUID;
 
 @Service
 public class IdentityIdentifierService {
     
+    private final IdentityCounterRepository counterRepository;
+    private final IdentifierSearchRepository searchRepository;
+    private final IdentityIdentifierRepository identifierRepository;
+    private final int suggestionMinLength;
+    private final int suggestionMaxLimit;
+    
+    public IdentityIdentifierService(IdentityCounterRepository counterRepository,
+                                     IdentifierSearchRepository searchRepository,
+                                     IdentityIdentifierRepository identifierRepository,
+                                     @Value("${app.identifiers.suggestions.min-length:3}") int suggestionMinLength,
+                                     @Value("${app.identifiers.suggestions.max-limit:50}") int suggestionMaxLimit) {
+        this.counterRepository = counterRepository;
+        this.searchRepository = searchRepository;
+        this.identifierRepository = identifierRepository;
+        this.suggestionMinLength = suggestionMinLength;
+        this.suggestionMaxLimit = suggestionMaxLimit;
+    }
+    
     public List<IdentityIdentifier> getIdentifiersForIdentity(UUID identityId) {
         // TODO: Implement
         return List.of();
@@ -32,9 +56,16 @@ public class IdentityIdentifierService {
         return List.of();
     }
     
+    /**
+     * Add an identifier; values of unique identifier types already held by an active identifier are rejected
+     */
+    @Transactional
     public IdentityIdentifier addIdentifierToIdentity(UUID identityId, UUID identifierTypeId, String identifierValue, boolean primary) {
-        // TODO: Implement
-        return null;
+        if (identifierValue == null || identifierValue.isBlank()) {
+            throw new IllegalArgumentException("Identifier value is required");
+        }
+        UUID identifierId = identifierRepository.add(IdentityId.of(identityId), identifierTypeId, identifierValue, primary);
+        return searchRepository.findById(identifierId).orElseThrow();
     }
     
     public IdentityIdentifier updateIdentifier(UUID id, String identifierValue, boolean primary) {
@@ -52,13 +83,31 @@ public class IdentityIdentifierService {
     }
     
     public List<IdentityIdentifier> findIdentifierSuggestions(String partial) {
-        // TODO: Implement
-        return List.of();
+        return findIdentifierSuggestions(partial, null, 10);
+    }
+    
+    /**
+     * Typeahead suggestions; inputs below the minimum length return nothing, the limit is capped
+     */
+    @Transactional(readOnly = true)
+    public List<IdentityIdentifier> findIdentifierSuggestions(String partial, UUID identifierTypeId, int limit) {
+        String trimmed = partial != null ? partial.trim() : "";
+        if (trimmed.length() < suggestionMinLength || limit < 1) {
+            return List.of();
+        }
+        return searchRepository.findSuggestions(trimmed, identifierTypeId, Math.min(limit, suggestionMaxLimit));
     }
     
+    /**
+     * Exact lookup; the value is compared in the canonical form of its identifier type, so
+     * 123-45-6789 and 123456789 find the same SSN
+     */
+    @Transactional(readOnly = true)
     public IdentityIdentifier findIdentityByTypeAndValue(String typeName, String value) {
-        // TODO: Implement
-        return null;
+        if (typeName == null || value == null || value.isBlank()) {
+            return null;
+        }
+        return searchRepository.findByTypeAndValue(typeName, value).orElse(null);
     }
     
     public IdentityIdentifier getPrimaryIdentifierForIdentity(UUID identityId) {
@@ -76,8 +125,11 @@ public class IdentityIdentifierService {
         return null;
     }
     
+    /**
+     * Count active identifiers of a type from the maintained counters
+     */
+    @Transactional(readOnly = true)
     public long getIdentifierCountByType(UUID typeId) {
-        // TODO: Implement
-        return 0;
+        return counterRepository.countActiveIdentifiersByType(typeId);
     }
 }
@@ -1,17 +1,74 @@
 package org.identityshelf.adminapi.service;
 
+import org.identityshelf.adminapi.web.dto.CreateIdentityRequest;
+import org.identityshelf.adminapi.web.dto.IdentityExportResponse;
+import org.identityshelf.adminapi.web.dto.IdentityIdentifierResponse;
 import org.identityshelf.adminapi.web.dto.IdentityResponse;
+import org.identityshelf.adminapi.web.dto.IdentityScrollResponse;
+import org.identityshelf.adminapi.web.dto.UpdateIdentityRequest;
+import org.identityshelf.core.application.service.IdentityApplicationService;
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.core.domain.valueobject.IdentityCursor;
+import org.identityshelf.core.domain.valueobject.IdentitySortOrder;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.core.repository.IdentityRepository;
+import org.identityshelf.core.repository.IdentitySlice;
+import org.identityshelf.data.export.NdjsonIdentityExporter;
+import org.identityshelf.data.repository.IdentityAggregate;
+import org.identityshelf.data.repository.IdentityAggregateLoader;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 public class IdentityService {
     
-    public IdentityResponse createIdentity(Object request) {
-        // TODO: Implement
-        return null;
+    private static final String DISPLAY_NAME_ATTRIBUTE = "display_name";
+    private static final String STATUS_ATTRIBUTE = "status";
+    private static final int MAX_PAGE_SIZE = 100;
+    
+    private final IdentityRepository identityRepository;
+    private final IdentityApplicationService identityApplicationService;
+    private final IdentityAggregateLoader aggregateLoader;
+    private final NdjsonIdentityExporter exporter;
+    private final DefinitionSnapshotService definitionSnapshots;
+    
+    public IdentityService(IdentityRepository identityRepository,
+                           IdentityApplicationService identityApplicationService,
+                           IdentityAggregateLoader aggregateLoader,
+                           NdjsonIdentityExporter exporter,
+                           DefinitionSnapshotService definitionSnapshots) {
+        this.identityRepository = identityRepository;
+        this.identityApplicationService = identityApplicationService;
+        this.aggregateLoader = aggregateLoader;
+        this.exporter = exporter;
+        this.definitionSnapshots = definitionSnapshots;
+    }
+    
+    /**
+     * Create an identity; display_name and status travel in the attribute map, the remaining attributes
+     * are validated against the validation plan of the identity type
+     */
+    @Transactional
+    public IdentityResponse createIdentity(CreateIdentityRequest request) {
+        Identity identity = identityApplicationService.createIdentity(
+                DisplayName.of(request.getDisplayName()),
+                request.getIdentityType(),
+                toAttributeValues(request.getAttributes()),
+                IdentityStatus.fromString(request.getStatus()));
+        return toResponse(identity);
     }
     
     public Page<IdentityResponse> listIdentities(Pageable pageable) {
@@ -19,17 +76,109 @@ public class IdentityService {
         return Page.empty();
     }
     
+    /**
+     * Keyset-paged listing for deep traversal; offset paging above stays for shallow views
+     */
+    @Transactional(readOnly = true)
+    public IdentityScrollResponse scrollIdentities(String cursor, String sort, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        IdentitySortOrder sortOrder = IdentitySortOrder.fromString(sort);
+        IdentityCursor after = cursor != null && !cursor.isBlank() ? IdentityCursor.decode(cursor) : null;
+        
+        IdentitySlice slice = identityRepository.findSlice(sortOrder, after, limit);
+        List<IdentityResponse> content = aggregateLoader.hydrate(slice.identities()).stream()
+                .map(aggregate -> toResponse(aggregate.identity()))
+                .toList();
+        return new IdentityScrollResponse(content, slice.next().map(IdentityCursor::encode).orElse(null));
+    }
+    
     public IdentityResponse getIdentity(UUID id) {
         // TODO: Implement
         return null;
     }
     
-    public IdentityResponse updateIdentity(UUID id, Object request) {
-        // TODO: Implement
-        return null;
+    /**
+     * Update display name, attributes and status; attributes not named keep their value, and the values the
+     * identity ends up with are validated against the validation plan of its type
+     */
+    @Transactional
+    public IdentityResponse updateIdentity(UUID id, UpdateIdentityRequest request) {
+        Identity identity = identityApplicationService.updateIdentity(
+                IdentityId.of(id),
+                request.getDisplayName() != null ? DisplayName.of(request.getDisplayName()) : null,
+                toAttributeValues(request.getAttributes()),
+                request.getStatus() != null ? IdentityStatus.fromString(request.getStatus()) : null);
+        return toResponse(identity);
     }
     
-    public void deleteIdentity(UUID id) {
-        // TODO: Implement
+    /**
+     * Tombstone the identity; returns false if there was no live identity to delete
+     */
+    @Transactional
+    public boolean deleteIdentity(UUID id) {
+        try {
+            identityRepository.deleteById(IdentityId.of(id));
+            return true;
+        } catch (IdentityNotFoundException e) {
+            return false;
+        }
+    }
+    
+    public boolean identityTypeExists(String identityTypeName) {
+        return definitionSnapshots.findIdentityType(identityTypeName) != null;
+    }
+    
+    /**
+     * Write all identities of a type to the output as NDJSON, chunk by chunk from a server-side cursor and
+     * gzip-compressed if asked; the caller owns and closes the output
+     * @return number of identities written
+     */
+    public long exportIdentities(String identityTypeName, OutputStream out, boolean gzip) throws IOException {
+        return exporter.export(identityTypeName, IdentityService::toExportResponse, out, gzip);
+    }
+    
+    private static Map<String, AttributeValue> toAttributeValues(Map<String, Object> values) {
+        Map<String, AttributeValue> attributes = new LinkedHashMap<>();
+        if (values != null) {
+            values.forEach((name, value) -> {
+                if (!DISPLAY_NAME_ATTRIBUTE.equals(name) && !STATUS_ATTRIBUTE.equals(name)) {
+                    attributes.put(name, value != null ? AttributeValue.of(value.toString(), name) : AttributeValue.empty(name));
+                }
+            });
+        }
+        return attributes;
+    }
+    
+    private static IdentityExportResponse toExportResponse(IdentityAggregate aggregate) {
+        Identity identity = aggregate.identity();
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        identity.getAttributes().values()
+                .forEach(attribute -> attributes.put(attribute.getAttributeName(), attribute.getValue()));
+        return new IdentityExportResponse(
+                identity.getUuid(),
+                identity.getDisplayName().getValue(),
+                identity.getStatus().name(),
+                identity.getCreatedAt(),
+                identity.getUpdatedAt(),
+                identity.getIdentityTypeName(),
+                identity.getVersion(),
+                attributes,
+                aggregate.identifiers().stream().map(IdentityIdentifierResponse::from).toList());
+    }
+    
+    private static IdentityResponse toResponse(Identity identity) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        identity.getAttributes().values()
+                .forEach(attribute -> attributes.put(attribute.getAttributeName(), attribute.getValue()));
+        return new IdentityResponse(
+                identity.getUuid(),
+                identity.getDisplayName().getValue(),
+                identity.getStatus().name(),
+                identity.getCreatedAt(),
+                identity.getUpdatedAt(),
+                identity.getIdentityTypeName(),
+                attributes);
     }
 }
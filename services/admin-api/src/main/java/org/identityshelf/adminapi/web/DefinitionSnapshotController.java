@@ -0,0 +1,46 @@
+package org.identityshelf.adminapi.web;
+
+import org.identityshelf.adminapi.web.dto.DefinitionSnapshotResponse;
+import org.identityshelf.core.domain.definition.DefinitionSnapshot;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.identityshelf.data.cache.DefinitionSnapshotReloader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Inspect and force-reload the in-memory definition snapshot. A forced reload is applied on this node
+ * at once and broadcast on the definition change channel, so the other nodes follow within a poll interval.
+ */
+@RestController
+@RequestMapping("/api/definitions/snapshot")
+public class DefinitionSnapshotController {
+
+    private static final Logger log = LoggerFactory.getLogger(DefinitionSnapshotController.class);
+
+    private final DefinitionSnapshotService snapshotService;
+    private final DefinitionSnapshotReloader snapshotReloader;
+
+    public DefinitionSnapshotController(DefinitionSnapshotService snapshotService,
+                                        DefinitionSnapshotReloader snapshotReloader) {
+        this.snapshotService = snapshotService;
+        this.snapshotReloader = snapshotReloader;
+    }
+
+    @GetMapping
+    public ResponseEntity<DefinitionSnapshotResponse> getSnapshot() {
+        return ResponseEntity.ok(DefinitionSnapshotResponse.from(snapshotService.current()));
+    }
+
+    @PostMapping("/reload")
+    public ResponseEntity<DefinitionSnapshotResponse> reload() {
+        DefinitionSnapshot snapshot = snapshotReloader.reload();
+        snapshotReloader.notifyAllNodes("forced-reload");
+        log.info("Forced reload of the definition snapshot, now v{}", snapshot.version());
+        return ResponseEntity.ok(DefinitionSnapshotResponse.from(snapshot));
+    }
+}
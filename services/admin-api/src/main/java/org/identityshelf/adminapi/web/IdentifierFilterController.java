@@ -0,0 +1,44 @@
+package org.identityshelf.adminapi.web;
+
+import org.identityshelf.adminapi.web.dto.IdentifierFilterResponse;
+import org.identityshelf.data.cache.IdentifierExistenceFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Inspect and rebuild the identifier existence filters. A rebuild is broadcast on the identifier value
+ * channel, so every node, this one included, scans again in the background and swaps in fresh filters.
+ */
+@RestController
+@RequestMapping("/api/identifier-filters")
+public class IdentifierFilterController {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentifierFilterController.class);
+
+    private final IdentifierExistenceFilter existenceFilter;
+
+    public IdentifierFilterController(IdentifierExistenceFilter existenceFilter) {
+        this.existenceFilter = existenceFilter;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<IdentifierFilterResponse>> getFilters() {
+        return ResponseEntity.ok(existenceFilter.stats().stream()
+                .map(IdentifierFilterResponse::from)
+                .toList());
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        existenceFilter.rebuildOnAllNodes();
+        log.info("Requested a rebuild of the identifier filters on all nodes");
+        return ResponseEntity.accepted().build();
+    }
+}
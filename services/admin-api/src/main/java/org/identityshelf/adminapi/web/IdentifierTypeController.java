@@ -46,12 +46,18 @@ public class IdentifierTypeController {
     @GetMapping("/{id}")
     public ResponseEntity<IdentifierTypeResponse> getIdentifierType(@PathVariable String id) {
         IdentifierType identifierType = identifierTypeService.getIdentifierType(id);
+        if (identifierType == null) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.ok(IdentifierTypeResponse.from(identifierType));
     }
 
     @GetMapping("/by-name/{name}")
     public ResponseEntity<IdentifierTypeResponse> getIdentifierTypeByName(@PathVariable String name) {
         IdentifierType identifierType = identifierTypeService.getIdentifierTypeByName(name);
+        if (identifierType == null) {
+            return ResponseEntity.notFound().build();
+        }
         return ResponseEntity.ok(IdentifierTypeResponse.from(identifierType));
     }
 
@@ -5,20 +5,32 @@ import java.util.UUID;
 import org.identityshelf.adminapi.service.IdentityService;
 import org.identityshelf.adminapi.web.dto.CreateIdentityRequest;
 import org.identityshelf.adminapi.web.dto.IdentityResponse;
+import org.identityshelf.adminapi.web.dto.IdentityScrollResponse;
 import org.identityshelf.adminapi.web.dto.UpdateIdentityRequest;
+import org.identityshelf.core.domain.exception.IdentityConflictException;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
+import org.identityshelf.core.domain.exception.IdentityValidationException;
+import org.identityshelf.data.export.NdjsonIdentityExporter;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +54,9 @@ public class IdentityController {
             IdentityResponse response = identityService.createIdentity(request);
             logger.info("Successfully created identity with ID: {}", response.getId());
             return response;
+        } catch (IdentityValidationException | IllegalArgumentException | IllegalStateException e) {
+            logger.info("Rejected create identity request: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         } catch (Exception e) {
             logger.error("Error in create identity endpoint: {}", e.getMessage(), e);
             throw e;
@@ -53,6 +68,42 @@ public class IdentityController {
         return identityService.listIdentities(pageable);
     }
 
+    @GetMapping("/scroll")
+    public IdentityScrollResponse scroll(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "createdAt") String sort,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return identityService.scrollIdentities(cursor, sort, limit);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * NDJSON export of all identities of a type; gzip-compressed when the client accepts it
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam String type,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (!identityService.identityTypeExists(type)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown identity type: " + type);
+        }
+        boolean gzip = NdjsonIdentityExporter.acceptsGzip(acceptEncoding);
+        
+        StreamingResponseBody body = out -> {
+            long exported = identityService.exportIdentities(type, out, gzip);
+            logger.info("Exported {} identities of type {}{}", exported, type, gzip ? " (gzip)" : "");
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, NdjsonIdentityExporter.GZIP);
+        }
+        return response.body(body);
+    }
+
     @GetMapping("/{id}")
     public IdentityResponse get(@PathVariable UUID id) {
         return identityService.getIdentity(id);
@@ -60,13 +111,24 @@ public class IdentityController {
 
     @PutMapping("/{id}")
     public IdentityResponse update(@PathVariable UUID id, @Valid @RequestBody UpdateIdentityRequest request) {
-        return identityService.updateIdentity(id, request);
+        try {
+            return identityService.updateIdentity(id, request);
+        } catch (IdentityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IdentityConflictException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        } catch (IdentityValidationException | IllegalArgumentException | IllegalStateException e) {
+            logger.info("Rejected update of identity {}: {}", id, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
 
     @DeleteMapping("/{id}")
-    @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void delete(@PathVariable UUID id) {
-        identityService.deleteIdentity(id);
+    public ResponseEntity<Void> delete(@PathVariable UUID id) {
+        if (!identityService.deleteIdentity(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
     }
 }
 
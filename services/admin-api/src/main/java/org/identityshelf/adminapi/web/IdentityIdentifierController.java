@@ -5,11 +5,14 @@ import org.identityshelf.adminapi.service.IdentityIdentifierService;
 import org.identityshelf.adminapi.web.dto.CreateIdentifierRequest;
 import org.identityshelf.adminapi.web.dto.IdentityIdentifierResponse;
 import org.identityshelf.adminapi.web.dto.IdentityIdentifierSearchRequest;
+import org.identityshelf.core.domain.exception.IdentityConflictException;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.List;
 import java.util.UUID;
@@ -47,8 +50,11 @@ public class IdentityIdentifierController {
     }
 
     @GetMapping("/search/suggestions")
-    public ResponseEntity<List<IdentityIdentifierResponse>> getIdentifierSuggestions(@RequestParam String partial) {
-        List<IdentityIdentifier> identifiers = identifierService.findIdentifierSuggestions(partial);
+    public ResponseEntity<List<IdentityIdentifierResponse>> getIdentifierSuggestions(
+            @RequestParam String partial,
+            @RequestParam(required = false) UUID typeId,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<IdentityIdentifier> identifiers = identifierService.findIdentifierSuggestions(partial, typeId, limit);
         List<IdentityIdentifierResponse> response = identifiers.stream()
                 .map(IdentityIdentifierResponse::from)
                 .collect(Collectors.toList());
@@ -109,6 +115,12 @@ public class IdentityIdentifierController {
             
             log.info("Successfully created identifier with ID: {}", identifier.getUuid());
             return ResponseEntity.status(HttpStatus.CREATED).body(IdentityIdentifierResponse.from(identifier));
+        } catch (IdentityNotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        } catch (IdentityConflictException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
         } catch (Exception e) {
             log.error("Error creating identifier: {}", e.getMessage());
             throw e;
@@ -0,0 +1,27 @@
+package org.identityshelf.adminapi.web;
+
+import org.identityshelf.adminapi.web.dto.ValidationPatternResponse;
+import org.identityshelf.adminapi.web.dto.ValueRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Checks a validation regex before it is saved. Saved patterns are reported the same way
+ * on the attribute type, identifier type and mapping responses.
+ */
+@RestController
+@RequestMapping("/api/validation-patterns")
+public class ValidationPatternController {
+
+    @PostMapping("/analyze")
+    public ResponseEntity<ValidationPatternResponse> analyze(@RequestBody ValueRequest request) {
+        ValidationPatternResponse response = ValidationPatternResponse.of(request.getValue());
+        if (response == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -53,6 +53,7 @@ public class AttributeTypeResponse {
     public boolean isRequired() { return required; }
     public String getDefaultValue() { return defaultValue; }
     public String getValidationRegex() { return validationRegex; }
+    public ValidationPatternResponse getValidationPattern() { return ValidationPatternResponse.of(validationRegex); }
     public int getSortOrder() { return sortOrder; }
     public boolean isActive() { return active; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
@@ -0,0 +1,27 @@
+package org.identityshelf.adminapi.web.dto;
+
+import org.identityshelf.core.domain.definition.DefinitionSnapshot;
+
+import java.time.Instant;
+
+public class DefinitionSnapshotResponse {
+    private long version;
+    private Instant loadedAt;
+    private int identityTypeCount;
+    
+    // Constructor
+    public DefinitionSnapshotResponse(long version, Instant loadedAt, int identityTypeCount) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.identityTypeCount = identityTypeCount;
+    }
+    
+    public static DefinitionSnapshotResponse from(DefinitionSnapshot snapshot) {
+        return new DefinitionSnapshotResponse(snapshot.version(), snapshot.loadedAt(), snapshot.identityTypes().size());
+    }
+    
+    // Getters
+    public long getVersion() { return version; }
+    public Instant getLoadedAt() { return loadedAt; }
+    public int getIdentityTypeCount() { return identityTypeCount; }
+}
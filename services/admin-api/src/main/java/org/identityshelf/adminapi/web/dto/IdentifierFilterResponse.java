@@ -0,0 +1,46 @@
+package org.identityshelf.adminapi.web.dto;
+
+import org.identityshelf.data.cache.IdentifierFilterStats;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class IdentifierFilterResponse {
+    private UUID identifierTypeId;
+    private String identifierTypeName;
+    private long values;
+    private long capacity;
+    private int hashFunctions;
+    private long memoryBytes;
+    private double expectedFalsePositiveRate;
+    private Instant builtAt;
+    
+    // Constructor
+    public IdentifierFilterResponse(UUID identifierTypeId, String identifierTypeName, long values, long capacity,
+                                    int hashFunctions, long memoryBytes, double expectedFalsePositiveRate, Instant builtAt) {
+        this.identifierTypeId = identifierTypeId;
+        this.identifierTypeName = identifierTypeName;
+        this.values = values;
+        this.capacity = capacity;
+        this.hashFunctions = hashFunctions;
+        this.memoryBytes = memoryBytes;
+        this.expectedFalsePositiveRate = expectedFalsePositiveRate;
+        this.builtAt = builtAt;
+    }
+    
+    public static IdentifierFilterResponse from(IdentifierFilterStats stats) {
+        return new IdentifierFilterResponse(stats.identifierTypeUuid(), stats.identifierTypeName(), stats.values(),
+                stats.capacity(), stats.hashFunctions(), stats.memoryBytes(), stats.expectedFalsePositiveRate(),
+                stats.builtAt());
+    }
+    
+    // Getters
+    public UUID getIdentifierTypeId() { return identifierTypeId; }
+    public String getIdentifierTypeName() { return identifierTypeName; }
+    public long getValues() { return values; }
+    public long getCapacity() { return capacity; }
+    public int getHashFunctions() { return hashFunctions; }
+    public long getMemoryBytes() { return memoryBytes; }
+    public double getExpectedFalsePositiveRate() { return expectedFalsePositiveRate; }
+    public Instant getBuiltAt() { return builtAt; }
+}
@@ -12,6 +12,7 @@ public class IdentifierTypeResponse {
     private final String dataType;
     private final String validationRegex;
     private final String defaultValue;
+    private final String canonicalization;
     private final boolean unique;
     private final boolean searchable;
     private final boolean active;
@@ -21,7 +22,7 @@ public class IdentifierTypeResponse {
     // Constructor
     public IdentifierTypeResponse(String id, String name, String displayName, String description,
                                  String dataType, String validationRegex, String defaultValue,
-                                 boolean unique, boolean searchable, boolean active,
+                                 String canonicalization, boolean unique, boolean searchable, boolean active,
                                  OffsetDateTime createdAt, OffsetDateTime updatedAt) {
         this.id = id;
         this.name = name;
@@ -30,6 +31,7 @@ public class IdentifierTypeResponse {
         this.dataType = dataType;
         this.validationRegex = validationRegex;
         this.defaultValue = defaultValue;
+        this.canonicalization = canonicalization;
         this.unique = unique;
         this.searchable = searchable;
         this.active = active;
@@ -46,6 +48,7 @@ public class IdentifierTypeResponse {
                 identifierType.getDataType().name(),
                 identifierType.getValidationRegex(),
                 identifierType.getDefaultValue(),
+                identifierType.getCanonicalization().name(),
                 identifierType.isUnique(),
                 identifierType.isSearchable(),
                 identifierType.isActive(),
@@ -61,7 +64,9 @@ public class IdentifierTypeResponse {
     public String getDescription() { return description; }
     public String getDataType() { return dataType; }
     public String getValidationRegex() { return validationRegex; }
+    public ValidationPatternResponse getValidationPattern() { return ValidationPatternResponse.of(validationRegex); }
     public String getDefaultValue() { return defaultValue; }
+    public String getCanonicalization() { return canonicalization; }
     public boolean isUnique() { return unique; }
     public boolean isSearchable() { return searchable; }
     public boolean isActive() { return active; }
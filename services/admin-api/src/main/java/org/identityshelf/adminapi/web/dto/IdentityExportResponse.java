@@ -0,0 +1,47 @@
+package org.identityshelf.adminapi.web.dto;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * One line of an identity export: the identity with its attributes and active identifiers
+ */
+public class IdentityExportResponse {
+    private final UUID id;
+    private final String displayName;
+    private final String status;
+    private final OffsetDateTime createdAt;
+    private final OffsetDateTime updatedAt;
+    private final String identityType;
+    private final long version;
+    private final Map<String, Object> attributes;
+    private final List<IdentityIdentifierResponse> identifiers;
+    
+    // Constructor
+    public IdentityExportResponse(UUID id, String displayName, String status, OffsetDateTime createdAt,
+                                  OffsetDateTime updatedAt, String identityType, long version,
+                                  Map<String, Object> attributes, List<IdentityIdentifierResponse> identifiers) {
+        this.id = id;
+        this.displayName = displayName;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.identityType = identityType;
+        this.version = version;
+        this.attributes = attributes;
+        this.identifiers = identifiers;
+    }
+    
+    // Getters
+    public UUID getId() { return id; }
+    public String getDisplayName() { return displayName; }
+    public String getStatus() { return status; }
+    public OffsetDateTime getCreatedAt() { return createdAt; }
+    public OffsetDateTime getUpdatedAt() { return updatedAt; }
+    public String getIdentityType() { return identityType; }
+    public long getVersion() { return version; }
+    public Map<String, Object> getAttributes() { return attributes; }
+    public List<IdentityIdentifierResponse> getIdentifiers() { return identifiers; }
+}
@@ -0,0 +1,19 @@
+package org.identityshelf.adminapi.web.dto;
+
+import java.util.List;
+
+public class IdentityScrollResponse {
+    private final List<IdentityResponse> content;
+    private final String nextCursor;
+    
+    // Constructor
+    public IdentityScrollResponse(List<IdentityResponse> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters
+    public List<IdentityResponse> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isLast() { return nextCursor == null; }
+}
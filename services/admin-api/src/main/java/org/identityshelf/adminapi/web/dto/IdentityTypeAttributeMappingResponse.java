@@ -92,6 +92,7 @@ public class IdentityTypeAttributeMappingResponse {
     public int getSortOrder() { return sortOrder; }
     public boolean isRequired() { return required; }
     public String getOverrideValidationRegex() { return overrideValidationRegex; }
+    public ValidationPatternResponse getOverrideValidationPattern() { return ValidationPatternResponse.of(overrideValidationRegex); }
     public String getOverrideDefaultValue() { return overrideDefaultValue; }
     public boolean isActive() { return active; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
@@ -96,6 +96,7 @@ public class IdentityTypeIdentifierMappingResponse {
     public boolean isRequired() { return required; }
     public boolean isPrimaryCandidate() { return primaryCandidate; }
     public String getOverrideValidationRegex() { return overrideValidationRegex; }
+    public ValidationPatternResponse getOverrideValidationPattern() { return ValidationPatternResponse.of(overrideValidationRegex); }
     public String getOverrideDefaultValue() { return overrideDefaultValue; }
     public boolean isActive() { return active; }
     public OffsetDateTime getCreatedAt() { return createdAt; }
@@ -0,0 +1,49 @@
+package org.identityshelf.adminapi.web.dto;
+
+import org.identityshelf.core.domain.definition.pattern.PatternAnalysis;
+import org.identityshelf.core.domain.definition.pattern.PatternEngine;
+import org.identityshelf.core.domain.definition.pattern.ValidationPatterns;
+
+/**
+ * Whether a validation regex compiles and whether it runs on the linear-time engine.
+ * {@code reason} names the syntax error or the feature that needs the backtracking engine.
+ */
+public class ValidationPatternResponse {
+    private final String regex;
+    private final boolean valid;
+    private final String engine;
+    private final boolean linearTime;
+    private final String reason;
+    
+    // Constructor
+    public ValidationPatternResponse(String regex, boolean valid, String engine, boolean linearTime, String reason) {
+        this.regex = regex;
+        this.valid = valid;
+        this.engine = engine;
+        this.linearTime = linearTime;
+        this.reason = reason;
+    }
+    
+    /**
+     * Analysis of the regex, or null if there is none
+     */
+    public static ValidationPatternResponse of(String regex) {
+        if (regex == null || regex.isBlank()) {
+            return null;
+        }
+        PatternAnalysis analysis = ValidationPatterns.analyze(regex);
+        return new ValidationPatternResponse(
+                analysis.regex(),
+                analysis.valid(),
+                analysis.engine() != null ? analysis.engine().name() : null,
+                analysis.valid() && analysis.engine() == PatternEngine.LINEAR,
+                analysis.reason());
+    }
+    
+    // Getters
+    public String getRegex() { return regex; }
+    public boolean isValid() { return valid; }
+    public String getEngine() { return engine; }
+    public boolean isLinearTime() { return linearTime; }
+    public String getReason() { return reason; }
+}
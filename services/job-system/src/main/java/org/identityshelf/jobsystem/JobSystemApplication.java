@@ -1,12 +1,15 @@
 package org.identityshelf.jobsystem;
 
+import org.identityshelf.data.config.IdentityDataConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication(scanBasePackages = {
     "org.identityshelf.jobsystem",
     "org.identityshelf.core"
 })
+@Import(IdentityDataConfig.class)
 public class JobSystemApplication {
     public static void main(String[] args) {
         SpringApplication.run(JobSystemApplication.class, args);
@@ -0,0 +1,38 @@
+package org.identityshelf.jobsystem.config;
+
+import org.identityshelf.jobsystem.definition.DefinitionSnapshotReloadJob;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the periodic reload of the definition snapshots
+ */
+@Configuration
+public class DefinitionSnapshotJobConfig {
+
+    @Bean
+    public JobDetail definitionSnapshotReloadJobDetail() {
+        return JobBuilder.newJob(DefinitionSnapshotReloadJob.class)
+                .withIdentity("definitionSnapshotReloadJob")
+                .withDescription("Reloads the in-memory definition snapshots on all nodes")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger definitionSnapshotReloadTrigger(JobDetail definitionSnapshotReloadJobDetail,
+                                                   @Value("${app.definitions.reload-cron:0 */10 * * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .forJob(definitionSnapshotReloadJobDetail)
+                .withIdentity("definitionSnapshotReloadTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron)
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
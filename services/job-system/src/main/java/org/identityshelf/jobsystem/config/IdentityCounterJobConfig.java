@@ -0,0 +1,38 @@
+package org.identityshelf.jobsystem.config;
+
+import org.identityshelf.jobsystem.counter.IdentityCounterReconciliationJob;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the identity counter reconciliation
+ */
+@Configuration
+public class IdentityCounterJobConfig {
+
+    @Bean
+    public JobDetail identityCounterReconciliationJobDetail() {
+        return JobBuilder.newJob(IdentityCounterReconciliationJob.class)
+                .withIdentity("identityCounterReconciliationJob")
+                .withDescription("Recomputes the maintained identity counters from the base tables")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger identityCounterReconciliationTrigger(JobDetail identityCounterReconciliationJobDetail,
+                                                        @Value("${app.counters.reconcile-cron:0 30 3 * * ?}") String cron) {
+        return TriggerBuilder.newTrigger()
+                .forJob(identityCounterReconciliationJobDetail)
+                .withIdentity("identityCounterReconciliationTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(cron)
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package org.identityshelf.jobsystem.config;
+
+import org.identityshelf.jobsystem.importer.IdentityImportJob;
+import org.identityshelf.jobsystem.importer.IdentityImportProperties;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the bulk identity import
+ */
+@Configuration
+@EnableConfigurationProperties(IdentityImportProperties.class)
+public class IdentityImportJobConfig {
+
+    @Bean
+    public JobDetail identityImportJobDetail() {
+        return JobBuilder.newJob(IdentityImportJob.class)
+                .withIdentity("identityImportJob")
+                .withDescription("Imports identity CSV / NDJSON files from the import inbox")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger identityImportTrigger(JobDetail identityImportJobDetail, IdentityImportProperties properties) {
+        return TriggerBuilder.newTrigger()
+                .forJob(identityImportJobDetail)
+                .withIdentity("identityImportTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(properties.getCron())
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
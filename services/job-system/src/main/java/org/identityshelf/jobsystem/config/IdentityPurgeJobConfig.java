@@ -0,0 +1,39 @@
+package org.identityshelf.jobsystem.config;
+
+import org.identityshelf.jobsystem.purge.IdentityPurgeJob;
+import org.identityshelf.jobsystem.purge.IdentityPurgeProperties;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the purge of tombstoned identities
+ */
+@Configuration
+@EnableConfigurationProperties(IdentityPurgeProperties.class)
+public class IdentityPurgeJobConfig {
+
+    @Bean
+    public JobDetail identityPurgeJobDetail() {
+        return JobBuilder.newJob(IdentityPurgeJob.class)
+                .withIdentity("identityPurgeJob")
+                .withDescription("Removes deleted identities whose retention has passed")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger identityPurgeTrigger(JobDetail identityPurgeJobDetail, IdentityPurgeProperties properties) {
+        return TriggerBuilder.newTrigger()
+                .forJob(identityPurgeJobDetail)
+                .withIdentity("identityPurgeTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(properties.getCron())
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
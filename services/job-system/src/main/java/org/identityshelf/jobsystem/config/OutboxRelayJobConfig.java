@@ -0,0 +1,39 @@
+package org.identityshelf.jobsystem.config;
+
+import org.identityshelf.jobsystem.outbox.OutboxRelayJob;
+import org.identityshelf.jobsystem.outbox.OutboxRelayProperties;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the outbox relay
+ */
+@Configuration
+@EnableConfigurationProperties(OutboxRelayProperties.class)
+public class OutboxRelayJobConfig {
+
+    @Bean
+    public JobDetail outboxRelayJobDetail() {
+        return JobBuilder.newJob(OutboxRelayJob.class)
+                .withIdentity("outboxRelayJob")
+                .withDescription("Delivers identity_outbox events to the configured sinks")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger outboxRelayTrigger(JobDetail outboxRelayJobDetail, OutboxRelayProperties properties) {
+        return TriggerBuilder.newTrigger()
+                .forJob(outboxRelayJobDetail)
+                .withIdentity("outboxRelayTrigger")
+                .withSchedule(CronScheduleBuilder.cronSchedule(properties.getCron())
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
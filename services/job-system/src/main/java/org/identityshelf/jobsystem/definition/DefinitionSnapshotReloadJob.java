@@ -0,0 +1,34 @@
+package org.identityshelf.jobsystem.definition;
+
+import org.identityshelf.core.domain.definition.DefinitionSnapshot;
+import org.identityshelf.data.cache.DefinitionSnapshotReloader;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Periodic backstop for the definition snapshots. Change notifications are not durable, so a node
+ * can miss one while its listener reconnects; this job reloads the job system's snapshot and then
+ * notifies the definition change channel so every listening node reloads as well.
+ */
+@DisallowConcurrentExecution
+public class DefinitionSnapshotReloadJob extends QuartzJobBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefinitionSnapshotReloadJob.class);
+
+    private final DefinitionSnapshotReloader snapshotReloader;
+
+    public DefinitionSnapshotReloadJob(DefinitionSnapshotReloader snapshotReloader) {
+        this.snapshotReloader = snapshotReloader;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        DefinitionSnapshot snapshot = snapshotReloader.reload();
+        snapshotReloader.notifyAllNodes("periodic-reload");
+        logger.info("Definition snapshot reloaded, now v{} with {} identity types",
+                snapshot.version(), snapshot.identityTypes().size());
+    }
+}
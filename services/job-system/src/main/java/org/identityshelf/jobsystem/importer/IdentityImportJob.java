@@ -0,0 +1,31 @@
+package org.identityshelf.jobsystem.importer;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+import java.io.IOException;
+
+/**
+ * Quartz job that drains the import inbox. Runs never overlap, so a large file
+ * is never picked up twice while it is still being imported.
+ */
+@DisallowConcurrentExecution
+public class IdentityImportJob extends QuartzJobBean {
+
+    private final IdentityImportService importService;
+
+    public IdentityImportJob(IdentityImportService importService) {
+        this.importService = importService;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        try {
+            importService.importInbox();
+        } catch (IOException e) {
+            throw new JobExecutionException("Failed to read import inbox", e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.identityshelf.jobsystem.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the bulk identity import job ({@code app.import.*})
+ */
+@ConfigurationProperties(prefix = "app.import")
+public class IdentityImportProperties {
+
+    /**
+     * Directory polled for CSV / NDJSON files
+     */
+    private String inboxDir = "/var/identityshelf/import/inbox";
+
+    /**
+     * Directory completed files are moved to
+     */
+    private String processedDir = "/var/identityshelf/import/processed";
+
+    /**
+     * Rows staged and merged per transaction; also the resume granularity
+     */
+    private int chunkSize = 10000;
+
+    /**
+     * Quartz cron expression for polling the inbox
+     */
+    private String cron = "0 */5 * * * ?";
+
+    public String getInboxDir() {
+        return inboxDir;
+    }
+
+    public void setInboxDir(String inboxDir) {
+        this.inboxDir = inboxDir;
+    }
+
+    public String getProcessedDir() {
+        return processedDir;
+    }
+
+    public void setProcessedDir(String processedDir) {
+        this.processedDir = processedDir;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+}
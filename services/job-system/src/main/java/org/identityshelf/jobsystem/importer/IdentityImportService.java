@@ -0,0 +1,500 @@
+package org.identityshelf.jobsystem.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.identityshelf.core.domain.AttributeDataType;
+import org.identityshelf.core.domain.definition.AttributeDefinition;
+import org.identityshelf.core.domain.definition.DefinitionSnapshot;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.identityshelf.core.domain.definition.IdentifierDefinition;
+import org.identityshelf.core.domain.definition.IdentityTypeDefinition;
+import org.identityshelf.core.domain.definition.ValidationPlan;
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.core.domain.valueobject.UuidV7;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk-loads identities from CSV / NDJSON files dropped into the import inbox.
+ *
+ * Each file is processed in chunks. Per chunk, one transaction validates the rows in memory against the
+ * validation plans of the definition snapshot in use when the run started, the same ones the API validates
+ * with, streams the valid ones into UNLOGGED staging tables via COPY, rejects identifier conflicts
+ * set-based and merges the rest into the live tables with INSERT ... SELECT. The run row records the last
+ * committed line, so a failed or interrupted file resumes where it stopped.
+ */
+@Service
+public class IdentityImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentityImportService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DefinitionSnapshotService definitionSnapshots;
+    private final IdentityImportProperties properties;
+    private final boolean jsonbAttributes;
+
+    public IdentityImportService(JdbcTemplate jdbcTemplate,
+                                 DataSource dataSource,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 DefinitionSnapshotService definitionSnapshots,
+                                 IdentityImportProperties properties,
+                                 @Value("${app.data.attribute-storage:rows}") String attributeStorage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.definitionSnapshots = definitionSnapshots;
+        this.properties = properties;
+        this.jsonbAttributes = "jsonb".equals(attributeStorage);
+    }
+
+    /**
+     * Import every supported file currently in the inbox, oldest name first
+     */
+    public void importInbox() throws IOException {
+        Path inbox = Paths.get(properties.getInboxDir());
+        if (!Files.isDirectory(inbox)) {
+            logger.debug("Import inbox {} does not exist, nothing to do", inbox);
+            return;
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(inbox)) {
+            for (Path entry : entries) {
+                if (Files.isRegularFile(entry) && ImportFileReader.isSupported(entry)) {
+                    files.add(entry);
+                }
+            }
+        }
+        files.sort(null);
+
+        for (Path file : files) {
+            try {
+                importFile(file);
+            } catch (Exception e) {
+                logger.error("Import of {} failed, it will resume on the next run", file, e);
+            }
+        }
+    }
+
+    /**
+     * Import a single file, resuming a previous run for the same content if there is one
+     */
+    public void importFile(Path file) throws IOException {
+        String checksum = checksum(file);
+        ImportRun run = startOrResumeRun(file, checksum);
+        if (run.completed()) {
+            logger.info("File {} was already imported by run {}, moving it aside", file, run.uuid());
+            moveToProcessed(file);
+            return;
+        }
+
+        logger.info("Importing {} (run {}, resuming after line {})", file, run.uuid(), run.committedLine());
+        DefinitionSnapshot definitions = definitionSnapshots.current();
+        long imported = 0;
+        long rejected = 0;
+
+        try (ImportFileReader reader = ImportFileReader.open(file, objectMapper)) {
+            reader.skipTo(run.committedLine());
+
+            List<ImportRow> chunk = new ArrayList<>(properties.getChunkSize());
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                chunk.add(row);
+                if (chunk.size() == properties.getChunkSize()) {
+                    ChunkResult result = importChunk(run.uuid(), chunk, definitions);
+                    imported += result.imported();
+                    rejected += result.rejected();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                ChunkResult result = importChunk(run.uuid(), chunk, definitions);
+                imported += result.imported();
+                rejected += result.rejected();
+            }
+        } catch (RuntimeException | IOException e) {
+            jdbcTemplate.update(
+                    "UPDATE import_runs SET status = 'FAILED', error_message = ?, updated_at = now() WHERE uuid = ?",
+                    e.getMessage(), run.uuid());
+            throw e;
+        }
+
+        jdbcTemplate.update(
+                "UPDATE import_runs SET status = 'COMPLETED', error_message = NULL, updated_at = now(), completed_at = now() " +
+                "WHERE uuid = ?",
+                run.uuid());
+        logger.info("Imported {}: {} identities created, {} rows rejected", file, imported, rejected);
+        moveToProcessed(file);
+    }
+
+    private ChunkResult importChunk(UUID runUuid, List<ImportRow> rows, DefinitionSnapshot definitions) {
+        long lastLine = rows.get(rows.size() - 1).lineNumber();
+
+        return transactionTemplate.execute(status -> {
+            StagedChunk staged = stage(runUuid, rows, definitions);
+
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO import_rejects (uuid, run_uuid, line_number, reason, created_at) VALUES (?, ?, ?, ?, now())",
+                    staged.rejects,
+                    staged.rejects.size(),
+                    (ps, reject) -> {
+                        ps.setObject(1, UuidV7.generate());
+                        ps.setObject(2, runUuid);
+                        ps.setLong(3, reject.lineNumber());
+                        ps.setString(4, reject.reason());
+                    });
+
+            copyIn("import_stage_identities", staged.identities);
+            copyIn("import_stage_attribute_values", staged.attributeValues);
+            copyIn("import_stage_identifiers", staged.identifiers);
+
+            int conflicts = rejectIdentifierConflicts(runUuid);
+            int imported = mergeStaged(runUuid);
+
+            jdbcTemplate.update(
+                    "UPDATE import_runs SET committed_line = ?, imported_rows = imported_rows + ?, " +
+                    "rejected_rows = rejected_rows + ?, updated_at = now() WHERE uuid = ?",
+                    lastLine, imported, staged.rejects.size() + conflicts, runUuid);
+
+            return new ChunkResult(imported, staged.rejects.size() + conflicts);
+        });
+    }
+
+    /**
+     * Validate rows against the definitions and render the valid ones as COPY CSV payloads
+     */
+    private StagedChunk stage(UUID runUuid, List<ImportRow> rows, DefinitionSnapshot definitions) {
+        StagedChunk staged = new StagedChunk();
+        for (ImportRow row : rows) {
+            try {
+                stageRow(runUuid, row, definitions, staged);
+            } catch (IllegalArgumentException e) {
+                staged.rejects.add(new Reject(row.lineNumber(), e.getMessage()));
+            }
+        }
+        return staged;
+    }
+
+    private void stageRow(UUID runUuid, ImportRow row, DefinitionSnapshot definitions, StagedChunk staged) {
+        if (!row.isParsed()) {
+            throw new IllegalArgumentException(row.parseError());
+        }
+        if (row.displayName() == null || row.displayName().isBlank()) {
+            throw new IllegalArgumentException("Display name is required");
+        }
+        if (row.displayName().length() > 255) {
+            throw new IllegalArgumentException("Display name must not exceed 255 characters");
+        }
+
+        IdentityTypeDefinition type = definitions.findIdentityType(row.identityTypeName());
+        if (type == null || !type.active()) {
+            throw new IllegalArgumentException("Unknown identity type: " + row.identityTypeName());
+        }
+        ValidationPlan plan = definitions.findValidationPlan(type.name());
+        IdentityStatus identityStatus = IdentityStatus.fromString(row.status());
+        if (identityStatus == IdentityStatus.DELETED) {
+            // A tombstone needs a deletion time and would be purged unseen; it is not something to import
+            throw new IllegalArgumentException("Status " + identityStatus.name() + " cannot be imported");
+        }
+
+        // Validate everything before writing anything, so a rejected row leaves no partial payload behind
+        Map<String, AttributeValue> attributes = new LinkedHashMap<>();
+        row.attributes().forEach((name, value) -> attributes.put(name, AttributeValue.of(value, name)));
+        List<String> errors = plan.validate(attributes);
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join(", ", errors));
+        }
+
+        List<String> attributeLines = new ArrayList<>();
+        List<String> identifierLines = new ArrayList<>();
+        UUID identityUuid = UuidV7.generate();
+
+        for (AttributeValue attribute : attributes.values()) {
+            if (attribute.isEmpty()) {
+                continue;
+            }
+            AttributeDefinition definition = type.findAttribute(attribute.getAttributeName());
+            TypedValue value = TypedValue.of(definition.dataType(), attribute.getValue());
+            attributeLines.add(csv(runUuid, row.lineNumber(), UuidV7.generate(), identityUuid, definition.uuid(),
+                    value.stringValue(), value.integerValue(), value.decimalValue(), value.booleanValue(), value.dateValue()));
+        }
+
+        // The set-based conflict check only compares different lines, so a row repeating a value is caught here
+        Set<String> identifierValues = new HashSet<>();
+        for (ImportRow.Identifier identifier : row.identifiers()) {
+            IdentifierDefinition definition = type.findIdentifier(identifier.typeName());
+            if (definition == null) {
+                throw new IllegalArgumentException("Identifier '" + identifier.typeName() + "' is not defined for type " + type.name());
+            }
+            if (identifier.value() == null || identifier.value().isBlank()) {
+                throw new IllegalArgumentException("Identifier '" + identifier.typeName() + "' has no value");
+            }
+            if (identifier.value().length() > 500) {
+                throw new IllegalArgumentException("Identifier '" + identifier.typeName() + "' must not exceed 500 characters");
+            }
+            String error = plan.checkIdentifier(definition.name(), identifier.value());
+            if (error != null) {
+                throw new IllegalArgumentException(error);
+            }
+            if (!definition.canonicalization().hasCanonicalForm(identifier.value())) {
+                throw new IllegalArgumentException("Identifier '" + identifier.typeName() + "' is not a valid "
+                        + definition.canonicalization() + " value: " + identifier.value());
+            }
+            String normalizedValue = definition.canonicalization().canonicalize(identifier.value());
+            if (!identifierValues.add(definition.uuid() + ":" + normalizedValue)) {
+                throw new IllegalArgumentException("Identifier '" + identifier.typeName() + "' is listed twice with value " + identifier.value());
+            }
+            identifierLines.add(csv(runUuid, row.lineNumber(), UuidV7.generate(), identityUuid, definition.uuid(),
+                    identifier.value(), identifier.primary(), normalizedValue));
+        }
+        for (IdentifierDefinition definition : type.identifiers()) {
+            if (definition.required() && row.identifiers().stream().noneMatch(i -> definition.name().equals(i.typeName()))) {
+                throw new IllegalArgumentException("Required identifier '" + definition.name() + "' is missing");
+            }
+        }
+
+        staged.identities.append(csv(runUuid, row.lineNumber(), identityUuid, row.displayName(), identityStatus.name(), type.uuid()));
+        attributeLines.forEach(staged.attributeValues::append);
+        identifierLines.forEach(staged.identifiers::append);
+    }
+
+    /**
+     * Reject rows whose identifiers already exist or were claimed by an earlier line of the same run,
+     * comparing canonical values so 123-45-6789 and 123456789 collide
+     */
+    private int rejectIdentifierConflicts(UUID runUuid) {
+        int rejected = jdbcTemplate.update(
+                "INSERT INTO import_rejects (uuid, run_uuid, line_number, reason, created_at) " +
+                "SELECT DISTINCT ON (s.line_number) gen_random_uuid(), s.run_uuid, s.line_number, " +
+                "       'Identifier ' || s.identifier_value || ' is already in use', now() " +
+                "FROM import_stage_identifiers s " +
+                "WHERE s.run_uuid = ? " +
+                "  AND (EXISTS (SELECT 1 FROM identity_identifiers i " +
+                "               WHERE i.identifier_type_uuid = s.identifier_type_uuid " +
+                "                 AND i.normalized_value = s.normalized_value AND i.is_active = TRUE) " +
+                "    OR EXISTS (SELECT 1 FROM import_stage_identifiers d " +
+                "               WHERE d.run_uuid = s.run_uuid AND d.identifier_type_uuid = s.identifier_type_uuid " +
+                "                 AND d.normalized_value = s.normalized_value AND d.line_number < s.line_number)) " +
+                "ORDER BY s.line_number",
+                runUuid);
+
+        if (rejected > 0) {
+            for (String table : List.of("import_stage_identities", "import_stage_attribute_values", "import_stage_identifiers")) {
+                jdbcTemplate.update(
+                        "DELETE FROM " + table + " s WHERE s.run_uuid = ? AND EXISTS (" +
+                        "SELECT 1 FROM import_rejects r WHERE r.run_uuid = s.run_uuid AND r.line_number = s.line_number)",
+                        runUuid);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * Move the surviving staged rows into the live tables and clear the stage. Attributes go where
+     * app.data.attribute-storage keeps them: rows in identity_attribute_values, or the identities.attributes
+     * document built in the same INSERT, with values rendered as copy_identity_attribute_rows_to_jsonb does
+     */
+    private int mergeStaged(UUID runUuid) {
+        int imported;
+        if (jsonbAttributes) {
+            imported = jdbcTemplate.update(
+                    "INSERT INTO identities (uuid, display_name, status, identity_type_uuid, attributes, created_at, updated_at) " +
+                    "SELECT s.uuid, s.display_name, s.status, s.identity_type_uuid, coalesce(" +
+                    "       (SELECT jsonb_object_agg(a.name, CASE a.data_type " +
+                    "            WHEN 'INTEGER' THEN v.integer_value::text " +
+                    "            WHEN 'DECIMAL' THEN v.decimal_value::text " +
+                    "            WHEN 'BOOLEAN' THEN v.boolean_value::text " +
+                    "            WHEN 'DATE' THEN to_char(v.date_value AT TIME ZONE 'UTC', 'YYYY-MM-DD') " +
+                    "            WHEN 'DATETIME' THEN format_identity_attribute_datetime(v.date_value) " +
+                    "            ELSE v.string_value END) " +
+                    "        FROM import_stage_attribute_values v JOIN attribute_types a ON a.uuid = v.attribute_type_uuid " +
+                    "        WHERE v.run_uuid = s.run_uuid AND v.line_number = s.line_number), '{}'::jsonb), now(), now() " +
+                    "FROM import_stage_identities s WHERE s.run_uuid = ?",
+                    runUuid);
+        } else {
+            imported = jdbcTemplate.update(
+                    "INSERT INTO identities (uuid, display_name, status, identity_type_uuid, created_at, updated_at) " +
+                    "SELECT uuid, display_name, status, identity_type_uuid, now(), now() " +
+                    "FROM import_stage_identities WHERE run_uuid = ?",
+                    runUuid);
+            jdbcTemplate.update(
+                    "INSERT INTO identity_attribute_values (uuid, identity_uuid, attribute_type_uuid, string_value, " +
+                    "integer_value, decimal_value, boolean_value, date_value, created_at, updated_at) " +
+                    "SELECT uuid, identity_uuid, attribute_type_uuid, string_value, integer_value, decimal_value, " +
+                    "boolean_value, date_value, now(), now() " +
+                    "FROM import_stage_attribute_values WHERE run_uuid = ?",
+                    runUuid);
+        }
+        jdbcTemplate.update(
+                "INSERT INTO identity_identifiers (uuid, identity_uuid, identifier_type_uuid, identifier_value, " +
+                "normalized_value, is_primary, is_verified, is_active, created_at, updated_at) " +
+                "SELECT uuid, identity_uuid, identifier_type_uuid, identifier_value, normalized_value, is_primary, " +
+                "FALSE, TRUE, now(), now() " +
+                "FROM import_stage_identifiers WHERE run_uuid = ?",
+                runUuid);
+
+        jdbcTemplate.update("DELETE FROM import_stage_identities WHERE run_uuid = ?", runUuid);
+        jdbcTemplate.update("DELETE FROM import_stage_attribute_values WHERE run_uuid = ?", runUuid);
+        jdbcTemplate.update("DELETE FROM import_stage_identifiers WHERE run_uuid = ?", runUuid);
+        return imported;
+    }
+
+    /**
+     * Stream a CSV payload into a staging table on the transaction's connection
+     */
+    private void copyIn(String table, StringBuilder payload) {
+        if (payload.isEmpty()) {
+            return;
+        }
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY " + table + " FROM STDIN WITH (FORMAT csv)", new StringReader(payload.toString()));
+        } catch (SQLException e) {
+            throw new IllegalStateException("COPY into " + table + " failed: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private ImportRun startOrResumeRun(Path file, String checksum) {
+        List<ImportRun> existing = jdbcTemplate.query(
+                "SELECT uuid, status, committed_line FROM import_runs WHERE file_checksum = ?",
+                (rs, rowNum) -> new ImportRun(
+                        rs.getObject("uuid", UUID.class),
+                        "COMPLETED".equals(rs.getString("status")),
+                        rs.getLong("committed_line")),
+                checksum);
+        if (!existing.isEmpty()) {
+            ImportRun run = existing.get(0);
+            if (!run.completed()) {
+                jdbcTemplate.update(
+                        "UPDATE import_runs SET status = 'RUNNING', updated_at = now() WHERE uuid = ?", run.uuid());
+            }
+            return run;
+        }
+
+        UUID uuid = UuidV7.generate();
+        jdbcTemplate.update(
+                "INSERT INTO import_runs (uuid, file_name, file_checksum, status, started_at, updated_at) " +
+                "VALUES (?, ?, ?, 'RUNNING', now(), now())",
+                uuid, file.getFileName().toString(), checksum);
+        return new ImportRun(uuid, false, 0);
+    }
+
+    private void moveToProcessed(Path file) throws IOException {
+        Path processed = Paths.get(properties.getProcessedDir());
+        Files.createDirectories(processed);
+        Files.move(file, processed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String checksum(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Render one COPY CSV line: null is an empty unquoted field, strings are always quoted
+     */
+    private static String csv(Object... values) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            Object value = values[i];
+            if (value instanceof String s) {
+                line.append('"').append(s.replace("\"", "\"\"")).append('"');
+            } else if (value instanceof OffsetDateTime dateTime) {
+                line.append(dateTime);
+            } else if (value != null) {
+                line.append(value);
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    private static final class StagedChunk {
+        private final StringBuilder identities = new StringBuilder();
+        private final StringBuilder attributeValues = new StringBuilder();
+        private final StringBuilder identifiers = new StringBuilder();
+        private final List<Reject> rejects = new ArrayList<>();
+    }
+
+    private record Reject(long lineNumber, String reason) {}
+
+    /**
+     * An attribute value in the typed column it is stored in; the value has passed the validation plan
+     */
+    private record TypedValue(String stringValue, Long integerValue, Double decimalValue,
+                              Boolean booleanValue, OffsetDateTime dateValue) {
+
+        static TypedValue of(AttributeDataType dataType, String raw) {
+            if (dataType == null) {
+                return new TypedValue(raw, null, null, null, null);
+            }
+            return switch (dataType) {
+                case INTEGER -> new TypedValue(null, Long.parseLong(raw), null, null, null);
+                case DECIMAL -> new TypedValue(null, null, new BigDecimal(raw).doubleValue(), null, null);
+                case BOOLEAN -> new TypedValue(null, null, null, Boolean.parseBoolean(raw), null);
+                case DATE -> new TypedValue(null, null, null, null,
+                        LocalDate.parse(raw).atStartOfDay().atOffset(ZoneOffset.UTC));
+                case DATETIME -> new TypedValue(null, null, null, null, OffsetDateTime.parse(raw));
+                default -> new TypedValue(raw, null, null, null, null);
+            };
+        }
+    }
+
+    private record ImportRun(UUID uuid, boolean completed, long committedLine) {}
+
+    private record ChunkResult(int imported, int rejected) {}
+}
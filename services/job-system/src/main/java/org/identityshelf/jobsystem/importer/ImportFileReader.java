@@ -0,0 +1,218 @@
+package org.identityshelf.jobsystem.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams rows out of a CSV or NDJSON import file one at a time.
+ *
+ * CSV: the header names the columns {@code display_name}, {@code identity_type}, {@code status},
+ * {@code attribute.<name>} and {@code identifier.<name>}. Quoted fields may contain separators,
+ * doubled quotes and line breaks.
+ *
+ * NDJSON: one object per line shaped like the public API create request:
+ * {@code {"displayName": .., "type": .., "status": .., "attributes": {..},
+ * "identifiers": [{"type": .., "value": .., "primary": ..}]}}.
+ *
+ * Line numbers count data records starting at 1, so they stay stable across resumed runs.
+ */
+public abstract class ImportFileReader implements Closeable {
+
+    private static final String ATTRIBUTE_PREFIX = "attribute.";
+    private static final String IDENTIFIER_PREFIX = "identifier.";
+
+    protected final BufferedReader reader;
+    protected long lineNumber;
+
+    protected ImportFileReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    public static boolean isSupported(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        return name.endsWith(".csv") || name.endsWith(".ndjson") || name.endsWith(".jsonl");
+    }
+
+    public static ImportFileReader open(Path file, ObjectMapper objectMapper) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return new Csv(reader);
+        }
+        return new Ndjson(reader, objectMapper);
+    }
+
+    /**
+     * Read the next row, or null at end of file
+     */
+    public abstract ImportRow next() throws IOException;
+
+    /**
+     * Skip rows that an earlier run already committed
+     */
+    public void skipTo(long committedLine) throws IOException {
+        while (lineNumber < committedLine && next() != null) {
+            // discard
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static final class Ndjson extends ImportFileReader {
+
+        private final ObjectMapper objectMapper;
+
+        private Ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            lineNumber++;
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                Map<String, String> attributes = new LinkedHashMap<>();
+                node.path("attributes").fields().forEachRemaining(e ->
+                        attributes.put(e.getKey(), e.getValue().isNull() ? null : e.getValue().asText()));
+
+                List<ImportRow.Identifier> identifiers = new ArrayList<>();
+                for (JsonNode identifier : node.path("identifiers")) {
+                    identifiers.add(new ImportRow.Identifier(
+                            text(identifier, "type"),
+                            text(identifier, "value"),
+                            identifier.path("primary").asBoolean(false)));
+                }
+
+                return new ImportRow(lineNumber, text(node, "displayName"), text(node, "type"),
+                        text(node, "status"), attributes, identifiers, null);
+            } catch (IOException e) {
+                return ImportRow.unparseable(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        private static String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+
+    private static final class Csv extends ImportFileReader {
+
+        private List<String> header;
+
+        private Csv(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+            }
+
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isEmpty());
+
+            lineNumber++;
+            if (record.size() != header.size()) {
+                return ImportRow.unparseable(lineNumber,
+                        "Expected " + header.size() + " columns but found " + record.size());
+            }
+
+            String displayName = null;
+            String identityTypeName = null;
+            String status = null;
+            Map<String, String> attributes = new LinkedHashMap<>();
+            List<ImportRow.Identifier> identifiers = new ArrayList<>();
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i);
+                String value = record.get(i).isEmpty() ? null : record.get(i);
+                if (column.equals("display_name")) {
+                    displayName = value;
+                } else if (column.equals("identity_type")) {
+                    identityTypeName = value;
+                } else if (column.equals("status")) {
+                    status = value;
+                } else if (column.startsWith(ATTRIBUTE_PREFIX)) {
+                    attributes.put(column.substring(ATTRIBUTE_PREFIX.length()), value);
+                } else if (column.startsWith(IDENTIFIER_PREFIX) && value != null) {
+                    identifiers.add(new ImportRow.Identifier(column.substring(IDENTIFIER_PREFIX.length()), value, false));
+                }
+            }
+            return new ImportRow(lineNumber, displayName, identityTypeName, status, attributes, identifiers, null);
+        }
+
+        /**
+         * Read one RFC 4180 record, or null at end of file
+         */
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int nextChar = reader.read();
+                        if (nextChar == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
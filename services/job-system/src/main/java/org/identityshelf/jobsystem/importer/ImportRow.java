@@ -0,0 +1,29 @@
+package org.identityshelf.jobsystem.importer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One identity read from an import file, before validation.
+ * A row that could not be parsed carries a parse error instead of values.
+ */
+public record ImportRow(
+    long lineNumber,
+    String displayName,
+    String identityTypeName,
+    String status,
+    Map<String, String> attributes,
+    List<Identifier> identifiers,
+    String parseError
+) {
+
+    public record Identifier(String typeName, String value, boolean primary) {}
+
+    public static ImportRow unparseable(long lineNumber, String parseError) {
+        return new ImportRow(lineNumber, null, null, null, Map.of(), List.of(), parseError);
+    }
+
+    public boolean isParsed() {
+        return parseError == null;
+    }
+}
@@ -0,0 +1,59 @@
+package org.identityshelf.jobsystem.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.identityshelf.data.repository.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Appends events as NDJSON to one file per UTC day ({@code outbox-2024-01-31.ndjson}).
+ * The batch is forced to disk before the relay deletes it from the outbox.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.file.enabled", havingValue = "true")
+public class FileOutboxSink implements OutboxEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path dir;
+
+    public FileOutboxSink(ObjectMapper objectMapper, OutboxRelayProperties properties) {
+        this.objectMapper = objectMapper;
+        this.dir = Paths.get(properties.getFile().getDir());
+    }
+
+    @Override
+    public String name() {
+        return "file";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) throws IOException {
+        Files.createDirectories(dir);
+        StringBuilder lines = new StringBuilder(events.size() * 256);
+        for (OutboxEvent event : events) {
+            lines.append(objectMapper.writeValueAsString(OutboxEventJson.toNode(objectMapper, event))).append('\n');
+        }
+
+        Path file = dir.resolve("outbox-" + LocalDate.now(ZoneOffset.UTC) + ".ndjson");
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            out.write(lines.toString().getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.identityshelf.jobsystem.outbox;
+
+import org.identityshelf.data.repository.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Publishes each event as a Spring application event, for {@code @EventListener(OutboxEvent.class)}
+ * beans in the job system. Listeners run synchronously inside the relay transaction. Off by default:
+ * events are deleted once published, also when no listener received them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.in-process.enabled", havingValue = "true")
+public class InProcessOutboxSink implements OutboxEventSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public InProcessOutboxSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String name() {
+        return "in-process";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
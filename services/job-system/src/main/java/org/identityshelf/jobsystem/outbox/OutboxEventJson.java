@@ -0,0 +1,26 @@
+package org.identityshelf.jobsystem.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.identityshelf.data.repository.OutboxEvent;
+
+/**
+ * Wire format shared by the file and webhook sinks
+ */
+final class OutboxEventJson {
+
+    private OutboxEventJson() {
+    }
+
+    static ObjectNode toNode(ObjectMapper objectMapper, OutboxEvent event) throws JsonProcessingException {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("eventId", event.eventId().toString());
+        node.put("eventType", event.eventType());
+        node.put("aggregateType", event.aggregateType());
+        node.put("aggregateId", event.aggregateId().toString());
+        node.put("occurredOn", event.occurredOn().toString());
+        node.set("payload", objectMapper.readTree(event.payload()));
+        return node;
+    }
+}
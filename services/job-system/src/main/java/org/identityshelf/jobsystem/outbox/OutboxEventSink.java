@@ -0,0 +1,23 @@
+package org.identityshelf.jobsystem.outbox;
+
+import org.identityshelf.data.repository.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination the outbox relay delivers events to. A batch counts as delivered only when every
+ * enabled sink accepted it; otherwise the whole batch is retried, so sinks see duplicates and
+ * consumers must be idempotent on the event id.
+ */
+public interface OutboxEventSink {
+
+    /**
+     * Short name used in logs and metric tags
+     */
+    String name();
+
+    /**
+     * Deliver a batch in outbox order; throw to have it retried
+     */
+    void deliver(List<OutboxEvent> events) throws Exception;
+}
@@ -0,0 +1,24 @@
+package org.identityshelf.jobsystem.outbox;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job that relays outbox events to the configured sinks. Runs never overlap;
+ * SKIP LOCKED lets a manually started relay work alongside it on other batches.
+ */
+@DisallowConcurrentExecution
+public class OutboxRelayJob extends QuartzJobBean {
+
+    private final OutboxRelayService relayService;
+
+    public OutboxRelayJob(OutboxRelayService relayService) {
+        this.relayService = relayService;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        relayService.relay();
+    }
+}
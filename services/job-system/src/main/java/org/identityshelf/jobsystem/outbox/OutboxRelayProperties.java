@@ -0,0 +1,150 @@
+package org.identityshelf.jobsystem.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the outbox relay job and its sinks ({@code app.outbox.*})
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxRelayProperties {
+
+    /**
+     * Events claimed, delivered and deleted per transaction
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Upper bound of batches per run, so one run cannot hold the scheduler thread indefinitely
+     */
+    private int maxBatchesPerRun = 100;
+
+    /**
+     * Failed deliveries after which an event is parked and no longer retried
+     */
+    private int maxAttempts = 10;
+
+    /**
+     * Wait after the first failed delivery of an event; doubles with every further failure
+     */
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Upper bound of the wait between delivery attempts of an event
+     */
+    private Duration maxRetryBackoff = Duration.ofHours(1);
+
+    /**
+     * Quartz cron expression for the relay runs
+     */
+    private String cron = "*/5 * * * * ?";
+
+    private final File file = new File();
+
+    private final Webhook webhook = new Webhook();
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public Duration getMaxRetryBackoff() {
+        return maxRetryBackoff;
+    }
+
+    public void setMaxRetryBackoff(Duration maxRetryBackoff) {
+        this.maxRetryBackoff = maxRetryBackoff;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    public Webhook getWebhook() {
+        return webhook;
+    }
+
+    /**
+     * Append-only NDJSON files, one per day ({@code app.outbox.file.*})
+     */
+    public static class File {
+
+        /**
+         * Directory the event files are written to
+         */
+        private String dir = "/var/identityshelf/outbox";
+
+        public String getDir() {
+            return dir;
+        }
+
+        public void setDir(String dir) {
+            this.dir = dir;
+        }
+    }
+
+    /**
+     * HTTP endpoint receiving each batch as a JSON array ({@code app.outbox.webhook.*})
+     */
+    public static class Webhook {
+
+        private String url;
+
+        /**
+         * Connect and request timeout; the batch stays claimed while the call is in flight
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+}
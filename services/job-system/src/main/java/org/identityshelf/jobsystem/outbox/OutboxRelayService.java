@@ -0,0 +1,173 @@
+package org.identityshelf.jobsystem.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.identityshelf.data.repository.IdentityOutboxRepository;
+import org.identityshelf.data.repository.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains identity_outbox into the enabled sinks. Without any enabled sink nothing is claimed or deleted.
+ *
+ * Per batch, one transaction claims the oldest events with SKIP LOCKED, delivers them to every sink and
+ * deletes them. If a sink fails, the transaction rolls back, the attempt is recorded against the batch
+ * and the run stops. Runs retry it after an exponential backoff until the attempts are used up and the
+ * events are parked.
+ *
+ * Metrics:
+ * identityshelf.outbox.relayed (delivered events), identityshelf.outbox.failures (failed batches per sink),
+ * identityshelf.outbox.batch (batch latency), identityshelf.outbox.pending, identityshelf.outbox.parked and
+ * identityshelf.outbox.lag.seconds (age of the oldest pending event). The gauges are refreshed by each run.
+ */
+@Service
+public class OutboxRelayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelayService.class);
+
+    private final IdentityOutboxRepository outboxRepository;
+    private final List<OutboxEventSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxRelayProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter relayed;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong parked = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OutboxRelayService(IdentityOutboxRepository outboxRepository,
+                              ObjectProvider<OutboxEventSink> sinks,
+                              TransactionTemplate transactionTemplate,
+                              OutboxRelayProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.sinks = sinks.orderedStream().toList();
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.relayed = Counter.builder("identityshelf.outbox.relayed")
+                .description("Outbox events delivered to all sinks")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("identityshelf.outbox.batch")
+                .description("Time to claim, deliver and delete one outbox batch")
+                .register(meterRegistry);
+        Gauge.builder("identityshelf.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting for delivery")
+                .register(meterRegistry);
+        Gauge.builder("identityshelf.outbox.parked", parked, AtomicLong::get)
+                .description("Outbox events that used up their delivery attempts")
+                .register(meterRegistry);
+        Gauge.builder("identityshelf.outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest outbox event waiting for delivery")
+                .register(meterRegistry);
+        if (this.sinks.isEmpty()) {
+            logger.warn("No outbox sink is enabled: events stay in identity_outbox until one is configured");
+        } else {
+            logger.info("Outbox relay delivering to sinks {}", this.sinks.stream().map(OutboxEventSink::name).toList());
+        }
+    }
+
+    /**
+     * Relay batches until the outbox is drained, a delivery fails or the batch budget is spent
+     * @return number of events delivered by this run
+     */
+    public long relay() {
+        if (sinks.isEmpty()) {
+            // Deleting events nobody received would lose them
+            refreshBacklog();
+            return 0;
+        }
+        long delivered = 0;
+        for (int batches = 0; batches < properties.getMaxBatchesPerRun(); batches++) {
+            BatchResult result = batchTimer.record(this::relayBatch);
+            if (result.failure() != null) {
+                recordFailure(result);
+                break;
+            }
+            delivered += result.events().size();
+            relayed.increment(result.events().size());
+            if (result.events().size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+        refreshBacklog();
+        if (delivered > 0) {
+            logger.info("Relayed {} outbox events, {} pending, {} parked", delivered, pending.get(), parked.get());
+        }
+        return delivered;
+    }
+
+    private BatchResult relayBatch() {
+        try {
+            return transactionTemplate.execute(status -> {
+                List<OutboxEvent> events = outboxRepository.claimBatch(properties.getBatchSize(), properties.getMaxAttempts(),
+                        properties.getRetryBackoff(), properties.getMaxRetryBackoff());
+                if (events.isEmpty()) {
+                    return new BatchResult(events, null, null);
+                }
+                for (OutboxEventSink sink : sinks) {
+                    try {
+                        sink.deliver(events);
+                    } catch (Exception e) {
+                        throw new SinkDeliveryException(events, sink, e);
+                    }
+                }
+                outboxRepository.delete(events.stream().map(OutboxEvent::id).toList());
+                return new BatchResult(events, null, null);
+            });
+        } catch (SinkDeliveryException e) {
+            return new BatchResult(e.events, e.sink, e.getCause());
+        }
+    }
+
+    private void recordFailure(BatchResult result) {
+        Counter.builder("identityshelf.outbox.failures")
+                .description("Outbox batches a sink failed to accept")
+                .tag("sink", result.sink().name())
+                .register(meterRegistry)
+                .increment();
+        logger.warn("Outbox sink {} failed for events {}..{}, the batch will be retried",
+                result.sink().name(), result.events().get(0).id(),
+                result.events().get(result.events().size() - 1).id(), result.failure());
+
+        String error = result.sink().name() + ": " + result.failure();
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.recordFailure(
+                result.events().stream().map(OutboxEvent::id).toList(), error));
+    }
+
+    private void refreshBacklog() {
+        pending.set(outboxRepository.countPending(properties.getMaxAttempts()));
+        parked.set(outboxRepository.countParked(properties.getMaxAttempts()));
+        lagSeconds.set(outboxRepository.oldestPendingAge(properties.getMaxAttempts()).toSeconds());
+    }
+
+    /**
+     * Outcome of one batch; failure and sink are set when a sink rejected it
+     */
+    private record BatchResult(List<OutboxEvent> events, OutboxEventSink sink, Throwable failure) {
+    }
+
+    /**
+     * Carries the claimed batch out of the rolled-back transaction
+     */
+    private static class SinkDeliveryException extends RuntimeException {
+
+        private final transient List<OutboxEvent> events;
+        private final transient OutboxEventSink sink;
+
+        SinkDeliveryException(List<OutboxEvent> events, OutboxEventSink sink, Throwable cause) {
+            super(cause);
+            this.events = events;
+            this.sink = sink;
+        }
+    }
+}
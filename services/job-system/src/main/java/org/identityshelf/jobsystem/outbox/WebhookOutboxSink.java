@@ -0,0 +1,61 @@
+package org.identityshelf.jobsystem.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.identityshelf.data.repository.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * POSTs each batch as one JSON array to a webhook; any non-2xx answer fails the batch.
+ * Receivers deduplicate on eventId, since a failed batch is sent again in full.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.webhook.enabled", havingValue = "true")
+public class WebhookOutboxSink implements OutboxEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final OutboxRelayProperties.Webhook webhook;
+    private final HttpClient httpClient;
+
+    public WebhookOutboxSink(ObjectMapper objectMapper, OutboxRelayProperties properties) {
+        this.objectMapper = objectMapper;
+        this.webhook = properties.getWebhook();
+        if (webhook.getUrl() == null || webhook.getUrl().isBlank()) {
+            throw new IllegalStateException("app.outbox.webhook.url is required when the webhook sink is enabled");
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(webhook.getTimeout())
+                .build();
+    }
+
+    @Override
+    public String name() {
+        return "webhook";
+    }
+
+    @Override
+    public void deliver(List<OutboxEvent> events) throws IOException, InterruptedException {
+        ArrayNode body = objectMapper.createArrayNode();
+        for (OutboxEvent event : events) {
+            body.add(OutboxEventJson.toNode(objectMapper, event));
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(webhook.getUrl()))
+                .timeout(webhook.getTimeout())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Webhook " + webhook.getUrl() + " answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.identityshelf.jobsystem.purge;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job that purges tombstoned identities. Runs never overlap, and SKIP LOCKED keeps a run
+ * from blocking on tombstones that another session still holds.
+ */
+@DisallowConcurrentExecution
+public class IdentityPurgeJob extends QuartzJobBean {
+
+    private final IdentityPurgeService purgeService;
+
+    public IdentityPurgeJob(IdentityPurgeService purgeService) {
+        this.purgeService = purgeService;
+    }
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) {
+        purgeService.purge();
+    }
+}
@@ -0,0 +1,77 @@
+package org.identityshelf.jobsystem.purge;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the tombstone purge job ({@code app.purge.*})
+ */
+@ConfigurationProperties(prefix = "app.purge")
+public class IdentityPurgeProperties {
+
+    /**
+     * How long a deleted identity is kept as a tombstone before it may be purged
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Identities removed per transaction; keeps row locks and WAL bursts small
+     */
+    private int chunkSize = 500;
+
+    /**
+     * Pause between chunks so the purge never saturates the primary
+     */
+    private Duration pause = Duration.ofMillis(200);
+
+    /**
+     * Upper bound of chunks per run; the rest of the backlog waits for the next run
+     */
+    private int maxChunksPerRun = 200;
+
+    /**
+     * Quartz cron expression for the purge runs
+     */
+    private String cron = "0 */15 * * * ?";
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Duration getPause() {
+        return pause;
+    }
+
+    public void setPause(Duration pause) {
+        this.pause = pause;
+    }
+
+    public int getMaxChunksPerRun() {
+        return maxChunksPerRun;
+    }
+
+    public void setMaxChunksPerRun(int maxChunksPerRun) {
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+
+    public String getCron() {
+        return cron;
+    }
+
+    public void setCron(String cron) {
+        this.cron = cron;
+    }
+}
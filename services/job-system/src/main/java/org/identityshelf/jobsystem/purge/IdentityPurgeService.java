@@ -0,0 +1,108 @@
+package org.identityshelf.jobsystem.purge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.data.repository.IdentityCounterRepository;
+import org.identityshelf.data.repository.IdentityPurgeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Works the tombstone backlog down in throttled chunks, one short transaction per chunk.
+ *
+ * Metrics:
+ * identityshelf.purge.identities (purged rows), identityshelf.purge.chunk (chunk latency),
+ * identityshelf.purge.backlog (all tombstones) and identityshelf.purge.backlog.overdue
+ * (tombstones past their retention). The gauges are refreshed by each run, not on scrape.
+ */
+@Service
+public class IdentityPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentityPurgeService.class);
+
+    private final IdentityPurgeRepository purgeRepository;
+    private final IdentityCounterRepository counterRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final IdentityPurgeProperties properties;
+    private final Counter purged;
+    private final Timer chunkTimer;
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong overdue = new AtomicLong();
+
+    public IdentityPurgeService(IdentityPurgeRepository purgeRepository,
+                                IdentityCounterRepository counterRepository,
+                                TransactionTemplate transactionTemplate,
+                                IdentityPurgeProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.purgeRepository = purgeRepository;
+        this.counterRepository = counterRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.purged = Counter.builder("identityshelf.purge.identities")
+                .description("Tombstoned identities physically removed")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("identityshelf.purge.chunk")
+                .description("Time to purge one chunk of tombstones")
+                .register(meterRegistry);
+        Gauge.builder("identityshelf.purge.backlog", backlog, AtomicLong::get)
+                .description("Tombstoned identities not yet purged")
+                .register(meterRegistry);
+        Gauge.builder("identityshelf.purge.backlog.overdue", overdue, AtomicLong::get)
+                .description("Tombstoned identities past their retention and eligible for purge")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Purge eligible tombstones until none are left, the chunk budget is spent or the thread is interrupted
+     * @return number of identities removed by this run
+     */
+    public long purge() {
+        long removed = 0;
+        int chunks = 0;
+        while (chunks < properties.getMaxChunksPerRun()) {
+            Integer deleted = chunkTimer.record(() -> transactionTemplate.execute(status ->
+                    purgeRepository.purgeChunk(properties.getRetention(), properties.getChunkSize())));
+            chunks++;
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            removed += deleted;
+            purged.increment(deleted);
+            if (deleted < properties.getChunkSize() || !pause()) {
+                break;
+            }
+        }
+        refreshBacklog();
+        logger.info("Purged {} tombstoned identities in {} chunks, {} tombstones left ({} overdue)",
+                removed, chunks, backlog.get(), overdue.get());
+        return removed;
+    }
+
+    private void refreshBacklog() {
+        backlog.set(counterRepository.countIdentitiesByStatus(IdentityStatus.DELETED.name()));
+        overdue.set(purgeRepository.countOverdue(properties.getRetention()));
+    }
+
+    /**
+     * Throttle between chunks; false if the run was interrupted (scheduler shutdown)
+     */
+    private boolean pause() {
+        if (properties.getPause().isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package org.identityshelf.publicapi;
 
+import org.identityshelf.data.config.IdentityDataConfig;
+import org.identityshelf.publicapi.cache.IdentityCacheProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(IdentityDataConfig.class)
+@EnableConfigurationProperties(IdentityCacheProperties.class)
 public class PublicApiApplication {
     
     public static void main(String[] args) {
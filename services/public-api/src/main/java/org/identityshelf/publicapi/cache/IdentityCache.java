@@ -0,0 +1,126 @@
+package org.identityshelf.publicapi.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.data.config.PrimaryReads;
+import org.identityshelf.publicapi.service.IdentityQueryService;
+import org.identityshelf.publicapi.web.dto.IdentityResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+/**
+ * Bounded read-through cache of assembled identities for {@code GET /v1/identities/{id}}.
+ *
+ * Entries are evicted after this node's own writes commit, when another node or service changes the
+ * identity (see {@link IdentityCacheInvalidationListener}) and at the latest {@code ttl} after they were
+ * loaded. Misses always load from the primary: a replica could still return the state from before the
+ * write that caused the eviction, and the cache would then serve it to every client for the whole
+ * {@code ttl}. Absent identities are not cached.
+ */
+@Component
+public class IdentityCache {
+
+    public static final String CHANGE_CHANNEL = "identity_changes";
+
+    /**
+     * Notification payload asking every node to clear its cache
+     */
+    public static final String ALL = "*";
+
+    private final IdentityQueryService queryService;
+    private final Cache<IdentityId, IdentityResponse> cache;
+    private final Counter invalidations;
+
+    public IdentityCache(IdentityQueryService queryService,
+                         IdentityCacheProperties properties,
+                         MeterRegistry meterRegistry) {
+        this.queryService = queryService;
+        if (properties.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumWeight(properties.getMaximumWeight())
+                    .weigher(IdentityCache::weigh)
+                    .expireAfterWrite(properties.getTtl())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "identities");
+            Gauge.builder("identityshelf.identity.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                    .description("Share of identity reads served from the cache since startup")
+                    .register(meterRegistry);
+        } else {
+            this.cache = null;
+        }
+        this.invalidations = Counter.builder("identityshelf.identity.cache.invalidations")
+                .description("Identity cache evictions triggered by writes, single entries or whole-cache clears")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The identity with its attributes and identifiers, from the cache or loaded through it
+     */
+    public IdentityResponse get(UUID identityId) {
+        IdentityId id = IdentityId.of(identityId);
+        IdentityResponse identity = cache != null
+                ? cache.get(id, key -> PrimaryReads.call(() -> queryService.findIdentity(key.getValue())).orElse(null))
+                : queryService.findIdentity(identityId).orElse(null);
+        if (identity == null) {
+            throw new IdentityNotFoundException(id);
+        }
+        return identity;
+    }
+
+    /**
+     * Evict one identity. A load of the same identity that is still running completes first and is
+     * evicted with it, so a value read before the change cannot outlive the eviction.
+     */
+    public void invalidate(UUID identityId) {
+        if (cache != null) {
+            cache.invalidate(IdentityId.of(identityId));
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Evict everything, e.g. after a bulk change or when notifications may have been missed
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+            invalidations.increment();
+        }
+    }
+
+    /**
+     * Evict the identity once the surrounding transaction commits; immediately if there is none.
+     * Other nodes are told by the database trigger (V30).
+     */
+    public void invalidateAfterCommit(UUID identityId) {
+        if (cache == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(identityId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(identityId);
+            }
+        });
+    }
+
+    private static int weigh(IdentityId id, IdentityResponse identity) {
+        int attributes = identity.getAttributes() != null ? identity.getAttributes().size() : 0;
+        int identifiers = identity.getIdentifiers() != null ? identity.getIdentifiers().size() : 0;
+        return 1 + attributes + identifiers;
+    }
+}
@@ -0,0 +1,119 @@
+package org.identityshelf.publicapi.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Evicts identities from this node's {@link IdentityCache} when any node or service changes them.
+ *
+ * The identities table notifies {@link IdentityCache#CHANGE_CHANNEL} with the changed uuids, or
+ * {@link IdentityCache#ALL} for large statements; PostgreSQL delivers the notification on commit to every
+ * listening session. This listener holds one connection to the primary in LISTEN mode and clears the
+ * whole cache after every (re)connect because notifications sent while disconnected are lost.
+ */
+@Component
+@ConditionalOnProperty(name = "app.identity-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class IdentityCacheInvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(IdentityCacheInvalidationListener.class);
+
+    private final DataSource dataSource;
+    private final IdentityCache identityCache;
+    private final Duration pollInterval;
+    private final Duration retryInterval;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public IdentityCacheInvalidationListener(DataSource dataSource,
+                                             IdentityCache identityCache,
+                                             IdentityCacheProperties properties) {
+        this.dataSource = dataSource;
+        this.identityCache = identityCache;
+        this.pollInterval = properties.getPollInterval();
+        this.retryInterval = properties.getRetryInterval();
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::listen, "identity-cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + IdentityCache.CHANGE_CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                identityCache.invalidateAll();
+                log.info("Listening for identity changes on channel {}", IdentityCache.CHANGE_CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Identity change listener lost its connection, retrying in {}: {}", retryInterval, e.getMessage());
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        if (payload == null || payload.isEmpty() || IdentityCache.ALL.equals(payload)) {
+            log.debug("Identity change affecting many identities, clearing the identity cache");
+            identityCache.invalidateAll();
+            return;
+        }
+        for (String uuid : payload.split(",")) {
+            try {
+                identityCache.invalidate(UUID.fromString(uuid));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring malformed identity change payload '{}', clearing the identity cache", uuid);
+                identityCache.invalidateAll();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.identityshelf.publicapi.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Identity read cache settings ({@code app.identity-cache.*})
+ */
+@ConfigurationProperties(prefix = "app.identity-cache")
+public class IdentityCacheProperties {
+
+    /**
+     * Serve single-identity reads from the cache
+     */
+    private boolean enabled = true;
+
+    /**
+     * Upper bound on the cache size; an identity weighs one plus its attribute and identifier count
+     */
+    private long maximumWeight = 100_000;
+
+    /**
+     * Entries expire this long after they were loaded, whether or not an invalidation arrived.
+     * This bounds the staleness of a read when a change notification is lost.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+
+    /**
+     * How often the invalidation listener checks for change notifications
+     */
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    /**
+     * Wait before the invalidation listener reconnects after losing its connection
+     */
+    private Duration retryInterval = Duration.ofSeconds(5);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getMaximumWeight() { return maximumWeight; }
+    public void setMaximumWeight(long maximumWeight) { this.maximumWeight = maximumWeight; }
+
+    public Duration getTtl() { return ttl; }
+    public void setTtl(Duration ttl) { this.ttl = ttl; }
+
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+
+    public Duration getRetryInterval() { return retryInterval; }
+    public void setRetryInterval(Duration retryInterval) { this.retryInterval = retryInterval; }
+}
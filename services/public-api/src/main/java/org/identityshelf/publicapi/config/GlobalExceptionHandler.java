@@ -1,5 +1,7 @@
 package org.identityshelf.publicapi.config;
 
+import org.identityshelf.core.domain.exception.IdentityConflictException;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
 import org.identityshelf.publicapi.web.dto.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -53,6 +55,34 @@ public class GlobalExceptionHandler {
     }
     
     
+    @ExceptionHandler(IdentityNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNotFound(IdentityNotFoundException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            "NOT_FOUND",
+            ex.getMessage(),
+            OffsetDateTime.now(),
+            request.getDescription(false).replace("uri=", ""),
+            HttpStatus.NOT_FOUND.value(),
+            null
+        );
+        
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+    
+    @ExceptionHandler(IdentityConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(IdentityConflictException ex, WebRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(
+            "CONFLICT",
+            ex.getMessage(),
+            OffsetDateTime.now(),
+            request.getDescription(false).replace("uri=", ""),
+            HttpStatus.CONFLICT.value(),
+            null
+        );
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+    
     @ExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
     public ResponseEntity<ErrorResponse> handleSpecificExceptions(
             Exception ex, WebRequest request) {
@@ -0,0 +1,122 @@
+package org.identityshelf.publicapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.identityshelf.publicapi.config.routing.ReadReplicaProperties;
+import org.identityshelf.publicapi.config.routing.ReadYourWritesFilter;
+import org.identityshelf.publicapi.config.routing.ReadYourWritesTracker;
+import org.identityshelf.publicapi.config.routing.ReplicaLagMonitor;
+import org.identityshelf.publicapi.config.routing.ReplicaRoutingDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Routes read-only transactions to read replicas when {@code app.read-replicas.enabled=true}.
+ *
+ * The primary keeps its regular {@code spring.datasource.*} settings and also serves Flyway;
+ * replicas are listed under {@code app.read-replicas.nodes[n]}. To try it locally start the
+ * replica with {@code docker compose --profile replica up} and point {@code nodes[0].url} at port 5433.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(name = "app.read-replicas.enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    @FlywayDataSource
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadReplicaProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReadReplicaProperties properties,
+                                               DataSourceProperties primary,
+                                               HikariDataSource primaryDataSource,
+                                               MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReadReplicaProperties.Node node = properties.getNodes().get(i);
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setJdbcUrl(node.getUrl());
+            dataSource.setUsername(node.getUsername() != null ? node.getUsername() : primary.getUsername());
+            dataSource.setPassword(node.getPassword() != null ? node.getPassword() : primary.getPassword());
+            dataSource.setReadOnly(true);
+            replicas.put("replica-" + i, dataSource);
+        }
+        
+        Map<String, AtomicLong> lagMillis = new LinkedHashMap<>();
+        replicas.keySet().forEach(name -> {
+            // Unknown until the first check succeeds
+            AtomicLong lag = new AtomicLong(Long.MAX_VALUE);
+            lagMillis.put(name, lag);
+            Gauge.builder("identityshelf.datasource.replica.lag", lag, l -> l.get() == Long.MAX_VALUE ? -1 : l.get())
+                    .description("Replication lag of the read replica in milliseconds, -1 when unreachable")
+                    .baseUnit("milliseconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        return new ReplicaLagMonitor(primaryDataSource, replicas, lagMillis, properties.getMaxLag());
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler replicaLagScheduler(ReplicaLagMonitor lagMonitor,
+                                             ReadYourWritesTracker readYourWritesTracker,
+                                             ReadReplicaProperties properties) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("replica-lag-");
+        scheduler.initialize();
+        scheduler.scheduleWithFixedDelay(() -> {
+            lagMonitor.checkLag();
+            readYourWritesTracker.expire();
+        }, properties.getLagCheckInterval());
+        return scheduler;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaLagMonitor lagMonitor,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        Map<Object, Object> targets = new HashMap<>(lagMonitor.getReplicas());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(lagMonitor, readYourWritesTracker);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadReplicaProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getClientHeader()));
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,74 @@
+package org.identityshelf.publicapi.config.routing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings ({@code app.read-replicas.*})
+ */
+@ConfigurationProperties(prefix = "app.read-replicas")
+public class ReadReplicaProperties {
+
+    /**
+     * Route read-only transactions to the replicas below
+     */
+    private boolean enabled = false;
+
+    /**
+     * Replicas lagging further behind than this are skipped
+     */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    /**
+     * How often replica lag is measured
+     */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long reads of a client stay on the primary after it wrote
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Request header identifying a client; the remote address is used when absent
+     */
+    private String clientHeader = "X-Client-Id";
+
+    private List<Node> nodes = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getMaxLag() { return maxLag; }
+    public void setMaxLag(Duration maxLag) { this.maxLag = maxLag; }
+
+    public Duration getLagCheckInterval() { return lagCheckInterval; }
+    public void setLagCheckInterval(Duration lagCheckInterval) { this.lagCheckInterval = lagCheckInterval; }
+
+    public Duration getReadYourWritesWindow() { return readYourWritesWindow; }
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) { this.readYourWritesWindow = readYourWritesWindow; }
+
+    public String getClientHeader() { return clientHeader; }
+    public void setClientHeader(String clientHeader) { this.clientHeader = clientHeader; }
+
+    public List<Node> getNodes() { return nodes; }
+    public void setNodes(List<Node> nodes) { this.nodes = nodes; }
+
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+}
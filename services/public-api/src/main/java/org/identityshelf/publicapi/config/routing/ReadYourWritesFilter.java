@@ -0,0 +1,33 @@
+package org.identityshelf.publicapi.config.routing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the calling client to the request thread for read-your-writes routing
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private final String clientHeader;
+
+    public ReadYourWritesFilter(String clientHeader) {
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = request.getHeader(clientHeader);
+        ReadYourWritesTracker.bind(client != null && !client.isBlank() ? client : request.getRemoteAddr());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWritesTracker.unbind();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.identityshelf.publicapi.config.routing;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers when each client last committed a write, so its next reads can be pinned to the primary.
+ * The client of the current request is bound by {@link ReadYourWritesFilter}.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> currentClient = new ThreadLocal<>();
+
+    private final Map<String, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(Duration window) {
+        this.windowNanos = window.toNanos();
+    }
+
+    static void bind(String clientKey) {
+        currentClient.set(clientKey);
+    }
+
+    static void unbind() {
+        currentClient.remove();
+    }
+
+    /**
+     * Record a committed write by the current client
+     */
+    public void recordWrite() {
+        String client = currentClient.get();
+        if (client != null) {
+            lastWriteNanos.put(client, System.nanoTime());
+        }
+    }
+
+    /**
+     * Check if the current client wrote recently enough that a replica may not have its change yet
+     */
+    public boolean requiresPrimary() {
+        String client = currentClient.get();
+        if (client == null) {
+            return false;
+        }
+        Long writtenAt = lastWriteNanos.get(client);
+        return writtenAt != null && System.nanoTime() - writtenAt < windowNanos;
+    }
+
+    /**
+     * Drop clients whose window has passed
+     */
+    public void expire() {
+        long now = System.nanoTime();
+        lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+    }
+}
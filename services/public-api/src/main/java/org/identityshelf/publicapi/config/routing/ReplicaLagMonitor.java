@@ -0,0 +1,153 @@
+package org.identityshelf.publicapi.config.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how far each replica trails the primary and reports which replicas are fit for reads.
+ *
+ * Every check samples the primary's current WAL position. A replica's lag is the age of the oldest
+ * sample it has not replayed yet, or zero when it has replayed them all, so an idle primary does not make
+ * its replicas look stale and a stalled WAL receiver does not make a replica look current; the measure is
+ * accurate to one check interval. A replica that cannot be queried counts as infinitely behind until the
+ * next successful check.
+ */
+public class ReplicaLagMonitor implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String PRIMARY_POSITION_QUERY = "SELECT (pg_current_wal_lsn() - '0/0')::bigint";
+
+    // Replay position of a replica; a server that is not in recovery has no lag to measure
+    private static final String REPLAY_POSITION_QUERY =
+            "SELECT CASE WHEN pg_is_in_recovery() THEN (COALESCE(pg_last_wal_replay_lsn(), '0/0') - '0/0')::bigint END";
+
+    // Bounds the samples kept while a replica is stuck; its lag is then at least the age of the oldest one
+    private static final int MAX_SAMPLES = 3600;
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final Map<String, AtomicLong> lagMillis;
+    private final long maxLagMillis;
+    private final Deque<PositionSample> samples = new ArrayDeque<>();
+
+    public ReplicaLagMonitor(DataSource primary, Map<String, DataSource> replicas, Map<String, AtomicLong> lagMillis,
+                             Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.lagMillis = lagMillis;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    /**
+     * Sample the primary and update the lag of every replica; runs on one thread at a time
+     */
+    public void checkLag() {
+        long now = System.currentTimeMillis();
+        try {
+            long position = queryPosition(primary, PRIMARY_POSITION_QUERY);
+            if (samples.isEmpty() || samples.peekLast().position() < position) {
+                samples.addLast(new PositionSample(position, now));
+                if (samples.size() > MAX_SAMPLES) {
+                    samples.removeFirst();
+                }
+            }
+        } catch (SQLException e) {
+            // Replicas are still measured against the positions sampled so far
+            logger.warn("Reading the WAL position of the primary failed: {}", e.getMessage());
+        }
+
+        long oldestReplayed = Long.MAX_VALUE;
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            String name = replica.getKey();
+            long lag;
+            try {
+                Long replayed = queryPosition(replica.getValue(), REPLAY_POSITION_QUERY);
+                lag = replayed == null ? 0 : lagBehind(replayed, now);
+                if (replayed != null) {
+                    oldestReplayed = Math.min(oldestReplayed, replayed);
+                }
+            } catch (SQLException e) {
+                logger.warn("Lag check on replica {} failed: {}", name, e.getMessage());
+                lag = Long.MAX_VALUE;
+                // Keep every sample: the replica is measured against them once it answers again
+                oldestReplayed = Long.MIN_VALUE;
+            }
+            long previous = lagMillis.get(name).getAndSet(lag);
+            if ((previous <= maxLagMillis) != (lag <= maxLagMillis)) {
+                logger.info("Replica {} is {} for reads (lag {} ms)", name,
+                        lag <= maxLagMillis ? "back in rotation" : "out of rotation",
+                        lag == Long.MAX_VALUE ? "unknown" : lag);
+            }
+        }
+
+        // Samples every replica has replayed cannot contribute to a lag any more
+        while (samples.size() > 1 && samples.peekFirst().position() <= oldestReplayed) {
+            samples.removeFirst();
+        }
+    }
+
+    private long lagBehind(long replayed, long now) {
+        for (PositionSample sample : samples) {
+            if (sample.position() > replayed) {
+                return now - sample.sampledAt();
+            }
+        }
+        return 0;
+    }
+
+    private static Long queryPosition(DataSource dataSource, String query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(query)) {
+            rs.next();
+            long position = rs.getLong(1);
+            return rs.wasNull() ? null : position;
+        }
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Replicas currently within the lag bound
+     */
+    public List<String> healthyReplicas() {
+        List<String> healthy = new ArrayList<>(replicas.size());
+        lagMillis.forEach((name, lag) -> {
+            if (lag.get() <= maxLagMillis) {
+                healthy.add(name);
+            }
+        });
+        return healthy;
+    }
+
+    private record PositionSample(long position, long sampledAt) {}
+
+    @Override
+    public void close() {
+        replicas.values().forEach(dataSource -> {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    logger.warn("Failed to close replica pool: {}", e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,34 @@
+package org.identityshelf.publicapi.service;
+
+import org.identityshelf.data.repository.IdentifierResolutionRepository;
+import org.identityshelf.publicapi.web.dto.IdentifierResolutionResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * Answers "which identity owns identifier (type, value)?" from the covering resolution index
+ */
+@Service
+@Transactional(readOnly = true)
+public class IdentifierResolutionService {
+    
+    private final IdentifierResolutionRepository resolutionRepository;
+    
+    public IdentifierResolutionService(IdentifierResolutionRepository resolutionRepository) {
+        this.resolutionRepository = resolutionRepository;
+    }
+    
+    public Optional<IdentifierResolutionResponse> resolve(String type, String value) {
+        if (type == null || type.isBlank()) {
+            throw new IllegalArgumentException("Identifier type is required");
+        }
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Identifier value is required");
+        }
+        return resolutionRepository.resolve(type, value)
+                .map(resolution -> new IdentifierResolutionResponse(
+                        resolution.identityUuid(), resolution.active(), resolution.primary()));
+    }
+}
@@ -0,0 +1,63 @@
+package org.identityshelf.publicapi.service;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.core.repository.IdentityPatch;
+import org.identityshelf.core.repository.IdentityRepository;
+import org.identityshelf.publicapi.cache.IdentityCache;
+import org.identityshelf.publicapi.web.dto.IdentityResponse;
+import org.identityshelf.publicapi.web.dto.PatchIdentityRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Write-side service for the public identity endpoints
+ */
+@Service
+@Transactional
+public class IdentityCommandService {
+    
+    private final IdentityRepository identityRepository;
+    private final IdentityCache identityCache;
+    
+    public IdentityCommandService(IdentityRepository identityRepository, IdentityCache identityCache) {
+        this.identityRepository = identityRepository;
+        this.identityCache = identityCache;
+    }
+    
+    /**
+     * Apply a partial update as one conditional UPDATE, guarded by the version the client read
+     */
+    public IdentityResponse patchIdentity(UUID identityId, PatchIdentityRequest request) {
+        DisplayName displayName = request.getDisplayName() != null ? DisplayName.of(request.getDisplayName()) : null;
+        IdentityStatus status = request.getStatus() != null ? IdentityStatus.fromString(request.getStatus()) : null;
+        
+        Identity identity = identityRepository.patch(
+                IdentityId.of(identityId), request.getVersion(), new IdentityPatch(displayName, status));
+        identityCache.invalidateAfterCommit(identityId);
+        
+        // The patch touches neither attributes nor identifiers, so they are not part of the response
+        return new IdentityResponse(
+                identity.getUuid(),
+                identity.getDisplayName().getValue(),
+                identity.getStatus().name(),
+                identity.getIdentityTypeName(),
+                identity.getCreatedAt(),
+                identity.getUpdatedAt(),
+                null,
+                null,
+                identity.getVersion());
+    }
+    
+    /**
+     * Tombstone the identity; it disappears from reads at once and is purged by the job system later
+     */
+    public void deleteIdentity(UUID identityId) {
+        identityRepository.deleteById(IdentityId.of(identityId));
+        identityCache.invalidateAfterCommit(identityId);
+    }
+}
@@ -0,0 +1,42 @@
+package org.identityshelf.publicapi.service;
+
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.identityshelf.data.export.NdjsonIdentityExporter;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes all identities of a type as NDJSON, one identity with attributes and identifiers per line,
+ * through the {@link NdjsonIdentityExporter} shared with the admin API.
+ */
+@Service
+public class IdentityExportService {
+    
+    private final NdjsonIdentityExporter exporter;
+    private final DefinitionSnapshotService definitionSnapshots;
+    
+    public IdentityExportService(NdjsonIdentityExporter exporter,
+                                 DefinitionSnapshotService definitionSnapshots) {
+        this.exporter = exporter;
+        this.definitionSnapshots = definitionSnapshots;
+    }
+    
+    /**
+     * Fail before the response is committed if the type does not exist
+     */
+    public void requireIdentityType(String identityTypeName) {
+        if (definitionSnapshots.findIdentityType(identityTypeName) == null) {
+            throw new IllegalArgumentException("Unknown identity type: " + identityTypeName);
+        }
+    }
+    
+    /**
+     * Stream the export to the given output, gzip-compressed if asked; the caller owns and closes it
+     * @return number of identities written
+     */
+    public long export(String identityTypeName, OutputStream out, boolean gzip) throws IOException {
+        return exporter.export(identityTypeName, IdentityQueryService::toResponse, out, gzip);
+    }
+}
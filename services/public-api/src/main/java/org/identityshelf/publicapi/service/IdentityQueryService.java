@@ -0,0 +1,143 @@
+package org.identityshelf.publicapi.service;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.IdentityIdentifier;
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.identityshelf.core.domain.valueobject.IdentityChangeCursor;
+import org.identityshelf.core.domain.valueobject.IdentityCursor;
+import org.identityshelf.core.domain.valueobject.IdentitySortOrder;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.core.repository.IdentityRepository;
+import org.identityshelf.core.repository.IdentitySlice;
+import org.identityshelf.data.repository.IdentityAggregate;
+import org.identityshelf.data.repository.IdentityAggregateLoader;
+import org.identityshelf.data.repository.IdentityChangeFeedRepository;
+import org.identityshelf.data.repository.IdentityChangePage;
+import org.identityshelf.publicapi.web.dto.IdentifierResponse;
+import org.identityshelf.publicapi.web.dto.IdentityChangeFeedResponse;
+import org.identityshelf.publicapi.web.dto.IdentityChangeResponse;
+import org.identityshelf.publicapi.web.dto.IdentityResponse;
+import org.identityshelf.publicapi.web.dto.IdentitySearchResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-side service for the public identity endpoints
+ */
+@Service
+@Transactional(readOnly = true)
+public class IdentityQueryService {
+    
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_CHANGE_PAGE_SIZE = 1000;
+    
+    private final IdentityRepository identityRepository;
+    private final IdentityAggregateLoader aggregateLoader;
+    private final IdentityChangeFeedRepository changeFeedRepository;
+    
+    public IdentityQueryService(IdentityRepository identityRepository,
+                                IdentityAggregateLoader aggregateLoader,
+                                IdentityChangeFeedRepository changeFeedRepository) {
+        this.identityRepository = identityRepository;
+        this.aggregateLoader = aggregateLoader;
+        this.changeFeedRepository = changeFeedRepository;
+    }
+    
+    /**
+     * List identities using keyset pagination
+     */
+    public IdentitySearchResponse listIdentities(String cursor, String sort, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        IdentitySortOrder sortOrder = IdentitySortOrder.fromString(sort);
+        IdentityCursor after = cursor != null && !cursor.isBlank() ? IdentityCursor.decode(cursor) : null;
+        
+        IdentitySlice slice = identityRepository.findSlice(sortOrder, after, size);
+        List<IdentityResponse> content = aggregateLoader.hydrate(slice.identities()).stream()
+                .map(IdentityQueryService::toResponse)
+                .toList();
+        
+        return new IdentitySearchResponse(
+                content,
+                size,
+                slice.next().map(IdentityCursor::encode).orElse(null),
+                !slice.hasNext());
+    }
+    
+    /**
+     * One identity with its attributes and identifiers; empty if unknown or deleted.
+     * Request paths go through {@link org.identityshelf.publicapi.cache.IdentityCache} instead.
+     */
+    public Optional<IdentityResponse> findIdentity(UUID identityId) {
+        return aggregateLoader.load(List.of(identityId)).stream()
+                .findFirst()
+                .map(IdentityQueryService::toResponse);
+    }
+    
+    /**
+     * Identities changed since the cursor, in change order; no cursor starts a full initial sync
+     */
+    public IdentityChangeFeedResponse getChanges(String cursor, int size) {
+        if (size < 1 || size > MAX_CHANGE_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_CHANGE_PAGE_SIZE);
+        }
+        IdentityChangeCursor after = cursor != null && !cursor.isBlank()
+                ? IdentityChangeCursor.decode(cursor)
+                : IdentityChangeCursor.start();
+        
+        IdentityChangePage page = changeFeedRepository.findChanges(after, size);
+        List<Identity> live = page.changes().stream()
+                .filter(identity -> identity.getStatus() != IdentityStatus.DELETED)
+                .toList();
+        Map<UUID, IdentityResponse> hydrated = new HashMap<>();
+        aggregateLoader.hydrate(live)
+                .forEach(aggregate -> hydrated.put(aggregate.identity().getUuid(), toResponse(aggregate)));
+        
+        List<IdentityChangeResponse> changes = page.changes().stream()
+                .map(identity -> identity.getStatus() == IdentityStatus.DELETED
+                        ? new IdentityChangeResponse("DELETE", identity.getUuid(), null)
+                        : new IdentityChangeResponse("UPSERT", identity.getUuid(), hydrated.get(identity.getUuid())))
+                .toList();
+        return new IdentityChangeFeedResponse(changes, page.nextCursor().encode(), page.hasMore());
+    }
+    
+    static IdentityResponse toResponse(IdentityAggregate aggregate) {
+        Identity identity = aggregate.identity();
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (AttributeValue attribute : identity.getAttributes().values()) {
+            attributes.put(attribute.getAttributeName(), attribute.getValue());
+        }
+        return new IdentityResponse(
+                identity.getUuid(),
+                identity.getDisplayName().getValue(),
+                identity.getStatus().name(),
+                identity.getIdentityTypeName(),
+                identity.getCreatedAt(),
+                identity.getUpdatedAt(),
+                attributes,
+                aggregate.identifiers().stream()
+                        .map(IdentityQueryService::toResponse)
+                        .toList(),
+                identity.getVersion());
+    }
+    
+    static IdentifierResponse toResponse(IdentityIdentifier identifier) {
+        return new IdentifierResponse(
+                identifier.getUuid(),
+                identifier.getIdentifierType().getName(),
+                identifier.getIdentifierValue(),
+                identifier.isPrimary(),
+                identifier.isVerified(),
+                identifier.getVerifiedAt(),
+                identifier.getCreatedAt(),
+                identifier.getUpdatedAt());
+    }
+}
@@ -1,6 +1,16 @@
 package org.identityshelf.publicapi.web;
 
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.identityshelf.publicapi.service.IdentifierResolutionService;
+import org.identityshelf.publicapi.web.dto.ErrorResponse;
+import org.identityshelf.publicapi.web.dto.IdentifierResolutionResponse;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -8,4 +18,33 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Identifiers", description = "Identifier management operations")
 public class IdentifierController {
     
+    private final IdentifierResolutionService resolutionService;
+    
+    public IdentifierController(IdentifierResolutionService resolutionService) {
+        this.resolutionService = resolutionService;
+    }
+    
+    @Operation(summary = "Resolve identifier",
+               description = "Find the identity owning an identifier. The value is compared in the canonical form of its type, " +
+                             "so e.g. 123-45-6789 and 123456789 resolve the same SSN.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Owning identity",
+                    content = @Content(schema = @Schema(implementation = IdentifierResolutionResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Bad request - type or value missing",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "No identity owns this identifier",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/resolve")
+    public ResponseEntity<IdentifierResolutionResponse> resolveIdentifier(
+            @Parameter(description = "Identifier type name", example = "ssn") @RequestParam String type,
+            @Parameter(description = "Identifier value") @RequestParam String value) {
+        return resolutionService.resolve(type, value)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
 }
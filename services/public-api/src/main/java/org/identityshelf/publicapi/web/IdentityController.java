@@ -7,10 +7,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.identityshelf.publicapi.cache.IdentityCache;
+import org.identityshelf.data.export.NdjsonIdentityExporter;
+import org.identityshelf.publicapi.service.IdentityCommandService;
+import org.identityshelf.publicapi.service.IdentityExportService;
+import org.identityshelf.publicapi.service.IdentityQueryService;
 import org.identityshelf.publicapi.web.dto.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -21,6 +29,93 @@ import java.util.UUID;
 @Tag(name = "Identities", description = "Identity management operations")
 public class IdentityController {
     
+    private final IdentityQueryService identityQueryService;
+    private final IdentityCommandService identityCommandService;
+    private final IdentityExportService identityExportService;
+    private final IdentityCache identityCache;
+    
+    public IdentityController(IdentityQueryService identityQueryService,
+                              IdentityCommandService identityCommandService,
+                              IdentityExportService identityExportService,
+                              IdentityCache identityCache) {
+        this.identityQueryService = identityQueryService;
+        this.identityCommandService = identityCommandService;
+        this.identityExportService = identityExportService;
+        this.identityCache = identityCache;
+    }
+    
+    @Operation(summary = "List identities",
+               description = "List identities page by page. Pass the nextCursor of a response as cursor to fetch the following page.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of identities",
+                    content = @Content(schema = @Schema(implementation = IdentitySearchResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Bad request - invalid cursor or sort",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping
+    public ResponseEntity<IdentitySearchResponse> listIdentities(
+            @Parameter(description = "Continuation token from a previous response") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sort order: createdAt or displayName") @RequestParam(defaultValue = "createdAt") String sort,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(identityQueryService.listIdentities(cursor, sort, size));
+    }
+    
+    @Operation(summary = "Identity change feed",
+               description = "Identities created, changed or deleted since the cursor, oldest change first. Omit the cursor " +
+                             "for an initial full sync, then keep passing the nextCursor of the previous response. Poll " +
+                             "again right away while hasMore is true. A change to attributes or identifiers counts as a " +
+                             "change of the identity. Deletes are only reported until the deleted identity is purged.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Page of changes",
+                    content = @Content(schema = @Schema(implementation = IdentityChangeFeedResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Bad request - invalid cursor or size",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/changes")
+    public ResponseEntity<IdentityChangeFeedResponse> getChanges(
+            @Parameter(description = "Cursor from a previous response") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Maximum number of changes") @RequestParam(defaultValue = "500") int size) {
+        return ResponseEntity.ok(identityQueryService.getChanges(cursor, size));
+    }
+    
+    @Operation(summary = "Export identities",
+               description = "Stream every identity of a type as NDJSON, one identity with its attributes and identifiers " +
+                             "per line. The response is gzip-compressed when the request accepts gzip.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "NDJSON stream of identities",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                       schema = @Schema(implementation = IdentityResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Bad request - unknown identity type",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportIdentities(
+            @Parameter(description = "Identity type name") @RequestParam String type,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        identityExportService.requireIdentityType(type);
+        boolean gzip = NdjsonIdentityExporter.acceptsGzip(acceptEncoding);
+        
+        StreamingResponseBody body = out -> identityExportService.export(type, out, gzip);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, NdjsonIdentityExporter.GZIP);
+        }
+        return response.body(body);
+    }
     
     @Operation(summary = "Create identity", description = "Create a new identity")
     @ApiResponses(value = {
@@ -52,7 +147,9 @@ public class IdentityController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
-    @Operation(summary = "Get identity by ID", description = "Retrieve a specific identity by its ID")
+    @Operation(summary = "Get identity by ID",
+               description = "Retrieve a specific identity by its ID. Served from a per-node cache that is evicted on " +
+                             "every change; a missed change notification is bounded by app.identity-cache.ttl.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Identity found",
                     content = @Content(schema = @Schema(implementation = IdentityResponse.class))),
@@ -66,8 +163,7 @@ public class IdentityController {
     @GetMapping("/{identityId}")
     public ResponseEntity<IdentityResponse> getIdentity(
             @Parameter(description = "Identity ID") @PathVariable UUID identityId) {
-        // TODO: Implement actual retrieval logic
-        return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(identityCache.get(identityId));
     }
     
     @Operation(summary = "Update identity", description = "Update an existing identity")
@@ -91,6 +187,32 @@ public class IdentityController {
         return ResponseEntity.notFound().build();
     }
     
+    @Operation(summary = "Patch identity",
+               description = "Change display name and/or status in one conditional write. Pass the version of the identity " +
+                             "as last read; the change is rejected with 409 if the identity was modified since, if its status " +
+                             "does not allow the change or if the display name is taken. Attributes and identifiers are not " +
+                             "part of the response.")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Identity updated successfully",
+                    content = @Content(schema = @Schema(implementation = IdentityResponse.class))),
+        @ApiResponse(responseCode = "400", description = "Bad request",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Unauthorized",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "404", description = "Identity not found",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "409", description = "Conflict - stale version or change not allowed",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PatchMapping("/{identityId}")
+    public ResponseEntity<IdentityResponse> patchIdentity(
+            @Parameter(description = "Identity ID") @PathVariable UUID identityId,
+            @Valid @RequestBody PatchIdentityRequest request) {
+        return ResponseEntity.ok(identityCommandService.patchIdentity(identityId, request));
+    }
+    
     @Operation(summary = "Delete identity", description = "Delete an identity")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "204", description = "Identity deleted successfully"),
@@ -104,8 +226,8 @@ public class IdentityController {
     @DeleteMapping("/{identityId}")
     public ResponseEntity<Void> deleteIdentity(
             @Parameter(description = "Identity ID") @PathVariable UUID identityId) {
-        // TODO: Implement actual deletion logic
-        return ResponseEntity.notFound().build();
+        identityCommandService.deleteIdentity(identityId);
+        return ResponseEntity.noContent().build();
     }
     
     @Operation(summary = "Get identity identifiers", description = "Get all identifiers for a specific identity")
@@ -0,0 +1,41 @@
+package org.identityshelf.publicapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "Identity owning an identifier")
+public class IdentifierResolutionResponse {
+    
+    @Schema(description = "Identity ID", example = "123e4567-e89b-12d3-a456-426614174000")
+    @JsonProperty("identityId")
+    private UUID identityId;
+    
+    @Schema(description = "Whether the identifier is active", example = "true")
+    @JsonProperty("active")
+    private Boolean active;
+    
+    @Schema(description = "Whether this is the primary identifier of the identity", example = "true")
+    @JsonProperty("primary")
+    private Boolean primary;
+    
+    // Constructors
+    public IdentifierResolutionResponse() {}
+    
+    public IdentifierResolutionResponse(UUID identityId, Boolean active, Boolean primary) {
+        this.identityId = identityId;
+        this.active = active;
+        this.primary = primary;
+    }
+    
+    // Getters and setters
+    public UUID getIdentityId() { return identityId; }
+    public void setIdentityId(UUID identityId) { this.identityId = identityId; }
+    
+    public Boolean getActive() { return active; }
+    public void setActive(Boolean active) { this.active = active; }
+    
+    public Boolean getPrimary() { return primary; }
+    public void setPrimary(Boolean primary) { this.primary = primary; }
+}
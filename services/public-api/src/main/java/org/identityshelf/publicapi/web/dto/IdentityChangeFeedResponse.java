@@ -0,0 +1,41 @@
+package org.identityshelf.publicapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Identity change feed page")
+public class IdentityChangeFeedResponse {
+    
+    @Schema(description = "Changes in change order; an identity changed several times appears once, in its latest state")
+    @JsonProperty("changes")
+    private List<IdentityChangeResponse> changes;
+    
+    @Schema(description = "Opaque cursor to pass on the next poll; always present")
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+    
+    @Schema(description = "Whether more changes can be fetched right away with nextCursor")
+    @JsonProperty("hasMore")
+    private Boolean hasMore;
+    
+    // Constructors
+    public IdentityChangeFeedResponse() {}
+    
+    public IdentityChangeFeedResponse(List<IdentityChangeResponse> changes, String nextCursor, Boolean hasMore) {
+        this.changes = changes;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+    }
+    
+    // Getters and setters
+    public List<IdentityChangeResponse> getChanges() { return changes; }
+    public void setChanges(List<IdentityChangeResponse> changes) { this.changes = changes; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public Boolean getHasMore() { return hasMore; }
+    public void setHasMore(Boolean hasMore) { this.hasMore = hasMore; }
+}
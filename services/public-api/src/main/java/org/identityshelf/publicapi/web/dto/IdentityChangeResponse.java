@@ -0,0 +1,42 @@
+package org.identityshelf.publicapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.UUID;
+
+@Schema(description = "One entry of the identity change feed")
+public class IdentityChangeResponse {
+    
+    @Schema(description = "UPSERT: the identity was created or changed; DELETE: the identity was deleted",
+            example = "UPSERT", allowableValues = {"UPSERT", "DELETE"})
+    @JsonProperty("changeType")
+    private String changeType;
+    
+    @Schema(description = "Identity ID", example = "123e4567-e89b-12d3-a456-426614174000")
+    @JsonProperty("id")
+    private UUID id;
+    
+    @Schema(description = "Current state of the identity with attributes and identifiers; absent for deletes")
+    @JsonProperty("identity")
+    private IdentityResponse identity;
+    
+    // Constructors
+    public IdentityChangeResponse() {}
+    
+    public IdentityChangeResponse(String changeType, UUID id, IdentityResponse identity) {
+        this.changeType = changeType;
+        this.id = id;
+        this.identity = identity;
+    }
+    
+    // Getters and setters
+    public String getChangeType() { return changeType; }
+    public void setChangeType(String changeType) { this.changeType = changeType; }
+    
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+    
+    public IdentityResponse getIdentity() { return identity; }
+    public void setIdentity(IdentityResponse identity) { this.identity = identity; }
+}
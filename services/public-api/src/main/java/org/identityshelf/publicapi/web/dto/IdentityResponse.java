@@ -43,6 +43,10 @@ public class IdentityResponse {
     @JsonProperty("identifiers")
     private List<IdentifierResponse> identifiers;
     
+    @Schema(description = "Version for conditional updates; send it back with a PATCH", example = "3")
+    @JsonProperty("version")
+    private Long version;
+    
     // Constructors
     public IdentityResponse() {}
     
@@ -59,6 +63,13 @@ public class IdentityResponse {
         this.identifiers = identifiers;
     }
     
+    public IdentityResponse(UUID id, String displayName, String status, String type, 
+                           OffsetDateTime createdAt, OffsetDateTime updatedAt, 
+                           Map<String, Object> attributes, List<IdentifierResponse> identifiers, Long version) {
+        this(id, displayName, status, type, createdAt, updatedAt, attributes, identifiers);
+        this.version = version;
+    }
+    
     // Getters and setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -83,4 +94,7 @@ public class IdentityResponse {
     
     public List<IdentifierResponse> getIdentifiers() { return identifiers; }
     public void setIdentifiers(List<IdentifierResponse> identifiers) { this.identifiers = identifiers; }
-}
\ No newline at end of file
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
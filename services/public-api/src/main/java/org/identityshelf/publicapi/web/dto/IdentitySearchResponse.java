@@ -0,0 +1,49 @@
+package org.identityshelf.publicapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "Identity search response")
+public class IdentitySearchResponse {
+    
+    @Schema(description = "Identities on this page")
+    @JsonProperty("content")
+    private List<IdentityResponse> content;
+    
+    @Schema(description = "Requested page size", example = "20")
+    @JsonProperty("size")
+    private Integer size;
+    
+    @Schema(description = "Opaque continuation token for the next page, absent on the last page")
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+    
+    @Schema(description = "Whether this is the last page")
+    @JsonProperty("last")
+    private Boolean last;
+    
+    // Constructors
+    public IdentitySearchResponse() {}
+    
+    public IdentitySearchResponse(List<IdentityResponse> content, Integer size, String nextCursor, Boolean last) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.last = last;
+    }
+    
+    // Getters and setters
+    public List<IdentityResponse> getContent() { return content; }
+    public void setContent(List<IdentityResponse> content) { this.content = content; }
+    
+    public Integer getSize() { return size; }
+    public void setSize(Integer size) { this.size = size; }
+    
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    
+    public Boolean getLast() { return last; }
+    public void setLast(Boolean last) { this.last = last; }
+}
@@ -0,0 +1,43 @@
+package org.identityshelf.publicapi.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+@Schema(description = "Partial identity update, applied only if the identity is still at the given version")
+public class PatchIdentityRequest {
+    
+    @Schema(description = "Version the client read; the update fails with 409 if the identity changed since", example = "3")
+    @NotNull(message = "Version is required")
+    @JsonProperty("version")
+    private Long version;
+    
+    @Schema(description = "New display name", example = "John Doe", maxLength = 255)
+    @Size(max = 255, message = "Display name must not exceed 255 characters")
+    @JsonProperty("displayName")
+    private String displayName;
+    
+    @Schema(description = "New identity status", example = "SUSPENDED", allowableValues = {"ACTIVE", "INACTIVE", "SUSPENDED"})
+    @JsonProperty("status")
+    private String status;
+    
+    // Constructors
+    public PatchIdentityRequest() {}
+    
+    public PatchIdentityRequest(Long version, String displayName, String status) {
+        this.version = version;
+        this.displayName = displayName;
+        this.status = status;
+    }
+    
+    // Getters and setters
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+}
@@ -1,15 +1,26 @@
 package org.identityshelf.core.application.service;
 
+import org.identityshelf.core.application.command.CreateIdentityCommand;
 import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
+import org.identityshelf.core.domain.exception.IdentityValidationException;
 import org.identityshelf.core.domain.valueobject.IdentityId;
 import org.identityshelf.core.domain.valueobject.DisplayName;
 import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.identityshelf.core.domain.valueobject.IdentityCursor;
+import org.identityshelf.core.domain.valueobject.IdentitySortOrder;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.core.repository.IdentityPatch;
 import org.identityshelf.core.repository.IdentityRepository;
+import org.identityshelf.core.repository.IdentitySlice;
 import org.identityshelf.core.domain.service.IdentityDomainService;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Application Service for Identity use cases
@@ -31,9 +42,18 @@ public class IdentityApplicationService {
      */
     public Identity createIdentity(DisplayName displayName, String identityTypeName, 
                                  Map<String, AttributeValue> attributes) {
+        return createIdentity(displayName, identityTypeName, attributes, IdentityStatus.ACTIVE);
+    }
+    
+    /**
+     * Create a new identity in the given status
+     */
+    public Identity createIdentity(DisplayName displayName, String identityTypeName, 
+                                 Map<String, AttributeValue> attributes, IdentityStatus status) {
         // Validate business rules
-        if (!identityDomainService.canCreateIdentity(identityTypeName, attributes)) {
-            throw new IllegalArgumentException("Cannot create identity with given attributes");
+        List<String> errors = identityDomainService.findValidationErrors(identityTypeName, attributes);
+        if (!errors.isEmpty()) {
+            throw new IdentityValidationException(errors);
         }
         
         // Generate unique display name if needed
@@ -41,69 +61,113 @@ public class IdentityApplicationService {
         
         // Create the aggregate
         Identity identity = Identity.create(uniqueDisplayName, identityTypeName, attributes);
+        if (status != identity.getStatus()) {
+            identity.changeStatus(status);
+        }
         
         // Save and return
         return identityRepository.save(identity);
     }
     
+    /**
+     * Create a batch of identities in a single batched write
+     */
+    public List<Identity> createIdentities(List<CreateIdentityCommand> commands) {
+        List<Identity> identities = new ArrayList<>(commands.size());
+        for (CreateIdentityCommand command : commands) {
+            List<String> errors = identityDomainService.findValidationErrors(command.identityTypeName(), command.attributes());
+            if (!errors.isEmpty()) {
+                throw new IdentityValidationException("Cannot create identity " + command.displayName() + ": "
+                        + String.join(", ", errors), errors);
+            }
+            DisplayName uniqueDisplayName = identityDomainService.generateUniqueDisplayName(
+                command.displayName(), command.identityTypeName());
+            identities.add(Identity.create(uniqueDisplayName, command.identityTypeName(), command.attributes()));
+        }
+        
+        return identityRepository.saveAll(identities);
+    }
+    
     /**
      * Update an existing identity
+     * A null display name keeps the current one; attributes not named keep their value, empty values clear it.
+     * The attribute values the identity ends up with are validated as a whole.
      */
     public Identity updateIdentity(IdentityId id, DisplayName newDisplayName, 
                                  Map<String, AttributeValue> attributes) {
+        return updateIdentity(id, newDisplayName, attributes, null);
+    }
+    
+    /**
+     * Update an existing identity and move it to a new status, unless that is null
+     */
+    public Identity updateIdentity(IdentityId id, DisplayName newDisplayName, 
+                                 Map<String, AttributeValue> attributes, IdentityStatus newStatus) {
         Identity identity = identityRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Identity not found: " + id));
+            .orElseThrow(() -> new IdentityNotFoundException(id));
         
         // Validate business rules
-        if (!identityDomainService.canUpdateIdentity(id, attributes)) {
-            throw new IllegalArgumentException("Cannot update identity with given attributes");
+        Map<String, AttributeValue> updatedAttributes = new LinkedHashMap<>(identity.getAttributes());
+        updatedAttributes.putAll(attributes);
+        List<String> errors = identityDomainService.findValidationErrors(identity.getIdentityTypeName(), updatedAttributes);
+        if (!errors.isEmpty()) {
+            throw new IdentityValidationException(errors);
+        }
+        
+        // Display name and attributes only change in a modifiable status: reactivate before them, deactivate after
+        boolean statusChanges = newStatus != null && newStatus != identity.getStatus();
+        if (statusChanges && newStatus.canBeModified()) {
+            identity.changeStatus(newStatus);
         }
         
         // Check if display name is unique (if changed)
-        if (!identity.getDisplayName().equals(newDisplayName)) {
+        if (newDisplayName != null && !identity.getDisplayName().equals(newDisplayName)) {
             if (identityDomainService.displayNameExists(newDisplayName, identity.getIdentityTypeName(), id)) {
                 throw new IllegalArgumentException("Display name already exists: " + newDisplayName);
             }
+            identity.updateDisplayName(newDisplayName);
         }
         
         // Update the aggregate
-        identity.updateDisplayName(newDisplayName);
+        if (!attributes.isEmpty()) {
+            identity.updateAttributes(attributes);
+        }
+        if (statusChanges && !newStatus.canBeModified()) {
+            identity.changeStatus(newStatus);
+        }
         
         // Save and return
         return identityRepository.save(identity);
     }
     
     /**
-     * Activate an identity
+     * Activate an identity in a single conditional write
      */
     public Identity activateIdentity(IdentityId id) {
-        Identity identity = identityRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Identity not found: " + id));
-        
-        identity.activate();
-        return identityRepository.save(identity);
+        return identityRepository.patch(id, null, IdentityPatch.status(IdentityStatus.ACTIVE));
     }
     
     /**
-     * Deactivate an identity
+     * Deactivate an identity in a single conditional write
      */
     public Identity deactivateIdentity(IdentityId id) {
-        Identity identity = identityRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Identity not found: " + id));
-        
-        identity.deactivate();
-        return identityRepository.save(identity);
+        return identityRepository.patch(id, null, IdentityPatch.status(IdentityStatus.INACTIVE));
     }
     
     /**
-     * Suspend an identity
+     * Suspend an identity in a single conditional write
      */
     public Identity suspendIdentity(IdentityId id) {
-        Identity identity = identityRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Identity not found: " + id));
-        
-        identity.suspend();
-        return identityRepository.save(identity);
+        return identityRepository.patch(id, null, IdentityPatch.status(IdentityStatus.SUSPENDED));
+    }
+    
+    /**
+     * Change display name and/or status of an identity in a single conditional write
+     * Fails with a conflict if the identity was modified after the caller read expectedVersion,
+     * or if the display name is already taken within the identity type
+     */
+    public Identity patchIdentity(IdentityId id, long expectedVersion, DisplayName newDisplayName, IdentityStatus newStatus) {
+        return identityRepository.patch(id, expectedVersion, new IdentityPatch(newDisplayName, newStatus));
     }
     
     /**
@@ -134,13 +198,32 @@ public class IdentityApplicationService {
         return identityRepository.findByStatus(status);
     }
     
+    /**
+     * Stream all identities by type (caller must close the stream)
+     */
+    public Stream<Identity> streamByType(String identityTypeName) {
+        return identityRepository.streamByType(identityTypeName);
+    }
+    
+    /**
+     * Stream all identities by status (caller must close the stream)
+     */
+    public Stream<Identity> streamByStatus(String status) {
+        return identityRepository.streamByStatus(status);
+    }
+    
+    /**
+     * List identities page by page using a continuation cursor
+     */
+    public IdentitySlice findSlice(IdentitySortOrder sortOrder, IdentityCursor after, int limit) {
+        return identityRepository.findSlice(sortOrder, after, limit);
+    }
+    
     /**
      * Delete identity
+     * Only writes a tombstone; attribute values and identifiers are purged asynchronously
      */
     public void deleteIdentity(IdentityId id) {
-        Identity identity = identityRepository.findById(id)
-            .orElseThrow(() -> new IllegalArgumentException("Identity not found: " + id));
-        
         identityRepository.deleteById(id);
     }
 }
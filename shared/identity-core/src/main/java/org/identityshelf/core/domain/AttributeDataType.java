@@ -10,5 +10,7 @@ public enum AttributeDataType {
     EMAIL,
     URL,
     PHONE,
-    UUID
+    UUID,
+    SELECT,
+    MULTI_SELECT
 }
@@ -1,5 +1,7 @@
 package org.identityshelf.core.domain;
 
+import org.identityshelf.core.domain.valueobject.IdentifierCanonicalization;
+
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
@@ -11,6 +13,7 @@ public class IdentifierType {
     private AttributeDataType dataType;
     private String validationRegex;
     private String defaultValue;
+    private IdentifierCanonicalization canonicalization = IdentifierCanonicalization.NONE;
     private boolean unique;
     private boolean searchable;
     private boolean active;
@@ -53,6 +56,8 @@ public class IdentifierType {
     public void setValidationRegex(String validationRegex) { this.validationRegex = validationRegex; }
     public String getDefaultValue() { return defaultValue; }
     public void setDefaultValue(String defaultValue) { this.defaultValue = defaultValue; }
+    public IdentifierCanonicalization getCanonicalization() { return canonicalization; }
+    public void setCanonicalization(IdentifierCanonicalization canonicalization) { this.canonicalization = canonicalization; }
     public boolean isUnique() { return unique; }
     public void setUnique(boolean unique) { this.unique = unique; }
     public boolean isSearchable() { return searchable; }
@@ -63,4 +68,11 @@ public class IdentifierType {
     public void setCreatedAt(OffsetDateTime createdAt) { this.createdAt = createdAt; }
     public OffsetDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(OffsetDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    /**
+     * Canonical form of a value of this type, as stored in normalized_value and used for lookups
+     */
+    public String normalize(String value) {
+        return canonicalization.canonicalize(value);
+    }
 }
@@ -10,6 +10,7 @@ import org.identityshelf.core.domain.event.IdentityCreatedEvent;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -26,6 +27,13 @@ public class Identity {
     private String identityTypeName;
     private OffsetDateTime createdAt;
     private OffsetDateTime updatedAt;
+    private Map<String, AttributeValue> attributes = new LinkedHashMap<>();
+    
+    // Optimistic lock version as persisted; 0 for a new aggregate
+    private long version;
+    
+    // True until the aggregate has been stored for the first time
+    private boolean isNew;
     
     // Domain events
     private final List<DomainEvent> domainEvents = new ArrayList<>();
@@ -43,8 +51,12 @@ public class Identity {
         identity.displayName = displayName;
         identity.status = IdentityStatus.ACTIVE;
         identity.identityTypeName = identityTypeName;
+        if (attributes != null) {
+            identity.attributes = new LinkedHashMap<>(attributes);
+        }
         identity.createdAt = OffsetDateTime.now();
         identity.updatedAt = identity.createdAt;
+        identity.isNew = true;
         
         // Add domain event
         identity.addDomainEvent(new IdentityCreatedEvent(
@@ -52,7 +64,45 @@ public class Identity {
         
         return identity;
     }
-    
+
+    /**
+     * Factory method to reconstitute an existing Identity from persisted state
+     * No invariants are re-checked and no domain events are raised
+     */
+    public static Identity reconstitute(IdentityId id, DisplayName displayName, IdentityStatus status,
+                                      String identityTypeName, OffsetDateTime createdAt,
+                                      OffsetDateTime updatedAt) {
+        return reconstitute(id, displayName, status, identityTypeName, createdAt, updatedAt, Map.of());
+    }
+
+    /**
+     * Factory method to reconstitute an existing Identity together with its attribute values
+     */
+    public static Identity reconstitute(IdentityId id, DisplayName displayName, IdentityStatus status,
+                                      String identityTypeName, OffsetDateTime createdAt,
+                                      OffsetDateTime updatedAt, Map<String, AttributeValue> attributes) {
+        return reconstitute(id, displayName, status, identityTypeName, createdAt, updatedAt, attributes, 0L);
+    }
+
+    /**
+     * Factory method to reconstitute an existing Identity with its attribute values and optimistic lock version
+     */
+    public static Identity reconstitute(IdentityId id, DisplayName displayName, IdentityStatus status,
+                                      String identityTypeName, OffsetDateTime createdAt,
+                                      OffsetDateTime updatedAt, Map<String, AttributeValue> attributes,
+                                      long version) {
+        Identity identity = new Identity();
+        identity.id = id;
+        identity.displayName = displayName;
+        identity.status = status;
+        identity.identityTypeName = identityTypeName;
+        identity.createdAt = createdAt;
+        identity.updatedAt = updatedAt;
+        identity.attributes = new LinkedHashMap<>(attributes);
+        identity.version = version;
+        return identity;
+    }
+
     /**
      * Business method to activate the identity
      */
@@ -86,6 +136,21 @@ public class Identity {
         this.updatedAt = OffsetDateTime.now();
     }
     
+    /**
+     * Business method to move the identity to another status; tombstones and pending identities are not made this way
+     */
+    public void changeStatus(IdentityStatus newStatus) {
+        if (!newStatus.isChangeTarget()) {
+            throw new IllegalArgumentException("Cannot change identity status to: " + newStatus);
+        }
+        switch (newStatus) {
+            case ACTIVE -> activate();
+            case INACTIVE -> deactivate();
+            case SUSPENDED -> suspend();
+            default -> throw new IllegalStateException("Unhandled status change target: " + newStatus);
+        }
+    }
+    
     /**
      * Business method to update display name
      */
@@ -97,6 +162,17 @@ public class Identity {
         this.updatedAt = OffsetDateTime.now();
     }
     
+    /**
+     * Business method to set attribute values; attributes not named keep their value, empty values clear it
+     */
+    public void updateAttributes(Map<String, AttributeValue> changedAttributes) {
+        if (!this.status.canBeModified()) {
+            throw new IllegalStateException("Cannot modify identity with status: " + this.status);
+        }
+        this.attributes.putAll(changedAttributes);
+        this.updatedAt = OffsetDateTime.now();
+    }
+
     /**
      * Business method to check if identity can be modified
      */
@@ -104,6 +180,13 @@ public class Identity {
         return this.status.canBeModified();
     }
     
+    /**
+     * Check if the aggregate was created in this unit of work and has never been persisted
+     */
+    public boolean isNew() {
+        return isNew;
+    }
+    
     /**
      * Business method to check if identity is active
      */
@@ -140,6 +223,18 @@ public class Identity {
         return updatedAt;
     }
     
+    public Map<String, AttributeValue> getAttributes() {
+        return Collections.unmodifiableMap(attributes);
+    }
+    
+    public Optional<AttributeValue> getAttribute(String attributeName) {
+        return Optional.ofNullable(attributes.get(attributeName));
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
     // Domain events management
     public List<DomainEvent> getDomainEvents() {
         return Collections.unmodifiableList(domainEvents);
@@ -0,0 +1,20 @@
+package org.identityshelf.core.domain.definition;
+
+import org.identityshelf.core.domain.AttributeDataType;
+
+import java.util.UUID;
+
+/**
+ * An attribute type as mapped onto one identity type, frozen into a {@link DefinitionSnapshot}.
+ * Base and override regex are kept apart because they are cumulative: a value has to match both.
+ */
+public record AttributeDefinition(UUID uuid,
+                                  String name,
+                                  String displayName,
+                                  AttributeDataType dataType,
+                                  boolean required,
+                                  int sortOrder,
+                                  String validationRegex,
+                                  String overrideValidationRegex,
+                                  String defaultValue) {
+}
@@ -0,0 +1,164 @@
+package org.identityshelf.core.domain.definition;
+
+import org.identityshelf.core.domain.AttributeDataType;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Data-type checks for raw attribute values. The common shapes are scanned character by character;
+ * parsers, and the exceptions they throw on bad input, are only reached for values that already look right.
+ */
+final class AttributeValueChecks {
+
+    private AttributeValueChecks() {
+    }
+
+    static boolean accepts(AttributeDataType dataType, String value) {
+        if (dataType == null) {
+            return true;
+        }
+        return switch (dataType) {
+            case INTEGER -> isInteger(value);
+            case DECIMAL -> isDecimal(value);
+            case BOOLEAN -> value.equalsIgnoreCase("true") || value.equalsIgnoreCase("false");
+            case DATE -> isDate(value);
+            case DATETIME -> isDateTime(value);
+            case EMAIL -> isEmail(value);
+            case URL -> isUrl(value);
+            case PHONE -> isPhone(value);
+            case UUID -> isUuid(value);
+            case STRING, SELECT, MULTI_SELECT -> true;
+        };
+    }
+
+    private static boolean isInteger(String value) {
+        int start = value.startsWith("-") || value.startsWith("+") ? 1 : 0;
+        int digits = value.length() - start;
+        if (digits == 0 || digits > 19) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        if (digits < 19) {
+            return true;
+        }
+        try {
+            Long.parseLong(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDecimal(String value) {
+        boolean digit = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isDigit(c)) {
+                digit = true;
+            } else if (c != '-' && c != '+' && c != '.' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        if (!digit) {
+            return false;
+        }
+        try {
+            new BigDecimal(value);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDate(String value) {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return false;
+        }
+        try {
+            LocalDate.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static boolean isDateTime(String value) {
+        if (value.length() < 20 || value.charAt(10) != 'T') {
+            return false;
+        }
+        try {
+            OffsetDateTime.parse(value);
+            return true;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private static boolean isEmail(String value) {
+        int at = value.indexOf('@');
+        if (at <= 0 || at != value.lastIndexOf('@') || at == value.length() - 1) {
+            return false;
+        }
+        int dot = value.indexOf('.', at + 2);
+        if (dot < 0 || dot == value.length() - 1) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUrl(String value) {
+        if (!value.regionMatches(true, 0, "http://", 0, 7) && !value.regionMatches(true, 0, "https://", 0, 8)) {
+            return false;
+        }
+        try {
+            return new URI(value).getHost() != null;
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    private static boolean isPhone(String value) {
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+            } else if (c != '+' && c != '-' && c != '.' && c != '(' && c != ')' && c != '/' && c != ' ') {
+                return false;
+            }
+        }
+        return digits >= 3 && digits <= 15;
+    }
+
+    private static boolean isUuid(String value) {
+        if (value.length() != 36) {
+            return false;
+        }
+        for (int i = 0; i < 36; i++) {
+            char c = value.charAt(i);
+            boolean dash = i == 8 || i == 13 || i == 18 || i == 23;
+            if (dash ? c != '-' : Character.digit(c, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
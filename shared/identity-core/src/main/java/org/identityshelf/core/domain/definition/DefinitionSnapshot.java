@@ -0,0 +1,75 @@
+package org.identityshelf.core.domain.definition;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * All identity type definitions as of one load, immutable and safe to share between threads.
+ * A newer load never modifies a snapshot; it replaces it with one of a higher version.
+ * Validation plans are compiled with the snapshot, so requests never compile a pattern.
+ */
+public final class DefinitionSnapshot {
+
+    private final long version;
+    private final Instant loadedAt;
+    private final List<IdentityTypeDefinition> identityTypes;
+    private final Map<String, IdentityTypeDefinition> typesByName;
+    private final Map<UUID, IdentityTypeDefinition> typesByUuid;
+    private final Map<String, ValidationPlan> plansByName;
+
+    public DefinitionSnapshot(long version, Instant loadedAt, Collection<IdentityTypeDefinition> identityTypes) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.identityTypes = List.copyOf(identityTypes);
+
+        Map<String, IdentityTypeDefinition> byName = new HashMap<>();
+        Map<UUID, IdentityTypeDefinition> byUuid = new HashMap<>();
+        Map<String, ValidationPlan> plans = new HashMap<>();
+        for (IdentityTypeDefinition type : this.identityTypes) {
+            byName.put(type.name(), type);
+            byUuid.put(type.uuid(), type);
+            plans.put(type.name(), ValidationPlanCompiler.compile(type));
+        }
+        this.typesByName = Map.copyOf(byName);
+        this.typesByUuid = Map.copyOf(byUuid);
+        this.plansByName = Map.copyOf(plans);
+    }
+
+    /**
+     * The snapshot in place before the first load: version 0, no types
+     */
+    public static DefinitionSnapshot empty() {
+        return new DefinitionSnapshot(0, Instant.EPOCH, List.of());
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public Instant loadedAt() {
+        return loadedAt;
+    }
+
+    /**
+     * All identity types, active and inactive
+     */
+    public List<IdentityTypeDefinition> identityTypes() {
+        return identityTypes;
+    }
+
+    public IdentityTypeDefinition findIdentityType(String name) {
+        return name == null ? null : typesByName.get(name);
+    }
+
+    public IdentityTypeDefinition findIdentityType(UUID uuid) {
+        return uuid == null ? null : typesByUuid.get(uuid);
+    }
+
+    public ValidationPlan findValidationPlan(String identityTypeName) {
+        return identityTypeName == null ? null : plansByName.get(identityTypeName);
+    }
+}
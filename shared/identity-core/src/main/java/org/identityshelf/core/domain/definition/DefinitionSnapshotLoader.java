@@ -0,0 +1,14 @@
+package org.identityshelf.core.domain.definition;
+
+import java.util.List;
+
+/**
+ * Reads the current identity type definitions from their store
+ */
+public interface DefinitionSnapshotLoader {
+
+    /**
+     * All identity types with their active attribute and identifier mappings
+     */
+    List<IdentityTypeDefinition> loadIdentityTypes();
+}
@@ -0,0 +1,53 @@
+package org.identityshelf.core.domain.definition;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link DefinitionSnapshot} and swaps it copy-on-write.
+ *
+ * Readers take one volatile read and never block or touch the store. Reloads are serialized among
+ * themselves; each builds a complete new snapshot off to the side and publishes it in one step, so
+ * a reader sees either the old or the new definitions, never a mix. A failed load keeps the old snapshot.
+ */
+public class DefinitionSnapshotService {
+
+    private final DefinitionSnapshotLoader loader;
+    private final Clock clock;
+    private final AtomicReference<DefinitionSnapshot> current = new AtomicReference<>(DefinitionSnapshot.empty());
+
+    public DefinitionSnapshotService(DefinitionSnapshotLoader loader) {
+        this(loader, Clock.systemUTC());
+    }
+
+    public DefinitionSnapshotService(DefinitionSnapshotLoader loader, Clock clock) {
+        this.loader = loader;
+        this.clock = clock;
+    }
+
+    /**
+     * The snapshot published last; version 0 and empty until the first reload
+     */
+    public DefinitionSnapshot current() {
+        return current.get();
+    }
+
+    public IdentityTypeDefinition findIdentityType(String name) {
+        return current.get().findIdentityType(name);
+    }
+
+    public ValidationPlan findValidationPlan(String identityTypeName) {
+        return current.get().findValidationPlan(identityTypeName);
+    }
+
+    /**
+     * Load the definitions from the store and publish them as the next version
+     */
+    public synchronized DefinitionSnapshot reload() {
+        List<IdentityTypeDefinition> identityTypes = loader.loadIdentityTypes();
+        DefinitionSnapshot next = new DefinitionSnapshot(current.get().version() + 1, clock.instant(), identityTypes);
+        current.set(next);
+        return next;
+    }
+}
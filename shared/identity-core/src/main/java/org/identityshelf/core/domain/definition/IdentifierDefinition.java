@@ -0,0 +1,24 @@
+package org.identityshelf.core.domain.definition;
+
+import org.identityshelf.core.domain.AttributeDataType;
+import org.identityshelf.core.domain.valueobject.IdentifierCanonicalization;
+
+import java.util.UUID;
+
+/**
+ * An identifier type as mapped onto one identity type, frozen into a {@link DefinitionSnapshot}.
+ * Base and override regex are kept apart because they are cumulative: a value has to match both.
+ */
+public record IdentifierDefinition(UUID uuid,
+                                   String name,
+                                   String displayName,
+                                   AttributeDataType dataType,
+                                   IdentifierCanonicalization canonicalization,
+                                   boolean unique,
+                                   boolean searchable,
+                                   boolean required,
+                                   boolean primaryCandidate,
+                                   int sortOrder,
+                                   String validationRegex,
+                                   String overrideValidationRegex) {
+}
@@ -0,0 +1,90 @@
+package org.identityshelf.core.domain.definition;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * An identity type with its active attribute and identifier mappings, immutable once built.
+ * Attributes and identifiers are ordered by sort order then name; the position of an attribute
+ * in {@link #attributes()} is its ordinal, stable for the lifetime of the snapshot.
+ */
+public final class IdentityTypeDefinition {
+
+    private static final Comparator<AttributeDefinition> ATTRIBUTE_ORDER =
+            Comparator.comparingInt(AttributeDefinition::sortOrder).thenComparing(AttributeDefinition::name);
+    private static final Comparator<IdentifierDefinition> IDENTIFIER_ORDER =
+            Comparator.comparingInt(IdentifierDefinition::sortOrder).thenComparing(IdentifierDefinition::name);
+
+    private final UUID uuid;
+    private final String name;
+    private final String displayName;
+    private final boolean active;
+    private final List<AttributeDefinition> attributes;
+    private final List<IdentifierDefinition> identifiers;
+    private final Map<String, Integer> attributeOrdinals;
+    private final Map<String, IdentifierDefinition> identifiersByName;
+
+    public IdentityTypeDefinition(UUID uuid, String name, String displayName, boolean active,
+                                  List<AttributeDefinition> attributes, List<IdentifierDefinition> identifiers) {
+        this.uuid = uuid;
+        this.name = name;
+        this.displayName = displayName;
+        this.active = active;
+        this.attributes = attributes.stream().sorted(ATTRIBUTE_ORDER).toList();
+        this.identifiers = identifiers.stream().sorted(IDENTIFIER_ORDER).toList();
+
+        Map<String, Integer> ordinals = new HashMap<>();
+        for (int i = 0; i < this.attributes.size(); i++) {
+            ordinals.put(this.attributes.get(i).name(), i);
+        }
+        this.attributeOrdinals = Map.copyOf(ordinals);
+
+        Map<String, IdentifierDefinition> byName = new HashMap<>();
+        this.identifiers.forEach(identifier -> byName.put(identifier.name(), identifier));
+        this.identifiersByName = Map.copyOf(byName);
+    }
+
+    public UUID uuid() {
+        return uuid;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public String displayName() {
+        return displayName;
+    }
+
+    public boolean active() {
+        return active;
+    }
+
+    public List<AttributeDefinition> attributes() {
+        return attributes;
+    }
+
+    public List<IdentifierDefinition> identifiers() {
+        return identifiers;
+    }
+
+    /**
+     * Ordinal of the named attribute, or -1 if it is not mapped onto this type
+     */
+    public int attributeOrdinal(String attributeName) {
+        Integer ordinal = attributeName == null ? null : attributeOrdinals.get(attributeName);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    public AttributeDefinition findAttribute(String attributeName) {
+        int ordinal = attributeOrdinal(attributeName);
+        return ordinal >= 0 ? attributes.get(ordinal) : null;
+    }
+
+    public IdentifierDefinition findIdentifier(String identifierName) {
+        return identifierName == null ? null : identifiersByName.get(identifierName);
+    }
+}
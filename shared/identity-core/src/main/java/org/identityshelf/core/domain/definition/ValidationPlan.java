@@ -0,0 +1,180 @@
+package org.identityshelf.core.domain.definition;
+
+import org.identityshelf.core.domain.AttributeDataType;
+import org.identityshelf.core.domain.definition.pattern.PatternBudgetExceededException;
+import org.identityshelf.core.domain.definition.pattern.ValidationPattern;
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attribute validation for one identity type, compiled by {@link ValidationPlanCompiler}.
+ *
+ * Everything is indexed by attribute ordinal: data types, compiled patterns and the required set,
+ * which is a bitset. A validation is one pass over the submitted values with no allocation on the
+ * success path; required attributes are counted rather than collected, since a map holds each name once.
+ * Identifier values are checked one at a time against their identifier type's compiled patterns.
+ * A pattern that runs out of its step budget fails the value like a mismatch.
+ */
+public final class ValidationPlan {
+
+    private static final ValidationPattern[] NO_PATTERNS = new ValidationPattern[0];
+
+    private final IdentityTypeDefinition type;
+    private final AttributeDataType[] dataTypes;
+    private final ValidationPattern[][] patterns;
+    private final String[] patternErrors;
+    private final long[] requiredBits;
+    private final int requiredCount;
+    private final Map<String, ValidationPattern[]> identifierPatterns;
+    private final Map<String, String> identifierPatternErrors;
+
+    ValidationPlan(IdentityTypeDefinition type, AttributeDataType[] dataTypes, ValidationPattern[][] patterns,
+                   String[] patternErrors, long[] requiredBits,
+                   Map<String, ValidationPattern[]> identifierPatterns, Map<String, String> identifierPatternErrors) {
+        this.type = type;
+        this.dataTypes = dataTypes;
+        this.patterns = patterns;
+        this.patternErrors = patternErrors;
+        this.requiredBits = requiredBits;
+        this.identifierPatterns = identifierPatterns;
+        this.identifierPatternErrors = identifierPatternErrors;
+        int count = 0;
+        for (long word : requiredBits) {
+            count += Long.bitCount(word);
+        }
+        this.requiredCount = count;
+    }
+
+    static ValidationPattern[] noPatterns() {
+        return NO_PATTERNS;
+    }
+
+    public IdentityTypeDefinition identityType() {
+        return type;
+    }
+
+    /**
+     * Fast check; stops at the first violation
+     */
+    public boolean isValid(Map<String, AttributeValue> attributes) {
+        return check(attributes, null);
+    }
+
+    /**
+     * All violations, in submission order followed by missing required attributes; empty if the values are valid
+     */
+    public List<String> validate(Map<String, AttributeValue> attributes) {
+        List<String> errors = new ArrayList<>(0);
+        check(attributes, errors);
+        return errors;
+    }
+
+    /**
+     * The violation of one identifier value, or null if it matches the patterns of its identifier type
+     */
+    public String checkIdentifier(String identifierName, String value) {
+        ValidationPattern[] compiled = identifierName == null ? null : identifierPatterns.get(identifierName);
+        if (compiled == null) {
+            return "Identifier '" + identifierName + "' is not defined for type " + type.name();
+        }
+        String patternError = identifierPatternErrors.get(identifierName);
+        if (patternError != null) {
+            return patternError;
+        }
+        for (ValidationPattern pattern : compiled) {
+            try {
+                if (!pattern.matches(value)) {
+                    return "Identifier '" + identifierName + "' does not match its validation pattern";
+                }
+            } catch (PatternBudgetExceededException e) {
+                return "Identifier '" + identifierName + "' is too complex to validate against its pattern";
+            }
+        }
+        return null;
+    }
+
+    private boolean check(Map<String, AttributeValue> attributes, List<String> errors) {
+        if (!type.active()) {
+            return fail(errors, "Identity type '" + type.name() + "' is not active");
+        }
+        boolean valid = true;
+        int requiredSeen = 0;
+        for (Map.Entry<String, AttributeValue> entry : attributes.entrySet()) {
+            int ordinal = type.attributeOrdinal(entry.getKey());
+            if (ordinal < 0) {
+                valid = fail(errors, "Unknown attribute '" + entry.getKey() + "' for identity type '" + type.name() + "'");
+                if (errors == null) {
+                    return false;
+                }
+                continue;
+            }
+            AttributeValue attributeValue = entry.getValue();
+            if (attributeValue == null || attributeValue.isEmpty()) {
+                continue;
+            }
+            if (isRequired(ordinal)) {
+                requiredSeen++;
+            }
+            String error = checkValue(ordinal, attributeValue.getValue());
+            if (error != null) {
+                valid = fail(errors, error);
+                if (errors == null) {
+                    return false;
+                }
+            }
+        }
+        if (requiredSeen < requiredCount) {
+            if (errors == null) {
+                return false;
+            }
+            reportMissing(attributes, errors);
+            valid = false;
+        }
+        return valid;
+    }
+
+    private String checkValue(int ordinal, String value) {
+        if (patternErrors[ordinal] != null) {
+            return patternErrors[ordinal];
+        }
+        if (!AttributeValueChecks.accepts(dataTypes[ordinal], value)) {
+            return "Attribute '" + type.attributes().get(ordinal).name() + "' is not a valid " + dataTypes[ordinal];
+        }
+        for (ValidationPattern pattern : patterns[ordinal]) {
+            try {
+                if (!pattern.matches(value)) {
+                    return "Attribute '" + type.attributes().get(ordinal).name() + "' does not match its validation pattern";
+                }
+            } catch (PatternBudgetExceededException e) {
+                return "Attribute '" + type.attributes().get(ordinal).name() + "' is too complex to validate against its pattern";
+            }
+        }
+        return null;
+    }
+
+    private void reportMissing(Map<String, AttributeValue> attributes, List<String> errors) {
+        for (int ordinal = 0; ordinal < dataTypes.length; ordinal++) {
+            if (isRequired(ordinal)) {
+                String name = type.attributes().get(ordinal).name();
+                AttributeValue attributeValue = attributes.get(name);
+                if (attributeValue == null || attributeValue.isEmpty()) {
+                    errors.add("Required attribute '" + name + "' is missing");
+                }
+            }
+        }
+    }
+
+    private boolean isRequired(int ordinal) {
+        return (requiredBits[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    private static boolean fail(List<String> errors, String error) {
+        if (errors != null) {
+            errors.add(error);
+        }
+        return false;
+    }
+}
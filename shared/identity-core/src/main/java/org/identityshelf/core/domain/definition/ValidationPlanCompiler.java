@@ -0,0 +1,79 @@
+package org.identityshelf.core.domain.definition;
+
+import org.identityshelf.core.domain.AttributeDataType;
+import org.identityshelf.core.domain.definition.pattern.ValidationPattern;
+import org.identityshelf.core.domain.definition.pattern.ValidationPatterns;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles an identity type definition into a {@link ValidationPlan}.
+ *
+ * Attribute and identifier patterns are compiled alike. Base and override regex are cumulative: a value has to match both, so each contributes its own
+ * compiled pattern, on the linear engine where possible (see {@link ValidationPatterns}).
+ * A required attribute with a default value is not required of the caller.
+ * A pattern that does not compile fails every value of its attribute or identifier instead of the whole snapshot.
+ */
+public final class ValidationPlanCompiler {
+
+    private ValidationPlanCompiler() {
+    }
+
+    public static ValidationPlan compile(IdentityTypeDefinition type) {
+        List<AttributeDefinition> attributes = type.attributes();
+        int size = attributes.size();
+        AttributeDataType[] dataTypes = new AttributeDataType[size];
+        ValidationPattern[][] patterns = new ValidationPattern[size][];
+        String[] patternErrors = new String[size];
+        long[] requiredBits = new long[(size + 63) >>> 6];
+
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            AttributeDefinition attribute = attributes.get(ordinal);
+            dataTypes[ordinal] = attribute.dataType();
+            if (attribute.required() && isBlank(attribute.defaultValue())) {
+                requiredBits[ordinal >>> 6] |= 1L << ordinal;
+            }
+            try {
+                patterns[ordinal] = patterns(attribute.validationRegex(), attribute.overrideValidationRegex());
+            } catch (PatternSyntaxException e) {
+                patterns[ordinal] = ValidationPlan.noPatterns();
+                patternErrors[ordinal] = "Attribute '" + attribute.name() + "' has an invalid validation pattern: "
+                        + e.getDescription();
+            }
+        }
+
+        Map<String, ValidationPattern[]> identifierPatterns = new HashMap<>();
+        Map<String, String> identifierPatternErrors = new HashMap<>();
+        for (IdentifierDefinition identifier : type.identifiers()) {
+            try {
+                identifierPatterns.put(identifier.name(),
+                        patterns(identifier.validationRegex(), identifier.overrideValidationRegex()));
+            } catch (PatternSyntaxException e) {
+                identifierPatterns.put(identifier.name(), ValidationPlan.noPatterns());
+                identifierPatternErrors.put(identifier.name(), "Identifier '" + identifier.name()
+                        + "' has an invalid validation pattern: " + e.getDescription());
+            }
+        }
+        return new ValidationPlan(type, dataTypes, patterns, patternErrors, requiredBits,
+                Map.copyOf(identifierPatterns), Map.copyOf(identifierPatternErrors));
+    }
+
+    private static ValidationPattern[] patterns(String baseRegex, String overrideRegex) {
+        List<ValidationPattern> patterns = new ArrayList<>(2);
+        if (!isBlank(baseRegex)) {
+            patterns.add(ValidationPatterns.compile(baseRegex));
+        }
+        if (!isBlank(overrideRegex) && !overrideRegex.equals(baseRegex)) {
+            patterns.add(ValidationPatterns.compile(overrideRegex));
+        }
+        return patterns.isEmpty() ? ValidationPlan.noPatterns() : patterns.toArray(new ValidationPattern[0]);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,67 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+import java.util.regex.Pattern;
+
+/**
+ * java.util.regex for the patterns the linear engine cannot run. The matcher reads its input through a
+ * view that counts character reads and aborts the match once the step budget is spent, which is what
+ * bounds catastrophic backtracking here.
+ */
+final class BacktrackingPattern implements ValidationPattern {
+
+    private final Pattern pattern;
+    private final long stepBudget;
+
+    BacktrackingPattern(Pattern pattern, long stepBudget) {
+        this.pattern = pattern;
+        this.stepBudget = stepBudget;
+    }
+
+    @Override
+    public String source() {
+        return pattern.pattern();
+    }
+
+    @Override
+    public PatternEngine engine() {
+        return PatternEngine.BACKTRACKING;
+    }
+
+    @Override
+    public boolean matches(CharSequence value) {
+        return pattern.matcher(new BudgetedCharSequence(value, new long[] {0})).matches();
+    }
+
+    private final class BudgetedCharSequence implements CharSequence {
+        private final CharSequence value;
+        private final long[] reads;
+
+        private BudgetedCharSequence(CharSequence value, long[] reads) {
+            this.value = value;
+            this.reads = reads;
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads[0] > stepBudget) {
+                throw new PatternBudgetExceededException(pattern.pattern(), stepBudget);
+            }
+            return value.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new BudgetedCharSequence(value.subSequence(start, end), reads);
+        }
+
+        @Override
+        public String toString() {
+            return value.toString();
+        }
+    }
+}
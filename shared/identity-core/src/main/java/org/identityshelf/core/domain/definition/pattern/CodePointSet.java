@@ -0,0 +1,105 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable set of code points stored as sorted, disjoint, inclusive ranges
+ */
+final class CodePointSet {
+
+    static final CodePointSet DIGIT = range('0', '9');
+    static final CodePointSet WORD = builder().add('a', 'z').add('A', 'Z').add('0', '9').add('_', '_').build();
+    static final CodePointSet SPACE = builder().add('\t', '\r').add(' ', ' ').build();
+    static final CodePointSet LINE_TERMINATOR = builder()
+            .add('\n', '\n').add('\r', '\r').add('\u0085', '\u0085').add('\u2028', '\u2029').build();
+    /** '.' without DOTALL: anything but a line terminator */
+    static final CodePointSet DOT = LINE_TERMINATOR.complement();
+
+    private final int[] ranges;
+
+    private CodePointSet(int[] ranges) {
+        this.ranges = ranges;
+    }
+
+    static CodePointSet range(int from, int to) {
+        return new CodePointSet(new int[] {from, to});
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    boolean contains(int codePoint) {
+        int low = 0;
+        int high = ranges.length / 2 - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (codePoint < ranges[2 * mid]) {
+                high = mid - 1;
+            } else if (codePoint > ranges[2 * mid + 1]) {
+                low = mid + 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The only member, or -1 if the set holds more or fewer than one code point
+     */
+    int singleCodePoint() {
+        return ranges.length == 2 && ranges[0] == ranges[1] ? ranges[0] : -1;
+    }
+
+    CodePointSet complement() {
+        List<Integer> result = new ArrayList<>();
+        int next = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                result.add(next);
+                result.add(ranges[i] - 1);
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= Character.MAX_CODE_POINT) {
+            result.add(next);
+            result.add(Character.MAX_CODE_POINT);
+        }
+        return new CodePointSet(result.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    static final class Builder {
+        private final List<int[]> ranges = new ArrayList<>();
+
+        Builder add(int from, int to) {
+            ranges.add(new int[] {from, to});
+            return this;
+        }
+
+        Builder addAll(CodePointSet set) {
+            for (int i = 0; i < set.ranges.length; i += 2) {
+                add(set.ranges[i], set.ranges[i + 1]);
+            }
+            return this;
+        }
+
+        CodePointSet build() {
+            int[][] sorted = ranges.toArray(new int[0][]);
+            Arrays.sort(sorted, (a, b) -> Integer.compare(a[0], b[0]));
+            List<Integer> merged = new ArrayList<>();
+            for (int[] range : sorted) {
+                int size = merged.size();
+                if (size > 0 && range[0] <= merged.get(size - 1) + 1) {
+                    merged.set(size - 1, Math.max(merged.get(size - 1), range[1]));
+                } else {
+                    merged.add(range[0]);
+                    merged.add(range[1]);
+                }
+            }
+            return new CodePointSet(merged.stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+}
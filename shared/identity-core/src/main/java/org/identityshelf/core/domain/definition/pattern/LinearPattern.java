@@ -0,0 +1,212 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+import java.util.Arrays;
+
+/**
+ * A pattern compiled to an NFA program and matched by simulating all NFA states in lock step.
+ * Every instruction is visited at most once per input position, so a match costs at most
+ * (value length + 1) x (program size) steps, no matter how the pattern nests its quantifiers.
+ */
+final class LinearPattern implements ValidationPattern {
+
+    static final byte SET = 0;
+    static final byte SPLIT = 1;
+    static final byte JMP = 2;
+    static final byte BEGIN = 3;
+    static final byte END = 4;
+    static final byte DOLLAR = 5;
+    static final byte MATCH = 6;
+
+    private static final ThreadLocal<Simulation> SIMULATIONS = ThreadLocal.withInitial(Simulation::new);
+
+    private final String source;
+    private final byte[] ops;
+    private final int[] x;
+    private final int[] y;
+    private final CodePointSet[] sets;
+    private final long stepBudget;
+
+    LinearPattern(String source, byte[] ops, int[] x, int[] y, CodePointSet[] sets, long stepBudget) {
+        this.source = source;
+        this.ops = ops;
+        this.x = x;
+        this.y = y;
+        this.sets = sets;
+        this.stepBudget = stepBudget;
+    }
+
+    @Override
+    public String source() {
+        return source;
+    }
+
+    @Override
+    public PatternEngine engine() {
+        return PatternEngine.LINEAR;
+    }
+
+    @Override
+    public boolean matches(CharSequence value) {
+        return SIMULATIONS.get().run(this, value);
+    }
+
+    /**
+     * Working state of the evaluations on one thread: the current and next state lists plus a per-list
+     * visited stamp. Reused by every pattern the thread matches and grown to the largest program seen;
+     * stamps keep increasing from one evaluation to the next, so visited marks never have to be cleared
+     * until the stamp wraps around.
+     */
+    private static final class Simulation {
+        private byte[] ops;
+        private int[] x;
+        private int[] y;
+        private CodePointSet[] sets;
+        private String source;
+        private long stepBudget;
+        private CharSequence value;
+        private int length;
+        private int[] current = new int[0];
+        private int[] next = new int[0];
+        private int[] visited = new int[0];
+        private int[] stack = new int[0];
+        private int stamp;
+        private long steps;
+
+        private boolean run(LinearPattern pattern, CharSequence value) {
+            int programSize = pattern.ops.length;
+            if (visited.length < programSize) {
+                current = new int[programSize];
+                next = new int[programSize];
+                visited = new int[programSize];
+                stack = new int[programSize];
+            }
+            this.ops = pattern.ops;
+            this.x = pattern.x;
+            this.y = pattern.y;
+            this.sets = pattern.sets;
+            this.source = pattern.source;
+            this.stepBudget = pattern.stepBudget;
+            this.value = value;
+            this.length = value.length();
+            this.steps = 0;
+            try {
+                return simulate();
+            } finally {
+                // Do not keep the pattern or the value reachable from the thread
+                this.ops = null;
+                this.x = null;
+                this.y = null;
+                this.sets = null;
+                this.value = null;
+            }
+        }
+
+        private boolean simulate() {
+            nextStamp();
+            int size = follow(current, 0, 0, 0);
+            int pos = 0;
+            while (size > 0) {
+                if (pos == length) {
+                    for (int i = 0; i < size; i++) {
+                        if (ops[current[i]] == MATCH) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+                int codePoint = Character.codePointAt(value, pos);
+                int nextPos = pos + Character.charCount(codePoint);
+                nextStamp();
+                int nextSize = 0;
+                for (int i = 0; i < size; i++) {
+                    int pc = current[i];
+                    count();
+                    if (ops[pc] == SET && sets[pc].contains(codePoint)) {
+                        nextSize = follow(next, nextSize, pc + 1, nextPos);
+                    }
+                }
+                int[] swap = current;
+                current = next;
+                next = swap;
+                size = nextSize;
+                pos = nextPos;
+            }
+            return false;
+        }
+
+        private void nextStamp() {
+            if (stamp == Integer.MAX_VALUE) {
+                Arrays.fill(visited, 0);
+                stamp = 0;
+            }
+            stamp++;
+        }
+
+        /**
+         * Add the state at {@code start} and everything reachable from it without consuming input
+         */
+        private int follow(int[] list, int size, int start, int pos) {
+            int depth = 0;
+            if (visited[start] != stamp) {
+                visited[start] = stamp;
+                stack[depth++] = start;
+            }
+            while (depth > 0) {
+                int pc = stack[--depth];
+                count();
+                switch (ops[pc]) {
+                    case JMP -> depth = push(x[pc], depth);
+                    case SPLIT -> {
+                        depth = push(y[pc], depth);
+                        depth = push(x[pc], depth);
+                    }
+                    case BEGIN -> {
+                        if (pos == 0) {
+                            depth = push(pc + 1, depth);
+                        }
+                    }
+                    case END -> {
+                        if (pos == length) {
+                            depth = push(pc + 1, depth);
+                        }
+                    }
+                    case DOLLAR -> {
+                        if (atDollar(pos)) {
+                            depth = push(pc + 1, depth);
+                        }
+                    }
+                    default -> list[size++] = pc;
+                }
+            }
+            return size;
+        }
+
+        private int push(int pc, int depth) {
+            if (visited[pc] != stamp) {
+                visited[pc] = stamp;
+                stack[depth++] = pc;
+            }
+            return depth;
+        }
+
+        /**
+         * $ and \Z without MULTILINE: at the end, or before a final line terminator
+         */
+        private boolean atDollar(int pos) {
+            int remaining = length - pos;
+            if (remaining == 0) {
+                return true;
+            }
+            if (remaining == 1) {
+                return CodePointSet.LINE_TERMINATOR.contains(value.charAt(pos));
+            }
+            return remaining == 2 && value.charAt(pos) == '\r' && value.charAt(pos + 1) == '\n';
+        }
+
+        private void count() {
+            if (++steps > stepBudget) {
+                throw new PatternBudgetExceededException(source, stepBudget);
+            }
+        }
+    }
+}
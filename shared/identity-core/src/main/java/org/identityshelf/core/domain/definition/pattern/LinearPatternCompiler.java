@@ -0,0 +1,418 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses a regex that java.util.regex already accepted and compiles it into a {@link LinearPattern} program
+ * (Thompson construction). Supported: literals, escapes, '.', character classes with ranges and negation,
+ * \d \w \s and their complements, groups including non-capturing and named ones, alternation, greedy and
+ * reluctant quantifiers, and the anchors ^ $ \A \z \Z. Everything else (backreferences, lookaround,
+ * inline flags, possessive quantifiers, word boundaries, Unicode properties, nested classes, anchors
+ * inside repeated groups) is rejected
+ * with the feature named, and the pattern goes to the backtracking engine instead.
+ */
+final class LinearPatternCompiler {
+
+    /** Instructions a program may have; bounded repetitions are expanded, so {1000} of a group adds up fast */
+    static final int MAX_PROGRAM_SIZE = 10_000;
+
+    private final String regex;
+    private int pos;
+
+    private LinearPatternCompiler(String regex) {
+        this.regex = regex;
+    }
+
+    static LinearPattern compile(String regex, long stepBudget) throws UnsupportedPatternException {
+        LinearPatternCompiler parser = new LinearPatternCompiler(regex);
+        Node node = parser.parseAlternation();
+        if (parser.pos < regex.length()) {
+            throw new UnsupportedPatternException("unbalanced ')' at index " + parser.pos);
+        }
+        long size = size(node) + 1;
+        if (size > MAX_PROGRAM_SIZE) {
+            throw new UnsupportedPatternException("repetition too large for the linear engine");
+        }
+        ProgramBuilder program = new ProgramBuilder((int) size);
+        program.emit(node);
+        program.add(LinearPattern.MATCH, 0, 0, null);
+        return new LinearPattern(regex, program.ops, program.x, program.y, program.sets, stepBudget);
+    }
+
+    // Parsing
+
+    private Node parseAlternation() throws UnsupportedPatternException {
+        List<Node> branches = new ArrayList<>();
+        branches.add(parseConcatenation());
+        while (pos < regex.length() && regex.charAt(pos) == '|') {
+            pos++;
+            branches.add(parseConcatenation());
+        }
+        return branches.size() == 1 ? branches.get(0) : new Alternation(branches);
+    }
+
+    private Node parseConcatenation() throws UnsupportedPatternException {
+        List<Node> items = new ArrayList<>();
+        while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+            items.add(parseRepetition());
+        }
+        return items.size() == 1 ? items.get(0) : new Concatenation(items);
+    }
+
+    private Node parseRepetition() throws UnsupportedPatternException {
+        Node node = parseAtom();
+        while (pos < regex.length()) {
+            char c = regex.charAt(pos);
+            int min;
+            int max;
+            if (c == '*') {
+                min = 0;
+                max = -1;
+                pos++;
+            } else if (c == '+') {
+                min = 1;
+                max = -1;
+                pos++;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (c == '{') {
+                pos++;
+                min = parseNumber();
+                max = min;
+                if (regex.charAt(pos) == ',') {
+                    pos++;
+                    max = regex.charAt(pos) == '}' ? -1 : parseNumber();
+                }
+                pos++;
+            } else {
+                break;
+            }
+            // A reluctant quantifier accepts the same values as a greedy one when the whole value has to match
+            if (pos < regex.length() && regex.charAt(pos) == '?') {
+                pos++;
+            } else if (pos < regex.length() && regex.charAt(pos) == '+') {
+                throw new UnsupportedPatternException("possessive quantifier at index " + pos);
+            }
+            // java.util.regex stops repeating a group after an empty iteration, which an anchor inside the
+            // group can make observable; leave those to java.util.regex so both engines agree
+            if (containsAssertion(node)) {
+                throw new UnsupportedPatternException("anchor inside a repeated group at index " + pos);
+            }
+            node = new Repetition(node, min, max);
+        }
+        return node;
+    }
+
+    private static boolean containsAssertion(Node node) {
+        if (node instanceof Assertion) {
+            return true;
+        }
+        if (node instanceof Concatenation concatenation) {
+            return concatenation.items().stream().anyMatch(LinearPatternCompiler::containsAssertion);
+        }
+        if (node instanceof Alternation alternation) {
+            return alternation.branches().stream().anyMatch(LinearPatternCompiler::containsAssertion);
+        }
+        return node instanceof Repetition repetition && containsAssertion(repetition.node());
+    }
+
+    private int parseNumber() throws UnsupportedPatternException {
+        int start = pos;
+        while (pos < regex.length() && Character.isDigit(regex.charAt(pos))) {
+            pos++;
+        }
+        try {
+            return Integer.parseInt(regex, start, pos, 10);
+        } catch (NumberFormatException e) {
+            throw new UnsupportedPatternException("repetition bound at index " + start);
+        }
+    }
+
+    private Node parseAtom() throws UnsupportedPatternException {
+        int codePoint = regex.codePointAt(pos);
+        pos += Character.charCount(codePoint);
+        return switch (codePoint) {
+            case '(' -> parseGroup();
+            case '[' -> new Chars(parseClass());
+            case '.' -> new Chars(CodePointSet.DOT);
+            case '^' -> new Assertion(LinearPattern.BEGIN);
+            case '$' -> new Assertion(LinearPattern.DOLLAR);
+            case '\\' -> parseEscape();
+            default -> new Chars(CodePointSet.range(codePoint, codePoint));
+        };
+    }
+
+    private Node parseGroup() throws UnsupportedPatternException {
+        if (regex.startsWith("?:", pos)) {
+            pos += 2;
+        } else if (regex.startsWith("?<", pos) && pos + 2 < regex.length() && Character.isLetter(regex.charAt(pos + 2))) {
+            pos = regex.indexOf('>', pos) + 1;
+        } else if (pos < regex.length() && regex.charAt(pos) == '?') {
+            throw new UnsupportedPatternException("lookaround, inline flag or atomic group at index " + (pos - 1));
+        }
+        Node node = parseAlternation();
+        if (pos >= regex.length() || regex.charAt(pos) != ')') {
+            throw new UnsupportedPatternException("unclosed group");
+        }
+        pos++;
+        return node;
+    }
+
+    private Node parseEscape() throws UnsupportedPatternException {
+        char c = regex.charAt(pos);
+        switch (c) {
+            case 'A':
+                pos++;
+                return new Assertion(LinearPattern.BEGIN);
+            case 'z':
+                pos++;
+                return new Assertion(LinearPattern.END);
+            case 'Z':
+                pos++;
+                return new Assertion(LinearPattern.DOLLAR);
+            default:
+                return new Chars(parseEscapedSet());
+        }
+    }
+
+    /**
+     * The code points an escape sequence stands for; {@code pos} is just after the backslash
+     */
+    private CodePointSet parseEscapedSet() throws UnsupportedPatternException {
+        int codePoint = regex.codePointAt(pos);
+        int escapeIndex = pos - 1;
+        pos += Character.charCount(codePoint);
+        return switch (codePoint) {
+            case 'd' -> CodePointSet.DIGIT;
+            case 'D' -> CodePointSet.DIGIT.complement();
+            case 'w' -> CodePointSet.WORD;
+            case 'W' -> CodePointSet.WORD.complement();
+            case 's' -> CodePointSet.SPACE;
+            case 'S' -> CodePointSet.SPACE.complement();
+            case 't' -> single('\t');
+            case 'n' -> single('\n');
+            case 'r' -> single('\r');
+            case 'f' -> single('\f');
+            case 'a' -> single('\u0007');
+            case 'e' -> single('\u001B');
+            case 'x' -> single(parseHex());
+            case 'u' -> single(parseHex(4));
+            case '0' -> single(parseOctal());
+            default -> {
+                if (Character.isLetterOrDigit(codePoint)) {
+                    throw new UnsupportedPatternException("escape \\" + Character.toString(codePoint) + " at index " + escapeIndex);
+                }
+                yield single(codePoint);
+            }
+        };
+    }
+
+    private int parseHex() throws UnsupportedPatternException {
+        if (regex.charAt(pos) != '{') {
+            return parseHex(2);
+        }
+        int end = regex.indexOf('}', pos);
+        int value = Integer.parseInt(regex, pos + 1, end, 16);
+        pos = end + 1;
+        return value;
+    }
+
+    private int parseHex(int digits) {
+        int value = Integer.parseInt(regex, pos, pos + digits, 16);
+        pos += digits;
+        return value;
+    }
+
+    private int parseOctal() {
+        int value = 0;
+        int digits = 0;
+        while (digits < 3 && pos < regex.length()) {
+            int digit = Character.digit(regex.charAt(pos), 8);
+            if (digit < 0 || value * 8 + digit > 0377) {
+                break;
+            }
+            value = value * 8 + digit;
+            pos++;
+            digits++;
+        }
+        return value;
+    }
+
+    private CodePointSet parseClass() throws UnsupportedPatternException {
+        int start = pos - 1;
+        boolean negated = pos < regex.length() && regex.charAt(pos) == '^';
+        if (negated) {
+            pos++;
+        }
+        if (pos < regex.length() && regex.charAt(pos) == ']') {
+            throw new UnsupportedPatternException("']' as first class member at index " + start);
+        }
+        CodePointSet.Builder members = CodePointSet.builder();
+        while (true) {
+            if (pos >= regex.length()) {
+                throw new UnsupportedPatternException("unclosed character class at index " + start);
+            }
+            char c = regex.charAt(pos);
+            if (c == ']') {
+                pos++;
+                break;
+            }
+            if (c == '[') {
+                throw new UnsupportedPatternException("nested character class at index " + pos);
+            }
+            if (regex.startsWith("&&", pos)) {
+                throw new UnsupportedPatternException("character class intersection at index " + pos);
+            }
+            int from = parseClassMember(members);
+            if (from < 0) {
+                continue;
+            }
+            if (regex.charAt(pos) == '-' && pos + 1 < regex.length() && regex.charAt(pos + 1) != ']') {
+                pos++;
+                int to = parseClassMember(null);
+                members.add(from, to);
+            } else {
+                members.add(from, from);
+            }
+        }
+        CodePointSet set = members.build();
+        return negated ? set.complement() : set;
+    }
+
+    /**
+     * One class member: returns its code point, or adds a predefined class like \d to {@code members} and returns -1
+     */
+    private int parseClassMember(CodePointSet.Builder members) throws UnsupportedPatternException {
+        int codePoint = regex.codePointAt(pos);
+        if (codePoint == '[') {
+            throw new UnsupportedPatternException("nested character class at index " + pos);
+        }
+        pos += Character.charCount(codePoint);
+        if (codePoint != '\\') {
+            return codePoint;
+        }
+        CodePointSet escaped = parseEscapedSet();
+        int single = escaped.singleCodePoint();
+        if (single >= 0) {
+            return single;
+        }
+        if (members == null) {
+            throw new UnsupportedPatternException("predefined class as range bound at index " + pos);
+        }
+        members.addAll(escaped);
+        return -1;
+    }
+
+    private static CodePointSet single(int codePoint) {
+        return CodePointSet.range(codePoint, codePoint);
+    }
+
+    // Program construction
+
+    private static long size(Node node) {
+        if (node instanceof Chars || node instanceof Assertion) {
+            return 1;
+        }
+        if (node instanceof Concatenation concatenation) {
+            long total = 0;
+            for (Node item : concatenation.items()) {
+                total = Math.min(total + size(item), Integer.MAX_VALUE);
+            }
+            return total;
+        }
+        if (node instanceof Alternation alternation) {
+            long total = 2L * (alternation.branches().size() - 1);
+            for (Node branch : alternation.branches()) {
+                total = Math.min(total + size(branch), Integer.MAX_VALUE);
+            }
+            return total;
+        }
+        Repetition repetition = (Repetition) node;
+        long inner = size(repetition.node());
+        long optional = repetition.max() < 0 ? inner + 2 : (long) (repetition.max() - repetition.min()) * (inner + 1);
+        return Math.min((long) repetition.min() * inner + optional, Integer.MAX_VALUE);
+    }
+
+    private static final class ProgramBuilder {
+        private final byte[] ops;
+        private final int[] x;
+        private final int[] y;
+        private final CodePointSet[] sets;
+        private int size;
+
+        private ProgramBuilder(int capacity) {
+            ops = new byte[capacity];
+            x = new int[capacity];
+            y = new int[capacity];
+            sets = new CodePointSet[capacity];
+        }
+
+        private int add(byte op, int first, int second, CodePointSet set) {
+            ops[size] = op;
+            x[size] = first;
+            y[size] = second;
+            sets[size] = set;
+            return size++;
+        }
+
+        private void emit(Node node) {
+            if (node instanceof Chars chars) {
+                add(LinearPattern.SET, 0, 0, chars.set());
+            } else if (node instanceof Assertion assertion) {
+                add(assertion.op(), 0, 0, null);
+            } else if (node instanceof Concatenation concatenation) {
+                concatenation.items().forEach(this::emit);
+            } else if (node instanceof Alternation alternation) {
+                List<Integer> exits = new ArrayList<>();
+                List<Node> branches = alternation.branches();
+                for (int i = 0; i < branches.size() - 1; i++) {
+                    int split = add(LinearPattern.SPLIT, size + 1, 0, null);
+                    emit(branches.get(i));
+                    exits.add(add(LinearPattern.JMP, 0, 0, null));
+                    y[split] = size;
+                }
+                emit(branches.get(branches.size() - 1));
+                exits.forEach(exit -> x[exit] = size);
+            } else {
+                Repetition repetition = (Repetition) node;
+                for (int i = 0; i < repetition.min(); i++) {
+                    emit(repetition.node());
+                }
+                if (repetition.max() < 0) {
+                    int loop = add(LinearPattern.SPLIT, size + 1, 0, null);
+                    emit(repetition.node());
+                    add(LinearPattern.JMP, loop, 0, null);
+                    y[loop] = size;
+                } else {
+                    List<Integer> exits = new ArrayList<>();
+                    for (int i = repetition.min(); i < repetition.max(); i++) {
+                        exits.add(add(LinearPattern.SPLIT, size + 1, 0, null));
+                        emit(repetition.node());
+                    }
+                    exits.forEach(exit -> y[exit] = size);
+                }
+            }
+        }
+    }
+
+    private sealed interface Node permits Chars, Assertion, Concatenation, Alternation, Repetition {
+    }
+
+    private record Chars(CodePointSet set) implements Node {
+    }
+
+    private record Assertion(byte op) implements Node {
+    }
+
+    private record Concatenation(List<Node> items) implements Node {
+    }
+
+    private record Alternation(List<Node> branches) implements Node {
+    }
+
+    private record Repetition(Node node, int min, int max) implements Node {
+    }
+}
@@ -0,0 +1,8 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+/**
+ * What {@link ValidationPatterns} makes of a regex: whether it compiles and which engine runs it.
+ * {@code reason} names the syntax error, or the feature that keeps the pattern off the linear engine.
+ */
+public record PatternAnalysis(String regex, boolean valid, PatternEngine engine, String reason) {
+}
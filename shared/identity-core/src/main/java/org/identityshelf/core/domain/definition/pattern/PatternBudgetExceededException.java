@@ -0,0 +1,11 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+/**
+ * A pattern evaluation was cut off at its step budget; the value is treated as invalid
+ */
+public class PatternBudgetExceededException extends RuntimeException {
+
+    public PatternBudgetExceededException(String pattern, long budget) {
+        super("Validation pattern exceeded its budget of " + budget + " steps: " + pattern);
+    }
+}
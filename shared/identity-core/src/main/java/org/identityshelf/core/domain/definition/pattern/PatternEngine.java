@@ -0,0 +1,11 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+/**
+ * How a validation pattern is evaluated
+ */
+public enum PatternEngine {
+    /** NFA simulation: time linear in the value length, whatever the pattern */
+    LINEAR,
+    /** java.util.regex, for patterns that use features the linear engine lacks; bounded only by the step budget */
+    BACKTRACKING
+}
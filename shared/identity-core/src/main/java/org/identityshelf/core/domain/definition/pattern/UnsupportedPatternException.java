@@ -0,0 +1,11 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+/**
+ * The pattern uses a feature the linear engine does not implement
+ */
+class UnsupportedPatternException extends Exception {
+
+    UnsupportedPatternException(String reason) {
+        super(reason, null, false, false);
+    }
+}
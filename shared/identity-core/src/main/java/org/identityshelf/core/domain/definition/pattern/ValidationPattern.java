@@ -0,0 +1,17 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+/**
+ * A compiled validation regex, matched against whole values. Thread-safe.
+ */
+public interface ValidationPattern {
+
+    String source();
+
+    PatternEngine engine();
+
+    /**
+     * Whether the whole value matches
+     * @throws PatternBudgetExceededException if the evaluation needs more steps than the budget allows
+     */
+    boolean matches(CharSequence value);
+}
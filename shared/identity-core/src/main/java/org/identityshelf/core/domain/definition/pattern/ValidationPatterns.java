@@ -0,0 +1,54 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles admin-defined validation regexes. Syntax is always checked by java.util.regex, so a pattern is
+ * valid or invalid regardless of the engine. Valid patterns run on the linear engine when they only use
+ * the features it implements and on java.util.regex otherwise; both stop at a per-evaluation step budget.
+ */
+public final class ValidationPatterns {
+
+    /** Steps one evaluation may take: ample for any sane pattern on a field-sized value, milliseconds at most */
+    public static final long DEFAULT_STEP_BUDGET = 1_000_000;
+
+    private ValidationPatterns() {
+    }
+
+    /**
+     * @throws PatternSyntaxException if the regex is not valid
+     */
+    public static ValidationPattern compile(String regex) {
+        return compile(regex, DEFAULT_STEP_BUDGET);
+    }
+
+    /**
+     * @throws PatternSyntaxException if the regex is not valid
+     */
+    public static ValidationPattern compile(String regex, long stepBudget) {
+        Pattern pattern = Pattern.compile(regex);
+        try {
+            return LinearPatternCompiler.compile(regex, stepBudget);
+        } catch (UnsupportedPatternException e) {
+            return new BacktrackingPattern(pattern, stepBudget);
+        }
+    }
+
+    /**
+     * Whether the regex compiles and which engine would run it, for reporting when an admin saves a pattern
+     */
+    public static PatternAnalysis analyze(String regex) {
+        try {
+            Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            return new PatternAnalysis(regex, false, null, e.getDescription() + " at index " + e.getIndex());
+        }
+        try {
+            LinearPatternCompiler.compile(regex, DEFAULT_STEP_BUDGET);
+            return new PatternAnalysis(regex, true, PatternEngine.LINEAR, null);
+        } catch (UnsupportedPatternException e) {
+            return new PatternAnalysis(regex, true, PatternEngine.BACKTRACKING, e.getMessage());
+        }
+    }
+}
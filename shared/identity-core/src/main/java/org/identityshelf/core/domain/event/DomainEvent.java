@@ -1,6 +1,7 @@
 package org.identityshelf.core.domain.event;
 
 import java.time.OffsetDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -10,4 +11,16 @@ public interface DomainEvent {
     UUID getEventId();
     OffsetDateTime getOccurredOn();
     String getEventType();
+    
+    /**
+     * Kind of aggregate that raised the event, e.g. "Identity"
+     */
+    String getAggregateType();
+    
+    UUID getAggregateId();
+    
+    /**
+     * Event data as flat name/value pairs; this is what the outbox publishes
+     */
+    Map<String, String> getPayload();
 }
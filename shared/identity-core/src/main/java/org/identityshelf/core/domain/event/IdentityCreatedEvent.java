@@ -3,8 +3,11 @@ package org.identityshelf.core.domain.event;
 import org.identityshelf.core.domain.valueobject.IdentityId;
 import org.identityshelf.core.domain.valueobject.DisplayName;
 import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.core.domain.valueobject.UuidV7;
 
 import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -21,7 +24,7 @@ public record IdentityCreatedEvent(
     
     public IdentityCreatedEvent(IdentityId identityId, DisplayName displayName, 
                               IdentityStatus status, String identityTypeName) {
-        this(UUID.randomUUID(), OffsetDateTime.now(), identityId, displayName, status, identityTypeName);
+        this(UuidV7.generate(), OffsetDateTime.now(), identityId, displayName, status, identityTypeName);
     }
     
     @Override
@@ -38,4 +41,24 @@ public record IdentityCreatedEvent(
     public String getEventType() {
         return "IdentityCreated";
     }
+    
+    @Override
+    public String getAggregateType() {
+        return "Identity";
+    }
+    
+    @Override
+    public UUID getAggregateId() {
+        return identityId.getValue();
+    }
+    
+    @Override
+    public Map<String, String> getPayload() {
+        Map<String, String> payload = new LinkedHashMap<>();
+        payload.put("identityId", identityId.getValue().toString());
+        payload.put("displayName", displayName.getValue());
+        payload.put("status", status.name());
+        payload.put("identityTypeName", identityTypeName);
+        return payload;
+    }
 }
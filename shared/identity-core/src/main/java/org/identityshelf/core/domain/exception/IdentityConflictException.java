@@ -0,0 +1,21 @@
+package org.identityshelf.core.domain.exception;
+
+import org.identityshelf.core.domain.valueobject.IdentityId;
+
+/**
+ * Exception thrown when a change to an identity conflicts with its current state:
+ * it was modified since the caller read it, or its status does not allow the change
+ */
+public class IdentityConflictException extends DomainException {
+    
+    private final IdentityId identityId;
+    
+    public IdentityConflictException(IdentityId identityId, String message) {
+        super(message);
+        this.identityId = identityId;
+    }
+    
+    public IdentityId getIdentityId() {
+        return identityId;
+    }
+}
@@ -0,0 +1,91 @@
+package org.identityshelf.core.domain.service;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.identityshelf.core.domain.definition.ValidationPlan;
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.core.repository.IdentityRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Identity domain rules backed by the in-memory definition snapshot.
+ * Attribute validation runs the type's precompiled {@link ValidationPlan} and never touches the database.
+ */
+public class DefinitionIdentityDomainService implements IdentityDomainService {
+
+    private static final int MAX_DISPLAY_NAME_SUFFIX = 1000;
+
+    private final IdentityRepository identityRepository;
+    private final DefinitionSnapshotService definitionSnapshots;
+
+    public DefinitionIdentityDomainService(IdentityRepository identityRepository,
+                                           DefinitionSnapshotService definitionSnapshots) {
+        this.identityRepository = identityRepository;
+        this.definitionSnapshots = definitionSnapshots;
+    }
+
+    @Override
+    public boolean canCreateIdentity(String identityTypeName, Map<String, AttributeValue> attributes) {
+        return validateAttributeValues(identityTypeName, attributes);
+    }
+
+    @Override
+    public boolean canUpdateIdentity(IdentityId identityId, Map<String, AttributeValue> attributes) {
+        return identityRepository.findById(identityId)
+                .map(identity -> validateAttributeValues(identity.getIdentityTypeName(), merge(identity, attributes)))
+                .orElse(false);
+    }
+
+    @Override
+    public DisplayName generateUniqueDisplayName(DisplayName requestedName, String identityTypeName) {
+        if (!displayNameExists(requestedName, identityTypeName)) {
+            return requestedName;
+        }
+        for (int suffix = 2; suffix <= MAX_DISPLAY_NAME_SUFFIX; suffix++) {
+            DisplayName candidate = DisplayName.of(requestedName.getValue() + " " + suffix);
+            if (!displayNameExists(candidate, identityTypeName)) {
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No unique display name found for: " + requestedName.getValue());
+    }
+
+    @Override
+    public boolean validateAttributeValues(String identityTypeName, Map<String, AttributeValue> attributes) {
+        ValidationPlan plan = definitionSnapshots.findValidationPlan(identityTypeName);
+        return plan != null && plan.isValid(attributes);
+    }
+
+    @Override
+    public List<String> findValidationErrors(String identityTypeName, Map<String, AttributeValue> attributes) {
+        ValidationPlan plan = definitionSnapshots.findValidationPlan(identityTypeName);
+        if (plan == null) {
+            return List.of("Unknown identity type: " + identityTypeName);
+        }
+        return plan.validate(attributes);
+    }
+
+    @Override
+    public boolean displayNameExists(DisplayName displayName, String identityTypeName) {
+        return identityRepository.existsByDisplayNameAndType(displayName, identityTypeName);
+    }
+
+    @Override
+    public boolean displayNameExists(DisplayName displayName, String identityTypeName, IdentityId excludeIdentityId) {
+        return identityRepository.existsByDisplayNameAndType(displayName, identityTypeName, excludeIdentityId);
+    }
+
+    /**
+     * The attribute values an update leaves the identity with: changed values override the stored ones
+     */
+    private static Map<String, AttributeValue> merge(Identity identity, Map<String, AttributeValue> changedAttributes) {
+        Map<String, AttributeValue> merged = new LinkedHashMap<>(identity.getAttributes());
+        merged.putAll(changedAttributes);
+        return merged;
+    }
+}
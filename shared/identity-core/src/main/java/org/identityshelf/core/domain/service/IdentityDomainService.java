@@ -5,6 +5,7 @@ import org.identityshelf.core.domain.valueobject.IdentityId;
 import org.identityshelf.core.domain.valueobject.DisplayName;
 import org.identityshelf.core.domain.valueobject.AttributeValue;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -33,6 +34,11 @@ public interface IdentityDomainService {
      */
     boolean validateAttributeValues(String identityTypeName, Map<String, AttributeValue> attributes);
     
+    /**
+     * Every reason the attribute values are invalid for the identity type; empty if they are valid
+     */
+    List<String> findValidationErrors(String identityTypeName, Map<String, AttributeValue> attributes);
+    
     /**
      * Checks if an identity with the given display name already exists
      */
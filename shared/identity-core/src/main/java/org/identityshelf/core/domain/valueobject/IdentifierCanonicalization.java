@@ -0,0 +1,99 @@
+package org.identityshelf.core.domain.valueobject;
+
+import org.identityshelf.core.domain.AttributeDataType;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form an identifier value is compared in, configured per identifier type.
+ * Two spellings of the same identifier canonicalize to the same value.
+ */
+public enum IdentifierCanonicalization {
+    /** Surrounding whitespace removed, otherwise as entered */
+    NONE,
+    /** Lower-cased, e.g. email addresses and user names */
+    CASE_FOLD,
+    /** Spaces, dashes, dots and slashes removed and upper-cased, e.g. SSN 123-45-6789 -> 123456789 */
+    STRIP_SEPARATORS,
+    /**
+     * E.164 phone number: + followed by country code and subscriber number, up to 15 digits.
+     * Values that are not phone numbers keep their trimmed form, see {@link #hasCanonicalForm}.
+     */
+    E164;
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s\\-./]");
+    private static final Pattern PHONE_PUNCTUATION = Pattern.compile("[\\s\\-.()/]");
+    private static final Pattern E164_DIGITS = Pattern.compile("[1-9]\\d{1,14}");
+
+    /**
+     * Canonicalize a raw identifier value. Must give the same result as the SQL function
+     * canonicalize_identifier_value (V23), which backfilled the stored values.
+     * @throws IllegalArgumentException if the value is null
+     */
+    public String canonicalize(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Identifier value cannot be null");
+        }
+        String trimmed = value.trim();
+        return switch (this) {
+            case NONE -> trimmed;
+            case CASE_FOLD -> trimmed.toLowerCase(Locale.ROOT);
+            case STRIP_SEPARATORS -> SEPARATORS.matcher(trimmed).replaceAll("").toUpperCase(Locale.ROOT);
+            case E164 -> {
+                String digits = e164Digits(trimmed);
+                yield digits != null ? "+" + digits : trimmed;
+            }
+        };
+    }
+
+    /**
+     * Check that the value can be brought into this form; only E.164 rejects values, those that are not
+     * phone numbers with a country code. New identifiers should be refused when this fails.
+     */
+    public boolean hasCanonicalForm(String value) {
+        return value != null && (this != E164 || e164Digits(value.trim()) != null);
+    }
+
+    /**
+     * Country code and subscriber number of a phone number given with + or 00, or null if it is none
+     */
+    private static String e164Digits(String value) {
+        String compact = PHONE_PUNCTUATION.matcher(value).replaceAll("");
+        String digits;
+        if (compact.startsWith("+")) {
+            digits = compact.substring(1);
+        } else if (compact.startsWith("00")) {
+            digits = compact.substring(2);
+        } else {
+            return null;
+        }
+        return E164_DIGITS.matcher(digits).matches() ? digits : null;
+    }
+
+    /**
+     * Sensible default for a new identifier type of the given data type
+     */
+    public static IdentifierCanonicalization defaultFor(AttributeDataType dataType) {
+        if (dataType == null) {
+            return NONE;
+        }
+        return switch (dataType) {
+            case EMAIL -> CASE_FOLD;
+            case PHONE -> E164;
+            default -> NONE;
+        };
+    }
+
+    public static IdentifierCanonicalization fromString(String value) {
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        for (IdentifierCanonicalization canonicalization : values()) {
+            if (canonicalization.name().equalsIgnoreCase(value.trim())) {
+                return canonicalization;
+            }
+        }
+        throw new IllegalArgumentException("Invalid identifier canonicalization: " + value);
+    }
+}
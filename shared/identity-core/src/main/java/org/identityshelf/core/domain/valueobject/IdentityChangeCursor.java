@@ -0,0 +1,107 @@
+package org.identityshelf.core.domain.valueobject;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Value Object representing a position in the identity change feed
+ * Holds the change sequence and UUID of the last change returned, and round-trips
+ * through an opaque, URL-safe continuation token
+ */
+public final class IdentityChangeCursor {
+    private static final String TOKEN_VERSION = "1";
+    private static final char SEPARATOR = '|';
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    
+    private final long changeSequence;
+    private final UUID uuid;
+    
+    private IdentityChangeCursor(long changeSequence, UUID uuid) {
+        if (changeSequence < 0) {
+            throw new IllegalArgumentException("Cursor change sequence cannot be negative");
+        }
+        if (uuid == null) {
+            throw new IllegalArgumentException("Cursor UUID cannot be null");
+        }
+        this.changeSequence = changeSequence;
+        this.uuid = uuid;
+    }
+    
+    /**
+     * The position before the first change, for a full initial sync
+     */
+    public static IdentityChangeCursor start() {
+        return new IdentityChangeCursor(0L, MIN_UUID);
+    }
+    
+    /**
+     * Create the cursor positioned after the given change
+     */
+    public static IdentityChangeCursor after(long changeSequence, UUID uuid) {
+        return new IdentityChangeCursor(changeSequence, uuid);
+    }
+    
+    /**
+     * Decode an opaque continuation token
+     */
+    public static IdentityChangeCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Cursor cannot be null or empty");
+        }
+        
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        
+        // Format: version|changeSequence|uuid
+        String[] parts = raw.split("\\|", 3);
+        if (parts.length != 3 || !TOKEN_VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        
+        try {
+            return new IdentityChangeCursor(Long.parseLong(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+    
+    /**
+     * Encode this position as an opaque continuation token
+     */
+    public String encode() {
+        String raw = TOKEN_VERSION + SEPARATOR + changeSequence + SEPARATOR + uuid;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public long getChangeSequence() {
+        return changeSequence;
+    }
+    
+    public UUID getUuid() {
+        return uuid;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdentityChangeCursor that = (IdentityChangeCursor) o;
+        return changeSequence == that.changeSequence && Objects.equals(uuid, that.uuid);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(changeSequence, uuid);
+    }
+    
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,128 @@
+package org.identityshelf.core.domain.valueobject;
+
+import org.identityshelf.core.domain.Identity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Value Object representing a keyset paging position
+ * Holds the sort key and UUID of the last identity returned, and round-trips
+ * through an opaque, URL-safe continuation token
+ */
+public final class IdentityCursor {
+    private static final String TOKEN_VERSION = "1";
+    private static final char SEPARATOR = '|';
+    
+    private final IdentitySortOrder sortOrder;
+    private final String sortKey;
+    private final UUID uuid;
+    
+    private IdentityCursor(IdentitySortOrder sortOrder, String sortKey, UUID uuid) {
+        if (sortOrder == null) {
+            throw new IllegalArgumentException("Cursor sort order cannot be null");
+        }
+        if (sortKey == null) {
+            throw new IllegalArgumentException("Cursor sort key cannot be null");
+        }
+        if (uuid == null) {
+            throw new IllegalArgumentException("Cursor UUID cannot be null");
+        }
+        this.sortOrder = sortOrder;
+        this.sortKey = sortKey;
+        this.uuid = uuid;
+    }
+    
+    /**
+     * Create the cursor positioned after the given identity
+     */
+    public static IdentityCursor after(IdentitySortOrder sortOrder, Identity identity) {
+        String sortKey = switch (sortOrder) {
+            case CREATED_AT -> identity.getCreatedAt().toString();
+            case DISPLAY_NAME -> identity.getDisplayName().getValue();
+        };
+        return new IdentityCursor(sortOrder, sortKey, identity.getUuid());
+    }
+    
+    /**
+     * Decode an opaque continuation token
+     */
+    public static IdentityCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Cursor cannot be null or empty");
+        }
+        
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        
+        // Format: version|sortOrder|uuid|sortKey (sortKey last, it may contain the separator)
+        String[] parts = raw.split("\\|", 4);
+        if (parts.length != 4 || !TOKEN_VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        
+        try {
+            IdentitySortOrder sortOrder = IdentitySortOrder.valueOf(parts[1]);
+            UUID uuid = UUID.fromString(parts[2]);
+            IdentityCursor cursor = new IdentityCursor(sortOrder, parts[3], uuid);
+            if (sortOrder == IdentitySortOrder.CREATED_AT) {
+                cursor.getCreatedAtKey(); // Validate timestamp eagerly
+            }
+            return cursor;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+    
+    /**
+     * Encode this position as an opaque continuation token
+     */
+    public String encode() {
+        String raw = TOKEN_VERSION + SEPARATOR + sortOrder.name() + SEPARATOR + uuid + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public IdentitySortOrder getSortOrder() {
+        return sortOrder;
+    }
+    
+    public String getSortKey() {
+        return sortKey;
+    }
+    
+    public OffsetDateTime getCreatedAtKey() {
+        return OffsetDateTime.parse(sortKey);
+    }
+    
+    public UUID getUuid() {
+        return uuid;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IdentityCursor that = (IdentityCursor) o;
+        return sortOrder == that.sortOrder &&
+               Objects.equals(sortKey, that.sortKey) &&
+               Objects.equals(uuid, that.uuid);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortOrder, sortKey, uuid);
+    }
+    
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
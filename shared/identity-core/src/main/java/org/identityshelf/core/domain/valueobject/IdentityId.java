@@ -21,7 +21,7 @@ public final class IdentityId {
     }
     
     public static IdentityId generate() {
-        return new IdentityId(UUID.randomUUID());
+        return new IdentityId(UuidV7.generate());
     }
     
     public UUID getValue() {
@@ -0,0 +1,33 @@
+package org.identityshelf.core.domain.valueobject;
+
+/**
+ * Value Object representing the stable orderings supported for keyset paging
+ * Every ordering is tie-broken on the identity UUID so positions are unique
+ */
+public enum IdentitySortOrder {
+    CREATED_AT("createdAt"),
+    DISPLAY_NAME("displayName");
+    
+    private final String parameterName;
+    
+    IdentitySortOrder(String parameterName) {
+        this.parameterName = parameterName;
+    }
+    
+    public String getParameterName() {
+        return parameterName;
+    }
+    
+    public static IdentitySortOrder fromString(String sortOrder) {
+        if (sortOrder == null || sortOrder.isBlank()) {
+            return CREATED_AT; // Default ordering
+        }
+        
+        for (IdentitySortOrder s : values()) {
+            if (s.parameterName.equalsIgnoreCase(sortOrder) || s.name().equalsIgnoreCase(sortOrder)) {
+                return s;
+            }
+        }
+        throw new IllegalArgumentException("Invalid identity sort order: " + sortOrder);
+    }
+}
@@ -9,7 +9,9 @@ public enum IdentityStatus {
     ACTIVE("Active"),
     INACTIVE("Inactive"),
     SUSPENDED("Suspended"),
-    PENDING("Pending");
+    PENDING("Pending"),
+    // Tombstone: hidden from all reads until the purge job removes the row
+    DELETED("Deleted");
     
     private final String displayName;
     
@@ -29,6 +31,14 @@ public enum IdentityStatus {
         return this == ACTIVE || this == PENDING;
     }
     
+    /**
+     * Whether an identity can be moved to this status by a status change; pending identities and tombstones
+     * are only made by creation and delete
+     */
+    public boolean isChangeTarget() {
+        return this == ACTIVE || this == INACTIVE || this == SUSPENDED;
+    }
+    
     public static IdentityStatus fromString(String status) {
         if (status == null) {
             return ACTIVE; // Default status
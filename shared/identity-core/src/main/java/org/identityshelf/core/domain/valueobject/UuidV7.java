@@ -0,0 +1,44 @@
+package org.identityshelf.core.domain.valueobject;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generator for time-ordered version 7 UUIDs (RFC 9562)
+ *
+ * Layout: 48-bit Unix epoch milliseconds, version nibble, 12-bit sequence counter,
+ * variant bits and 62 random bits. The timestamp and counter are advanced together
+ * through a single atomic, so values are strictly increasing across all threads in
+ * this JVM. When more than 4096 UUIDs are requested within one millisecond the
+ * counter carries into the timestamp, which runs ahead of the clock until real time
+ * catches up. New keys therefore land at the right-hand edge of B-tree indexes
+ * instead of being scattered across them like random version 4 UUIDs.
+ */
+public final class UuidV7 {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    // Each new millisecond starts the counter in the lower half, leaving headroom for bursts
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    
+    // (epoch millis << COUNTER_BITS) | counter of the most recently issued UUID
+    private static final AtomicLong LAST_TIMESTAMP_AND_COUNTER = new AtomicLong();
+    
+    private static final ThreadLocal<SecureRandom> RANDOM = ThreadLocal.withInitial(SecureRandom::new);
+    
+    private UuidV7() {}
+    
+    public static UUID generate() {
+        SecureRandom random = RANDOM.get();
+        long candidate = (System.currentTimeMillis() << COUNTER_BITS) | random.nextInt(COUNTER_SEED_BOUND);
+        long timestampAndCounter = LAST_TIMESTAMP_AND_COUNTER.accumulateAndGet(
+            candidate, (last, next) -> (next >>> COUNTER_BITS) > (last >>> COUNTER_BITS) ? next : last + 1);
+        
+        long millis = timestampAndCounter >>> COUNTER_BITS;
+        long counter = timestampAndCounter & COUNTER_MASK;
+        
+        long mostSigBits = (millis << 16) | (0x7L << 12) | counter;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,45 @@
+package org.identityshelf.core.repository;
+
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+
+import java.util.Optional;
+
+/**
+ * Partial change to an identity, applied without loading it first
+ * Absent fields are left as they are; at least one field must be present
+ */
+public record IdentityPatch(
+    DisplayName displayName,
+    IdentityStatus status
+) {
+    
+    public IdentityPatch {
+        if (displayName == null && status == null) {
+            throw new IllegalArgumentException("Patch must change the display name or the status");
+        }
+        if (status == IdentityStatus.DELETED) {
+            throw new IllegalArgumentException("Identities are deleted through delete, not by a status change");
+        }
+        // Same targets as Identity.changeStatus, so PATCH cannot do what a full update would refuse
+        if (status != null && !status.isChangeTarget()) {
+            throw new IllegalArgumentException("Cannot change identity status to: " + status);
+        }
+    }
+    
+    public static IdentityPatch displayName(DisplayName displayName) {
+        return new IdentityPatch(displayName, null);
+    }
+    
+    public static IdentityPatch status(IdentityStatus status) {
+        return new IdentityPatch(null, status);
+    }
+    
+    public Optional<DisplayName> newDisplayName() {
+        return Optional.ofNullable(displayName);
+    }
+    
+    public Optional<IdentityStatus> newStatus() {
+        return Optional.ofNullable(status);
+    }
+}
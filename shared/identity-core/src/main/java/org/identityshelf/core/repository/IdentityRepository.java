@@ -3,9 +3,13 @@ package org.identityshelf.core.repository;
 import org.identityshelf.core.domain.Identity;
 import org.identityshelf.core.domain.valueobject.IdentityId;
 import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityCursor;
+import org.identityshelf.core.domain.valueobject.IdentitySortOrder;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Identity aggregate
@@ -15,9 +19,30 @@ public interface IdentityRepository {
     
     /**
      * Save an identity aggregate
+     * Its pending domain events are stored in the same transaction and then cleared from the aggregate
      */
     Identity save(Identity identity);
     
+    /**
+     * Save a batch of identity aggregates
+     * New aggregates are inserted without a preceding lookup and writes are sent in JDBC batches;
+     * domain events are handled as in {@link #save(Identity)}
+     * @return the aggregates as stored, in input order: none of them new and each at its written version
+     */
+    List<Identity> saveAll(Collection<Identity> identities);
+    
+    /**
+     * Apply a patch in a single conditional write, without loading the identity first
+     * The status rules of the domain are checked by the write itself: the display name can only change
+     * while the status allows modification, and a status change must move to a different status.
+     * @param expectedVersion version the caller read, or null to skip the optimistic check
+     * @return the identity as written, without attribute values
+     * @throws org.identityshelf.core.domain.exception.IdentityNotFoundException if no identity has the id
+     * @throws org.identityshelf.core.domain.exception.IdentityConflictException if the version moved on,
+     *         the status rules reject the change or the display name is taken
+     */
+    Identity patch(IdentityId id, Long expectedVersion, IdentityPatch patch);
+    
     /**
      * Find identity by ID
      */
@@ -48,18 +73,41 @@ public interface IdentityRepository {
      */
     List<Identity> findByStatus(String status);
     
+    /**
+     * Stream all identities by type without materializing the full result
+     * Must be consumed within a transaction and closed by the caller
+     */
+    Stream<Identity> streamByType(String identityTypeName);
+    
+    /**
+     * Stream all identities by status without materializing the full result
+     * Must be consumed within a transaction and closed by the caller
+     */
+    Stream<Identity> streamByStatus(String status);
+    
+    /**
+     * Find the next keyset page of identities in the given order
+     * Starts from the beginning when no cursor is given; cost is independent of page depth
+     */
+    IdentitySlice findSlice(IdentitySortOrder sortOrder, IdentityCursor after, int limit);
+    
     /**
      * Delete identity by ID
+     * Marks the identity DELETED and deactivates its identifiers in one statement; from then on it is
+     * excluded from all reads. The rows themselves are removed later by the purge job.
+     * @throws org.identityshelf.core.domain.exception.IdentityNotFoundException if no live identity has the id
      */
     void deleteById(IdentityId id);
     
     /**
      * Count identities by type
+     * Served from maintained counters; does not scan the identities table
      */
     long countByType(String identityTypeName);
     
     /**
      * Count identities by status
+     * Served from maintained counters; does not scan the identities table
      */
     long countByStatus(String status);
 }
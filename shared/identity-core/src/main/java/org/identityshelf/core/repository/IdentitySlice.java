@@ -0,0 +1,32 @@
+package org.identityshelf.core.repository;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.valueobject.IdentityCursor;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One keyset page of identities
+ * The next cursor is absent when the last page has been reached
+ */
+public record IdentitySlice(
+    List<Identity> identities,
+    IdentityCursor nextCursor
+) {
+    
+    public IdentitySlice {
+        if (identities == null) {
+            throw new IllegalArgumentException("Identities cannot be null");
+        }
+        identities = List.copyOf(identities);
+    }
+    
+    public Optional<IdentityCursor> next() {
+        return Optional.ofNullable(nextCursor);
+    }
+    
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
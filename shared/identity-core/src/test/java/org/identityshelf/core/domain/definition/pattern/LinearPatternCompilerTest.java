@@ -0,0 +1,84 @@
+package org.identityshelf.core.domain.definition.pattern;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Differential test of the linear engine against java.util.regex over the syntax the linear engine claims:
+ * character classes, escapes, '.', $ and \Z before a final line terminator, bounded repetition, empty loops,
+ * alternation and reluctant quantifiers. Both engines match every regex below against every string of up to
+ * two characters over {@link #ALPHABET}, which holds the characters those features tell apart, every single
+ * character followed by \r\n, and a few longer runs for the repetitions.
+ */
+class LinearPatternCompilerTest {
+
+    /** Letters, a digit, word and non-word punctuation, white space, every line terminator and non-ASCII */
+    private static final String ALPHABET = "aAb5_-. \n\r\u0085\u2028\u00e9";
+
+    private static final String[] LONGER_INPUTS = {"aaa", "aaaa", "aaaaa", "abab", "ababa", "ab5ab5", "aAaA5"};
+
+    private static final List<String> INPUTS = inputs();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // Character classes
+            "[ab]", "[^ab]", "[a-z5]", "[-a]", "[a-]", "[^\\n]", "[\\d\\s]", "[^\\w.]", "[.]", "[\\x41-\\x5a_]",
+            // Escapes and '.'
+            "\\d", "\\D", "\\w", "\\W", "\\s", "\\S", "\\.", "\\-", "\\x41", "\\x{e9}", "\\u00e9", "\\0101",
+            "\\n\\r", "\\t?a", ".", ".+", "a.b",
+            // Anchors, $ and \Z before a final line terminator
+            "a$", "a\\Z", "a\\z", "^a", "\\Aa", "a$\\n?", "a\\Z\\r?\\n?", "a?$", ".*$", "(a|b)$",
+            // Bounded repetition
+            "a{2}", "a{1,3}", "a{2,}", "a{0}", "(ab){0,2}", "[a-]{1,2}5?", "(?:a|b5){2,3}", "a{1,2}?b",
+            // Empty loops
+            "(a*)*", "(a?)+", "(|a)*", "()*", "(a*)+b", "(?:a|)*5", "(a*?)*", "(a{0,2}){2,}", "(a?){3}",
+            // Alternation and reluctant quantifiers
+            "a|ab", "(a|b)*?5", "(?<n>a|b)+", "a+?b*?", "(a|aA|b)*"
+    })
+    void agreesWithJavaUtilRegex(String regex) throws UnsupportedPatternException {
+        Pattern reference = Pattern.compile(regex);
+        LinearPattern linear = LinearPatternCompiler.compile(regex, ValidationPatterns.DEFAULT_STEP_BUDGET);
+
+        List<String> disagreements = new ArrayList<>();
+        for (String input : INPUTS) {
+            boolean expected = reference.matcher(input).matches();
+            if (linear.matches(input) != expected) {
+                disagreements.add(describe(input) + " should " + (expected ? "" : "not ") + "match");
+            }
+        }
+        assertThat(disagreements).as("linear engine on %s", describe(regex)).isEmpty();
+    }
+
+    private static List<String> inputs() {
+        List<String> inputs = new ArrayList<>();
+        inputs.add("");
+        for (int first = 0; first < ALPHABET.length(); first++) {
+            inputs.add(ALPHABET.substring(first, first + 1));
+            inputs.add(ALPHABET.charAt(first) + "\r\n");
+            for (int second = 0; second < ALPHABET.length(); second++) {
+                inputs.add("" + ALPHABET.charAt(first) + ALPHABET.charAt(second));
+            }
+        }
+        inputs.add("\r\n");
+        inputs.addAll(List.of(LONGER_INPUTS));
+        return inputs;
+    }
+
+    private static String describe(String value) {
+        StringBuilder escaped = new StringBuilder("\"");
+        value.chars().forEach(c -> {
+            if (c < 0x20 || c > 0x7e) {
+                escaped.append(String.format("\\u%04x", c));
+            } else {
+                escaped.append((char) c);
+            }
+        });
+        return escaped.append('"').toString();
+    }
+}
@@ -0,0 +1,133 @@
+package org.identityshelf.data.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Keeps the definition cache regions of this node coherent with writes made on any node.
+ *
+ * The definition tables notify {@link DefinitionCacheRegions#CHANGE_CHANNEL} once per modifying statement;
+ * PostgreSQL delivers the notification on commit to every listening session. This listener holds one
+ * connection to the primary in LISTEN mode and evicts all definition regions and reloads the definition
+ * snapshot when a change arrives, and again after every (re)connect because notifications sent while
+ * disconnected are lost.
+ */
+@Component
+@ConditionalOnProperty(name = "app.data.definition-cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class DefinitionCacheInvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(DefinitionCacheInvalidationListener.class);
+
+    private final DataSource dataSource;
+    private final Cache cache;
+    private final DefinitionSnapshotReloader snapshotReloader;
+    private final Duration pollInterval;
+    private final Duration retryInterval;
+    private final Counter invalidations;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public DefinitionCacheInvalidationListener(DataSource dataSource,
+                                               EntityManagerFactory entityManagerFactory,
+                                               DefinitionSnapshotReloader snapshotReloader,
+                                               ObjectProvider<MeterRegistry> meterRegistry,
+                                               @Value("${app.data.definition-cache.invalidation.poll-interval:PT1S}") Duration pollInterval,
+                                               @Value("${app.data.definition-cache.invalidation.retry-interval:PT5S}") Duration retryInterval) {
+        this.dataSource = dataSource;
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.snapshotReloader = snapshotReloader;
+        this.pollInterval = pollInterval;
+        this.retryInterval = retryInterval;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        this.invalidations = registry != null
+                ? Counter.builder("identityshelf.definition.cache.invalidations")
+                        .description("Evictions of the definition cache regions triggered by definition changes")
+                        .register(registry)
+                : null;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::listen, "definition-cache-invalidation");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Drop everything cached for the definition entities on this node and publish a fresh definition snapshot
+     */
+    public void evictAll() {
+        cache.evictRegion(DefinitionCacheRegions.ENTITIES);
+        cache.evictRegion(DefinitionCacheRegions.COLLECTIONS);
+        cache.evictQueryRegion(DefinitionCacheRegions.QUERIES);
+        snapshotReloader.reloadQuietly();
+        if (invalidations != null) {
+            invalidations.increment();
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + DefinitionCacheRegions.CHANGE_CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                evictAll();
+                log.info("Listening for definition changes on channel {}", DefinitionCacheRegions.CHANGE_CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        log.debug("Definition change on {}, evicting definition cache regions", notifications[0].getParameter());
+                        evictAll();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Definition change listener lost its connection, retrying in {}: {}", retryInterval, e.getMessage());
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.identityshelf.data.cache;
+
+/**
+ * Second-level cache regions holding the definition entities: identity, attribute and identifier types
+ * and the mappings between them. They change a few times a day and are read on every identity write.
+ */
+public final class DefinitionCacheRegions {
+
+    /** Entity data of all definition entities */
+    public static final String ENTITIES = "identity-definitions";
+
+    /** Mapping collections of the definition entities */
+    public static final String COLLECTIONS = "identity-definition-collections";
+
+    /** Results of cacheable definition queries */
+    public static final String QUERIES = "identity-definition-queries";
+
+    /** PostgreSQL channel the definition tables notify on change (see V25__add_definition_change_notifications.sql) */
+    public static final String CHANGE_CHANNEL = "identity_definition_changes";
+
+    private DefinitionCacheRegions() {
+    }
+}
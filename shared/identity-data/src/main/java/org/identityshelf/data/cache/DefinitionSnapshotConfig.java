@@ -0,0 +1,34 @@
+package org.identityshelf.data.cache;
+
+import org.identityshelf.core.application.service.IdentityApplicationService;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.identityshelf.core.domain.service.DefinitionIdentityDomainService;
+import org.identityshelf.core.domain.service.IdentityDomainService;
+import org.identityshelf.core.repository.IdentityRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the in-memory definition snapshot to the services, together with the identity use cases that
+ * validate against it; {@link DefinitionSnapshotReloader} keeps it current
+ */
+@Configuration
+public class DefinitionSnapshotConfig {
+
+    @Bean
+    public DefinitionSnapshotService definitionSnapshotService(JdbcDefinitionSnapshotLoader loader) {
+        return new DefinitionSnapshotService(loader);
+    }
+
+    @Bean
+    public IdentityDomainService identityDomainService(IdentityRepository identityRepository,
+                                                       DefinitionSnapshotService definitionSnapshotService) {
+        return new DefinitionIdentityDomainService(identityRepository, definitionSnapshotService);
+    }
+
+    @Bean
+    public IdentityApplicationService identityApplicationService(IdentityRepository identityRepository,
+                                                                 IdentityDomainService identityDomainService) {
+        return new IdentityApplicationService(identityRepository, identityDomainService);
+    }
+}
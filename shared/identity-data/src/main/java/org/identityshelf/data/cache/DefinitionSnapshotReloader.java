@@ -0,0 +1,102 @@
+package org.identityshelf.data.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.identityshelf.core.domain.definition.DefinitionSnapshot;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Triggers reloads of the definition snapshot: once at startup, on change notifications from any node
+ * (see {@link DefinitionCacheInvalidationListener}), from the job system's periodic reload and on demand
+ * from the admin API.
+ */
+@Component
+public class DefinitionSnapshotReloader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(DefinitionSnapshotReloader.class);
+
+    private final DefinitionSnapshotService snapshotService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer reloadTimer;
+    private final Counter failures;
+
+    public DefinitionSnapshotReloader(DefinitionSnapshotService snapshotService,
+                                      JdbcTemplate jdbcTemplate,
+                                      ObjectProvider<MeterRegistry> meterRegistry) {
+        this.snapshotService = snapshotService;
+        this.jdbcTemplate = jdbcTemplate;
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.reloadTimer = Timer.builder("identityshelf.definition.snapshot.reload")
+                    .description("Time to load and publish a new definition snapshot")
+                    .register(registry);
+            this.failures = Counter.builder("identityshelf.definition.snapshot.reload.failures")
+                    .description("Definition snapshot reloads that failed and kept the previous snapshot")
+                    .register(registry);
+            Gauge.builder("identityshelf.definition.snapshot.version", snapshotService,
+                            service -> service.current().version())
+                    .description("Version of the definition snapshot in use on this node")
+                    .register(registry);
+            Gauge.builder("identityshelf.definition.snapshot.age.seconds", snapshotService,
+                            service -> Duration.between(service.current().loadedAt(), Instant.now()).toSeconds())
+                    .description("Seconds since the definition snapshot in use was loaded")
+                    .register(registry);
+        } else {
+            this.reloadTimer = null;
+            this.failures = null;
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        DefinitionSnapshot snapshot = reload();
+        log.info("Loaded definition snapshot v{} with {} identity types", snapshot.version(), snapshot.identityTypes().size());
+    }
+
+    /**
+     * Load and publish a new snapshot now
+     */
+    public DefinitionSnapshot reload() {
+        try {
+            DefinitionSnapshot snapshot = reloadTimer != null
+                    ? reloadTimer.record(snapshotService::reload)
+                    : snapshotService.reload();
+            log.debug("Published definition snapshot v{}", snapshot.version());
+            return snapshot;
+        } catch (RuntimeException e) {
+            if (failures != null) {
+                failures.increment();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reload without failing the caller, e.g. from a background thread; the previous snapshot stays in use on error
+     */
+    public void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Definition snapshot reload failed, keeping v{}: {}", snapshotService.current().version(), e.getMessage());
+        }
+    }
+
+    /**
+     * Ask every node listening on {@link DefinitionCacheRegions#CHANGE_CHANNEL} to reload, this one included
+     */
+    public void notifyAllNodes(String reason) {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)::text", String.class, DefinitionCacheRegions.CHANGE_CHANNEL, reason);
+    }
+}
@@ -0,0 +1,133 @@
+package org.identityshelf.data.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over canonical identifier values: {@link #mightContain} never answers false for a value
+ * that was added, and answers true for an absent value with roughly the configured probability.
+ *
+ * Sized for an expected number of values at a target false-positive rate; adding more values than that
+ * raises the rate, see {@link #isSaturated()}. Values cannot be removed. Adds and lookups are lock-free
+ * and may run concurrently. Bit positions come from two 64-bit hashes of the value combined as
+ * h1 + i * h2 (Kirsch and Mitzenmacher).
+ */
+public final class IdentifierBloomFilter {
+
+    private static final double LN2 = Math.log(2);
+    private static final long SEED_1 = 0xcbf29ce484222325L;
+    private static final long SEED_2 = 0x9e3779b97f4a7c15L;
+
+    private final AtomicLongArray words;
+    private final long bitSize;
+    private final int hashFunctions;
+    private final long expectedInsertions;
+    private final AtomicLong insertions = new AtomicLong();
+    private final AtomicLong bitsSet = new AtomicLong();
+
+    public IdentifierBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException("Expected insertions must be positive, got " + expectedInsertions);
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1, got " + falsePositiveRate);
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (LN2 * LN2));
+        int wordCount = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (bits + 63) / 64));
+        this.words = new AtomicLongArray(wordCount);
+        this.bitSize = (long) wordCount * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * LN2));
+        this.expectedInsertions = expectedInsertions;
+    }
+
+    public void add(String value) {
+        long h1 = hash(value, SEED_1);
+        long h2 = hash(value, SEED_2) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            if (setBit(Math.floorMod(h1 + i * h2, bitSize))) {
+                bitsSet.incrementAndGet();
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    /**
+     * @return false if the value was definitely never added
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value, SEED_1);
+        long h2 = hash(value, SEED_2) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitSize);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * False-positive rate at the current fill: the chance that every probed bit of an absent value is set
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow((double) bitsSet.get() / bitSize, hashFunctions);
+    }
+
+    /**
+     * More values were added than the filter was sized for
+     */
+    public boolean isSaturated() {
+        return insertions.get() > expectedInsertions;
+    }
+
+    public long insertions() {
+        return insertions.get();
+    }
+
+    public long expectedInsertions() {
+        return expectedInsertions;
+    }
+
+    public long bitSize() {
+        return bitSize;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    public long memoryBytes() {
+        return bitSize / 8;
+    }
+
+    private boolean setBit(long bit) {
+        int index = (int) (bit >>> 6);
+        long mask = 1L << bit;
+        while (true) {
+            long word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+            if (words.compareAndSet(index, word, word | mask)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * FNV-1a over the UTF-16 code units, finished with the MurmurHash3 mix so all 64 bits avalanche
+     */
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
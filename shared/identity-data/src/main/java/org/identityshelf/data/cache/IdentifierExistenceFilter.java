@@ -0,0 +1,323 @@
+package org.identityshelf.data.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per identifier type Bloom filters over every stored canonical identifier value, active or not, so that
+ * lookups for values that do not exist are answered without an index probe.
+ *
+ * A filter is only consulted while {@link IdentifierExistenceFilterListener} is connected: it adds the values
+ * every node and service writes, announced on {@link #CHANGE_CHANNEL} by the V31 trigger, and drops all filters
+ * when it loses its connection. Filters are built on a background thread, once the listener is connected and
+ * again when a filter fills up, a statement changes too many values to announce them one by one, or a rebuild
+ * is requested. Until a type's filter is built, every check for it answers "might exist".
+ *
+ * Removed values stay in the filter and only cost false positives until the next rebuild. Values reach the
+ * filter only through the notification, including those this node wrote itself: between a commit and its
+ * arrival (about one poll interval) a lookup may not yet see the new value. Checks that must not miss a
+ * committed value, such as uniqueness, therefore do not consult the filter.
+ */
+@Component
+public class IdentifierExistenceFilter implements DisposableBean {
+
+    public static final String CHANGE_CHANNEL = "identifier_value_changes";
+
+    private static final Logger log = LoggerFactory.getLogger(IdentifierExistenceFilter.class);
+
+    private static final long MIN_EXPECTED_INSERTIONS = 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate scanTransaction;
+    private final double falsePositiveRate;
+    private final double headroom;
+    private final int fetchSize;
+    private final MeterRegistry registry;
+    private final Counter negatives;
+    private final Counter falsePositives;
+
+    private final Map<UUID, BuiltFilter> filters = new ConcurrentHashMap<>();
+    private final Map<UUID, IdentifierBloomFilter> building = new ConcurrentHashMap<>();
+    private final Set<UUID> scheduled = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> gauged = ConcurrentHashMap.newKeySet();
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "identifier-filter-build");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile boolean connected;
+
+    public IdentifierExistenceFilter(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectProvider<MeterRegistry> meterRegistry,
+                                     @Value("${app.data.identifier-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                                     @Value("${app.data.identifier-filter.headroom:0.5}") double headroom,
+                                     @Value("${app.data.stream-fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Read-write on purpose: with read replicas a read-only scan could run on a lagging replica and
+        // miss values whose notifications were already handled
+        this.scanTransaction = new TransactionTemplate(transactionManager);
+        this.falsePositiveRate = falsePositiveRate;
+        this.headroom = headroom;
+        this.fetchSize = fetchSize;
+        this.registry = meterRegistry.getIfAvailable();
+        if (registry != null) {
+            this.negatives = Counter.builder("identityshelf.identifier.filter.negatives")
+                    .description("Identifier checks answered as definitely absent without a database probe")
+                    .register(registry);
+            this.falsePositives = Counter.builder("identityshelf.identifier.filter.false.positives")
+                    .description("Identifier checks the filter let through that the database then did not find")
+                    .register(registry);
+            Gauge.builder("identityshelf.identifier.filter.false.positive.rate", this,
+                            IdentifierExistenceFilter::observedFalsePositiveRate)
+                    .description("Share of checks for absent identifier values the filter failed to reject")
+                    .register(registry);
+            Gauge.builder("identityshelf.identifier.filter.memory.bytes", this, IdentifierExistenceFilter::memoryBytes)
+                    .description("Memory held by the identifier filters of this node")
+                    .baseUnit("bytes")
+                    .register(registry);
+        } else {
+            this.negatives = null;
+            this.falsePositives = null;
+        }
+    }
+
+    /**
+     * @return false only if no identifier of the type has this canonical value
+     */
+    public boolean mightContain(UUID identifierTypeUuid, String normalizedValue) {
+        if (!connected) {
+            return true;
+        }
+        BuiltFilter built = filters.get(identifierTypeUuid);
+        if (built == null) {
+            if (!building.containsKey(identifierTypeUuid)) {
+                scheduleBuild(identifierTypeUuid);
+            }
+            return true;
+        }
+        if (built.filter().mightContain(normalizedValue)) {
+            return true;
+        }
+        if (negatives != null) {
+            negatives.increment();
+        }
+        return false;
+    }
+
+    /**
+     * Report that a value the filter let through was not found, for the observed false-positive rate
+     */
+    public void recordFalsePositive() {
+        if (falsePositives != null) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * Add a value written to the database, as announced on {@link #CHANGE_CHANNEL}
+     */
+    public void add(UUID identifierTypeUuid, String normalizedValue) {
+        // Building filter first: a build installs its filter before it stops accepting adds, so the value
+        // cannot slip past both
+        IdentifierBloomFilter next = building.get(identifierTypeUuid);
+        if (next != null) {
+            next.add(normalizedValue);
+        }
+        BuiltFilter built = filters.get(identifierTypeUuid);
+        if (built != null) {
+            built.filter().add(normalizedValue);
+            if (built.filter().isSaturated() && next == null) {
+                scheduleBuild(identifierTypeUuid);
+            }
+        }
+    }
+
+    /**
+     * Build a fresh filter for the type and swap it in; the current one stays in use meanwhile
+     */
+    public void rebuild(UUID identifierTypeUuid) {
+        scheduleBuild(identifierTypeUuid);
+    }
+
+    /**
+     * Rebuild the filters of all identifier types
+     */
+    public void rebuildAll() {
+        jdbcTemplate.queryForList("SELECT uuid FROM identifier_types", UUID.class).forEach(this::scheduleBuild);
+    }
+
+    /**
+     * Stop using the type's filter, because it may miss values, and build a new one
+     */
+    public synchronized void invalidate(UUID identifierTypeUuid) {
+        filters.remove(identifierTypeUuid);
+        // A running build may have scanned before the values that made this filter incomplete
+        building.remove(identifierTypeUuid);
+        scheduleBuild(identifierTypeUuid);
+    }
+
+    /**
+     * Ask every node listening on {@link #CHANGE_CHANNEL} to rebuild its filters, this one included
+     */
+    public void rebuildOnAllNodes() {
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)::text", String.class, CHANGE_CHANNEL,
+                IdentifierExistenceFilterListener.REBUILD);
+    }
+
+    public List<IdentifierFilterStats> stats() {
+        return filters.entrySet().stream()
+                .map(entry -> {
+                    BuiltFilter built = entry.getValue();
+                    IdentifierBloomFilter filter = built.filter();
+                    return new IdentifierFilterStats(entry.getKey(), built.typeName(), filter.insertions(),
+                            filter.expectedInsertions(), filter.bitSize(), filter.hashFunctions(), filter.memoryBytes(),
+                            filter.expectedFalsePositiveRate(), built.builtAt());
+                })
+                .sorted(Comparator.comparing(IdentifierFilterStats::identifierTypeName))
+                .toList();
+    }
+
+    /**
+     * The listener is receiving changes from now on: start over with freshly built filters
+     */
+    synchronized void connected() {
+        filters.clear();
+        building.clear();
+        connected = true;
+        rebuildAll();
+    }
+
+    /**
+     * Changes may be missed from now on: stop answering from the filters
+     */
+    synchronized void disconnected() {
+        connected = false;
+        filters.clear();
+        building.clear();
+    }
+
+    @Override
+    public void destroy() {
+        builder.shutdownNow();
+    }
+
+    private void scheduleBuild(UUID identifierTypeUuid) {
+        if (scheduled.add(identifierTypeUuid)) {
+            builder.execute(() -> {
+                scheduled.remove(identifierTypeUuid);
+                try {
+                    build(identifierTypeUuid);
+                } catch (RuntimeException e) {
+                    log.warn("Building the identifier filter for type {} failed: {}", identifierTypeUuid, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void build(UUID identifierTypeUuid) {
+        if (!connected) {
+            return;
+        }
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT name FROM identifier_types WHERE uuid = ?", String.class, identifierTypeUuid);
+        if (names.isEmpty()) {
+            filters.remove(identifierTypeUuid);
+            return;
+        }
+        Long rows = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM identity_identifiers WHERE identifier_type_uuid = ?", Long.class, identifierTypeUuid);
+        long expected = Math.max(MIN_EXPECTED_INSERTIONS, (long) Math.ceil((rows != null ? rows : 0) * (1 + headroom)));
+        IdentifierBloomFilter filter = new IdentifierBloomFilter(expected, falsePositiveRate);
+
+        // Register before the scan: values committed after the scan's snapshot reach the new filter through add().
+        // Losing the connection or an invalidation unregisters it, and the result is then discarded.
+        building.put(identifierTypeUuid, filter);
+        try {
+            scanTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    con -> {
+                        var ps = con.prepareStatement(
+                                "SELECT normalized_value FROM identity_identifiers WHERE identifier_type_uuid = ?");
+                        ps.setFetchSize(fetchSize);
+                        ps.setObject(1, identifierTypeUuid);
+                        return ps;
+                    },
+                    rs -> {
+                        filter.add(rs.getString(1));
+                    }));
+            if (install(identifierTypeUuid, names.get(0), filter)) {
+                registerGauges(identifierTypeUuid, names.get(0));
+                log.debug("Built identifier filter for {} with {} values, {} bytes",
+                        names.get(0), filter.insertions(), filter.memoryBytes());
+            }
+        } finally {
+            building.remove(identifierTypeUuid, filter);
+        }
+    }
+
+    private synchronized boolean install(UUID identifierTypeUuid, String typeName, IdentifierBloomFilter filter) {
+        if (!connected || building.get(identifierTypeUuid) != filter) {
+            return false;
+        }
+        filters.put(identifierTypeUuid, new BuiltFilter(typeName, filter, Instant.now()));
+        return true;
+    }
+
+    private void registerGauges(UUID identifierTypeUuid, String typeName) {
+        if (registry == null || !gauged.add(identifierTypeUuid)) {
+            return;
+        }
+        Gauge.builder("identityshelf.identifier.filter.expected.false.positive.rate", this,
+                        self -> self.expectedFalsePositiveRate(identifierTypeUuid))
+                .description("False-positive rate of the identifier type's filter at its current fill")
+                .tag("identifierType", typeName)
+                .register(registry);
+        Gauge.builder("identityshelf.identifier.filter.values", this, self -> self.insertions(identifierTypeUuid))
+                .description("Values held by the identifier type's filter")
+                .tag("identifierType", typeName)
+                .register(registry);
+    }
+
+    private double observedFalsePositiveRate() {
+        double passed = falsePositives.count();
+        double rejected = negatives.count();
+        return passed + rejected > 0 ? passed / (passed + rejected) : 0;
+    }
+
+    private double memoryBytes() {
+        return filters.values().stream().mapToLong(built -> built.filter().memoryBytes()).sum();
+    }
+
+    private double expectedFalsePositiveRate(UUID identifierTypeUuid) {
+        BuiltFilter built = filters.get(identifierTypeUuid);
+        return built != null ? built.filter().expectedFalsePositiveRate() : Double.NaN;
+    }
+
+    private double insertions(UUID identifierTypeUuid) {
+        BuiltFilter built = filters.get(identifierTypeUuid);
+        return built != null ? built.filter().insertions() : Double.NaN;
+    }
+
+    private record BuiltFilter(String typeName, IdentifierBloomFilter filter, Instant builtAt) {}
+}
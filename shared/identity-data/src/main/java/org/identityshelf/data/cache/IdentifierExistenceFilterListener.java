@@ -0,0 +1,144 @@
+package org.identityshelf.data.cache;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feeds identifier values written anywhere into this node's {@link IdentifierExistenceFilter}.
+ *
+ * identity_identifiers notifies {@link IdentifierExistenceFilter#CHANGE_CHANNEL} on commit with the uuids of
+ * identifiers whose canonical value is new, or with {@code type:<identifier type uuid>} when a statement wrote
+ * too many of them; {@link #REBUILD} asks for fresh filters. Payloads carry no identifier values, the values
+ * are read back from the primary. The filters are only consulted while this listener is connected and are
+ * rebuilt after every (re)connect, because notifications sent while disconnected are lost.
+ */
+@Component
+@ConditionalOnProperty(name = "app.data.identifier-filter.enabled", havingValue = "true")
+public class IdentifierExistenceFilterListener implements SmartLifecycle {
+
+    public static final String REBUILD = "rebuild";
+
+    private static final String TYPE_PREFIX = "type:";
+
+    private static final Logger log = LoggerFactory.getLogger(IdentifierExistenceFilterListener.class);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentifierExistenceFilter existenceFilter;
+    private final Duration pollInterval;
+    private final Duration retryInterval;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public IdentifierExistenceFilterListener(DataSource dataSource,
+                                             JdbcTemplate jdbcTemplate,
+                                             IdentifierExistenceFilter existenceFilter,
+                                             @Value("${app.data.identifier-filter.poll-interval:PT0.2S}") Duration pollInterval,
+                                             @Value("${app.data.identifier-filter.retry-interval:PT5S}") Duration retryInterval) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.existenceFilter = existenceFilter;
+        this.pollInterval = pollInterval;
+        this.retryInterval = retryInterval;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        worker = new Thread(this::listen, "identifier-filter-listener");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        existenceFilter.disconnected();
+        if (worker != null) {
+            worker.interrupt();
+            worker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + IdentifierExistenceFilter.CHANGE_CHANNEL);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                existenceFilter.connected();
+                log.info("Listening for identifier value changes on channel {}", IdentifierExistenceFilter.CHANGE_CHANNEL);
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollInterval.toMillis());
+                    if (notifications != null && notifications.length > 0) {
+                        apply(notifications);
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                existenceFilter.disconnected();
+                if (!running) {
+                    return;
+                }
+                log.warn("Identifier value listener lost its connection, retrying in {}: {}", retryInterval, e.getMessage());
+                try {
+                    Thread.sleep(retryInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(PGNotification[] notifications) {
+        List<UUID> identifierUuids = new ArrayList<>();
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            if (REBUILD.equals(payload)) {
+                existenceFilter.rebuildAll();
+            } else if (payload.startsWith(TYPE_PREFIX)) {
+                existenceFilter.invalidate(UUID.fromString(payload.substring(TYPE_PREFIX.length())));
+            } else {
+                for (String uuid : payload.split(",")) {
+                    identifierUuids.add(UUID.fromString(uuid));
+                }
+            }
+        }
+        if (identifierUuids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "SELECT identifier_type_uuid, normalized_value FROM identity_identifiers WHERE uuid = ANY(?)");
+                    ps.setArray(1, con.createArrayOf("uuid", identifierUuids.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    existenceFilter.add(rs.getObject("identifier_type_uuid", UUID.class), rs.getString("normalized_value"));
+                });
+    }
+}
@@ -0,0 +1,19 @@
+package org.identityshelf.data.cache;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Size and fill of one identifier type's existence filter on this node
+ * @param expectedFalsePositiveRate rate at the current fill, see {@link IdentifierBloomFilter#expectedFalsePositiveRate()}
+ */
+public record IdentifierFilterStats(UUID identifierTypeUuid,
+                                    String identifierTypeName,
+                                    long values,
+                                    long capacity,
+                                    long bitSize,
+                                    int hashFunctions,
+                                    long memoryBytes,
+                                    double expectedFalsePositiveRate,
+                                    Instant builtAt) {
+}
@@ -0,0 +1,127 @@
+package org.identityshelf.data.cache;
+
+import org.identityshelf.core.domain.AttributeDataType;
+import org.identityshelf.core.domain.definition.AttributeDefinition;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotLoader;
+import org.identityshelf.core.domain.definition.IdentifierDefinition;
+import org.identityshelf.core.domain.definition.IdentityTypeDefinition;
+import org.identityshelf.core.domain.valueobject.IdentifierCanonicalization;
+import org.identityshelf.data.config.PrimaryReads;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Loads the definition snapshot with one query per definition table, bypassing the second-level cache
+ * so that a reload triggered by a change notification cannot pick up entries evicted a moment later.
+ * The three queries share one read-only REPEATABLE READ transaction, so a definition change committed
+ * between them cannot leave mappings without their type; {@link PrimaryReads} keeps that transaction on
+ * the primary when the public-api routes read-only work to replicas.
+ */
+@Component
+public class JdbcDefinitionSnapshotLoader implements DefinitionSnapshotLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+
+    public JdbcDefinitionSnapshotLoader(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setReadOnly(true);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @Override
+    public List<IdentityTypeDefinition> loadIdentityTypes() {
+        return PrimaryReads.call(() -> snapshotTransaction.execute(status -> queryIdentityTypes()));
+    }
+
+    private List<IdentityTypeDefinition> queryIdentityTypes() {
+        Map<UUID, TypeRow> types = new LinkedHashMap<>();
+        jdbcTemplate.query(
+                "SELECT uuid, name, display_name, is_active FROM identity_types ORDER BY name",
+                rs -> {
+                    UUID uuid = rs.getObject("uuid", UUID.class);
+                    types.put(uuid, new TypeRow(uuid, rs.getString("name"), rs.getString("display_name"),
+                            rs.getBoolean("is_active")));
+                });
+
+        jdbcTemplate.query(
+                "SELECT m.identity_type_uuid, a.uuid, a.name, a.display_name, a.data_type, a.validation_regex, " +
+                "       a.default_value, m.override_validation_regex, m.override_default_value, m.is_required, m.sort_order " +
+                "FROM identity_type_attribute_mappings m " +
+                "JOIN attribute_types a ON a.uuid = m.attribute_type_uuid " +
+                "WHERE m.is_active = TRUE AND a.is_active = TRUE",
+                rs -> {
+                    TypeRow type = types.get(rs.getObject("identity_type_uuid", UUID.class));
+                    if (type != null) {
+                        String overrideDefault = rs.getString("override_default_value");
+                        type.attributes.add(new AttributeDefinition(
+                                rs.getObject("uuid", UUID.class),
+                                rs.getString("name"),
+                                rs.getString("display_name"),
+                                AttributeDataType.valueOf(rs.getString("data_type")),
+                                rs.getBoolean("is_required"),
+                                rs.getInt("sort_order"),
+                                rs.getString("validation_regex"),
+                                rs.getString("override_validation_regex"),
+                                overrideDefault != null ? overrideDefault : rs.getString("default_value")));
+                    }
+                });
+
+        jdbcTemplate.query(
+                "SELECT m.identity_type_uuid, t.uuid, t.name, t.display_name, t.data_type, t.validation_regex, " +
+                "       t.canonicalization, t.is_unique, t.is_searchable, m.override_validation_regex, " +
+                "       m.is_required, m.is_primary_candidate, m.sort_order " +
+                "FROM identity_type_identifier_mappings m " +
+                "JOIN identifier_types t ON t.uuid = m.identifier_type_uuid " +
+                "WHERE m.is_active = TRUE AND t.is_active = TRUE",
+                rs -> {
+                    TypeRow type = types.get(rs.getObject("identity_type_uuid", UUID.class));
+                    if (type != null) {
+                        type.identifiers.add(new IdentifierDefinition(
+                                rs.getObject("uuid", UUID.class),
+                                rs.getString("name"),
+                                rs.getString("display_name"),
+                                AttributeDataType.valueOf(rs.getString("data_type")),
+                                IdentifierCanonicalization.fromString(rs.getString("canonicalization")),
+                                rs.getBoolean("is_unique"),
+                                rs.getBoolean("is_searchable"),
+                                rs.getBoolean("is_required"),
+                                rs.getBoolean("is_primary_candidate"),
+                                rs.getInt("sort_order"),
+                                rs.getString("validation_regex"),
+                                rs.getString("override_validation_regex")));
+                    }
+                });
+
+        return types.values().stream()
+                .map(type -> new IdentityTypeDefinition(type.uuid, type.name, type.displayName, type.active,
+                        type.attributes, type.identifiers))
+                .toList();
+    }
+
+    private static final class TypeRow {
+        private final UUID uuid;
+        private final String name;
+        private final String displayName;
+        private final boolean active;
+        private final List<AttributeDefinition> attributes = new ArrayList<>();
+        private final List<IdentifierDefinition> identifiers = new ArrayList<>();
+
+        private TypeRow(UUID uuid, String name, String displayName, boolean active) {
+            this.uuid = uuid;
+            this.name = name;
+            this.displayName = displayName;
+            this.active = active;
+        }
+    }
+}
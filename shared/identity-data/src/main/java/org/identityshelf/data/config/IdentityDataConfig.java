@@ -0,0 +1,20 @@
+package org.identityshelf.data.config;
+
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Registers the identity-data persistence layer with a service application.
+ *
+ * The services scan their own packages only, so entities, Spring Data repositories
+ * and the domain repository implementations have to be pulled in explicitly
+ * via {@code @Import(IdentityDataConfig.class)}.
+ */
+@Configuration
+@EntityScan(basePackages = "org.identityshelf.data.entity")
+@EnableJpaRepositories(basePackages = "org.identityshelf.data.repository", considerNestedRepositories = true)
+@ComponentScan(basePackages = {"org.identityshelf.data.repository", "org.identityshelf.data.cache"})
+public class IdentityDataConfig {
+}
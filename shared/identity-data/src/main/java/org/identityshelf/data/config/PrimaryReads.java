@@ -0,0 +1,38 @@
+package org.identityshelf.data.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins read-only work on the current thread to the primary database.
+ *
+ * Services that route read-only transactions to read replicas consult {@link #isRequired()} when they
+ * pick a data source; without replicas this has no effect. Use it for reads whose result outlives the
+ * request, e.g. values put into a shared cache, which must not reflect a lagging replica.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> required = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    /**
+     * Run the action with its transactions reading from the primary. Transactions must begin inside the
+     * action: one already open keeps the connection it has.
+     */
+    public static <T> T call(Supplier<T> action) {
+        if (isRequired()) {
+            return action.get();
+        }
+        required.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            required.remove();
+        }
+    }
+
+    public static boolean isRequired() {
+        return Boolean.TRUE.equals(required.get());
+    }
+}
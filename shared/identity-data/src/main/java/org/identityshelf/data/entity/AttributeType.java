@@ -1,6 +1,10 @@
 package org.identityshelf.data.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.identityshelf.data.cache.DefinitionCacheRegions;
+import org.identityshelf.data.generator.UuidV7Id;
 // yaGen imports for audit functionality
 import com.github.gekoh.yagen.api.Auditable;
 import com.github.gekoh.yagen.api.TemporalEntity;
@@ -13,6 +17,8 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.ENTITIES)
 @Table(name = "attribute_types")
 @Auditable
 @TemporalEntity
@@ -23,7 +29,7 @@ import java.util.UUID;
 public class AttributeType {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "uuid", columnDefinition = "uuid")
     private UUID uuid;
     
@@ -57,6 +63,7 @@ public class AttributeType {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
     
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.COLLECTIONS)
     @OneToMany(mappedBy = "attributeType", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<IdentityTypeAttributeMapping> identityTypeMappings = new ArrayList<>();
     
@@ -1,6 +1,11 @@
 package org.identityshelf.data.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.identityshelf.data.cache.DefinitionCacheRegions;
+import org.identityshelf.core.domain.valueobject.IdentifierCanonicalization;
+import org.identityshelf.data.generator.UuidV7Id;
 // yaGen imports for audit functionality
 import com.github.gekoh.yagen.api.Auditable;
 import com.github.gekoh.yagen.api.TemporalEntity;
@@ -13,6 +18,8 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.ENTITIES)
 @Table(name = "identifier_types")
 @Auditable
 @TemporalEntity
@@ -23,7 +30,7 @@ import java.util.UUID;
 public class IdentifierType {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "uuid", columnDefinition = "uuid")
     private UUID uuid;
 
@@ -46,6 +53,10 @@ public class IdentifierType {
     @Column(name = "default_value", length = 500)
     private String defaultValue;
 
+    @Enumerated(EnumType.STRING)
+    @Column(name = "canonicalization", nullable = false, length = 30)
+    private IdentifierCanonicalization canonicalization = IdentifierCanonicalization.NONE;
+
     @Column(name = "is_unique", nullable = false)
     private boolean unique = true; // Identifiers are typically unique by nature
 
@@ -61,6 +72,7 @@ public class IdentifierType {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.COLLECTIONS)
     @OneToMany(mappedBy = "identifierType", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<IdentityTypeIdentifierMapping> identityTypeMappings = new ArrayList<>();
 
@@ -84,6 +96,8 @@ public class IdentifierType {
         this.dataType = dataType;
         this.unique = unique;
         this.searchable = searchable;
+        this.canonicalization = IdentifierCanonicalization.defaultFor(
+                org.identityshelf.core.domain.AttributeDataType.valueOf(dataType.name()));
         this.active = true;
     }
 }
@@ -4,15 +4,21 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Formula;
+import org.hibernate.annotations.SQLRestriction;
+import org.identityshelf.core.domain.valueobject.UuidV7;
+import org.springframework.data.domain.Persistable;
 import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "identities")
+// Tombstoned identities stay in the table until the purge job removes them; no entity read sees them
+@SQLRestriction("status <> 'DELETED'")
 @Data
 @NoArgsConstructor
-@EqualsAndHashCode(exclude = {"uuid", "createdAt", "updatedAt"})
-public class Identity {
+@EqualsAndHashCode(exclude = {"uuid", "createdAt", "updatedAt", "newEntity"})
+public class Identity implements Persistable<UUID> {
 
     @Id
     @Column(name = "uuid", nullable = false, columnDefinition = "uuid")
@@ -24,7 +30,12 @@ public class Identity {
     @Column(name = "status", nullable = false, length = 20)
     private String status;
 
-    @Column(name = "identity_type_name", nullable = false)
+    // An identity never changes its type, so the foreign key is written once on insert
+    @Column(name = "identity_type_uuid", nullable = false, updatable = false, columnDefinition = "uuid")
+    private UUID identityTypeUuid;
+
+    // Read along with every identity; queries by type name join identity_types instead
+    @Formula("(SELECT t.name FROM identity_types t WHERE t.uuid = identity_type_uuid)")
     private String identityTypeName;
 
     @Column(name = "created_at", nullable = false)
@@ -33,16 +44,27 @@ public class Identity {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
 
-    public Identity(String displayName, String status, String identityTypeName) {
+    // Optimistic lock; merges of a stale copy fail instead of overwriting a concurrent change
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // The UUID is assigned by the domain before persisting, so Spring Data cannot infer
+    // newness from a null id. Set by the repository to route new rows to persist (plain
+    // INSERT) instead of merge (SELECT + INSERT).
+    @Transient
+    private boolean newEntity;
+
+    public Identity(String displayName, String status, UUID identityTypeUuid) {
         this.displayName = displayName;
         this.status = status;
-        this.identityTypeName = identityTypeName;
+        this.identityTypeUuid = identityTypeUuid;
     }
 
     @PrePersist
     public void prePersist() {
         if (this.uuid == null) {
-            this.uuid = UUID.randomUUID();
+            this.uuid = UuidV7.generate();
         }
         if (this.status == null) {
             this.status = "ACTIVE";
@@ -56,4 +78,20 @@ public class Identity {
     public void preUpdate() {
         this.updatedAt = OffsetDateTime.now();
     }
+
+    @PostPersist
+    @PostLoad
+    void markNotNew() {
+        this.newEntity = false;
+    }
+
+    @Override
+    public UUID getId() {
+        return uuid;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
 }
@@ -1,6 +1,7 @@
 package org.identityshelf.data.entity;
 
 import jakarta.persistence.*;
+import org.identityshelf.data.generator.UuidV7Id;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -15,7 +16,7 @@ import java.util.UUID;
 public class IdentityAttributeValue {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "uuid", columnDefinition = "uuid")
     private UUID uuid;
     
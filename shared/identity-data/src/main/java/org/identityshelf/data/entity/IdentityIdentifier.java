@@ -1,6 +1,7 @@
 package org.identityshelf.data.entity;
 
 import jakarta.persistence.*;
+import org.identityshelf.data.generator.UuidV7Id;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -14,7 +15,8 @@ import java.util.UUID;
            @Index(name = "idx_identity_identifier_type", columnList = "identifier_type_uuid"),
            @Index(name = "idx_identity_identifier_identity", columnList = "identity_uuid"),
            @Index(name = "idx_identity_identifier_search", columnList = "identifier_type_uuid, identifier_value"),
-           @Index(name = "idx_identity_identifier_unique", columnList = "identifier_type_uuid, identifier_value", unique = true)
+           @Index(name = "idx_identity_identifier_resolution", columnList = "identifier_type_uuid, normalized_value"),
+           @Index(name = "idx_identity_identifier_normalized_unique", columnList = "identifier_type_uuid, normalized_value", unique = true)
        })
 @Data
 @NoArgsConstructor
@@ -22,7 +24,7 @@ import java.util.UUID;
 public class IdentityIdentifier {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "uuid", columnDefinition = "uuid")
     private UUID uuid;
 
@@ -37,6 +39,10 @@ public class IdentityIdentifier {
     @Column(name = "identifier_value", nullable = false, length = 500)
     private String identifierValue;
 
+    // Canonical form of identifierValue per the identifier type, used for exact lookups
+    @Column(name = "normalized_value", nullable = false, length = 500)
+    private String normalizedValue;
+
     @Column(name = "is_primary", nullable = false)
     private boolean primary = false; // Mark if this is the primary identifier for the identity
 
@@ -62,11 +68,13 @@ public class IdentityIdentifier {
     protected void onCreate() {
         createdAt = OffsetDateTime.now();
         updatedAt = OffsetDateTime.now();
+        normalizedValue = identifierType.getCanonicalization().canonicalize(identifierValue);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = OffsetDateTime.now();
+        normalizedValue = identifierType.getCanonicalization().canonicalize(identifierValue);
     }
 
     // Constructor for creating new identifiers
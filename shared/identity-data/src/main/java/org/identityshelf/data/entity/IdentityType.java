@@ -1,6 +1,10 @@
 package org.identityshelf.data.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.identityshelf.data.cache.DefinitionCacheRegions;
+import org.identityshelf.data.generator.UuidV7Id;
 import com.github.gekoh.yagen.api.Auditable;
 import com.github.gekoh.yagen.api.TemporalEntity;
 import lombok.Data;
@@ -12,6 +16,8 @@ import java.util.List;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.ENTITIES)
 @Table(name = "identity_types")
 @Auditable
 @TemporalEntity
@@ -21,7 +27,7 @@ import java.util.UUID;
 public class IdentityType {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "uuid", columnDefinition = "uuid")
     private UUID uuid;
     
@@ -45,9 +51,11 @@ public class IdentityType {
     @Column(name = "updated_at", nullable = false)
     private OffsetDateTime updatedAt;
     
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.COLLECTIONS)
     @OneToMany(mappedBy = "identityType", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<IdentityTypeAttributeMapping> attributeMappings = new ArrayList<>();
     
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.COLLECTIONS)
     @OneToMany(mappedBy = "identityType", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<IdentityTypeIdentifierMapping> identifierMappings = new ArrayList<>();
     
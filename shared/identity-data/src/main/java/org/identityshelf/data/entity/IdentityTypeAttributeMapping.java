@@ -1,6 +1,10 @@
 package org.identityshelf.data.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.identityshelf.data.cache.DefinitionCacheRegions;
+import org.identityshelf.data.generator.UuidV7Id;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -8,6 +12,8 @@ import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = DefinitionCacheRegions.ENTITIES)
 @Table(name = "identity_type_attribute_mappings",
        uniqueConstraints = @UniqueConstraint(columnNames = {"identity_type_uuid", "attribute_type_uuid"}))
 @Data
@@ -16,7 +22,7 @@ import java.util.UUID;
 public class IdentityTypeAttributeMapping {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Id
     @Column(name = "uuid", columnDefinition = "uuid")
     private UUID uuid;
     
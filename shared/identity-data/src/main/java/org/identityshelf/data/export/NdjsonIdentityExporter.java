@@ -0,0 +1,119 @@
+package org.identityshelf.data.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.identityshelf.data.repository.IdentityAggregate;
+import org.identityshelf.data.repository.IdentityExportRepository;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes identity exports as NDJSON for both APIs, each mapping an aggregate to its own line type.
+ *
+ * Each chunk read from the export cursor is written and flushed before the next one is fetched, so the
+ * client sees progress and heap use does not grow with the export. The body is gzip-compressed when the
+ * request's Accept-Encoding allows it, see {@link #acceptsGzip(String)}.
+ */
+@Component
+public class NdjsonIdentityExporter {
+
+    public static final String GZIP = "gzip";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final IdentityExportRepository exportRepository;
+    private final ObjectMapper objectMapper;
+
+    public NdjsonIdentityExporter(IdentityExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every live identity of the type to the output, one line per aggregate; the caller owns and
+     * closes the output, a gzip stream is finished here
+     * @return number of identities written
+     */
+    public long export(String identityTypeName, Function<IdentityAggregate, ?> toLine, OutputStream out,
+                       boolean gzip) throws IOException {
+        if (!gzip) {
+            return write(identityTypeName, toLine, out);
+        }
+        GZIPOutputStream compressed = new GZIPOutputStream(out, GZIP_BUFFER_SIZE);
+        long exported = write(identityTypeName, toLine, compressed);
+        compressed.finish();
+        return exported;
+    }
+
+    /**
+     * Whether gzip is acceptable per an Accept-Encoding header: named explicitly or covered by "*", in
+     * either case with a non-zero q-value; an explicit gzip;q=0 wins over "*"
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals(GZIP) || coding.equals("x-gzip")) {
+                return qualityOf(parts) > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = qualityOf(parts) > 0;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private long write(String identityTypeName, Function<IdentityAggregate, ?> toLine, OutputStream out)
+            throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            long exported = exportRepository.exportByType(identityTypeName, chunk -> writeChunk(generator, toLine, chunk));
+            generator.flush();
+            return exported;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void writeChunk(JsonGenerator generator, Function<IdentityAggregate, ?> toLine,
+                                   List<IdentityAggregate> chunk) {
+        try {
+            for (IdentityAggregate aggregate : chunk) {
+                generator.writeObject(toLine.apply(aggregate));
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The q parameter of one Accept-Encoding element, 1 if absent; a malformed value counts as not acceptable
+     */
+    private static double qualityOf(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 1 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.substring(1).trim().startsWith("=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(parameter.indexOf('=') + 1).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,18 @@
+package org.identityshelf.data.generator;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID primary key that is assigned a time-ordered UUIDv7 on insert.
+ * Replaces {@code @GeneratedValue(strategy = GenerationType.UUID)}, which mints random v4 values.
+ */
+@IdGeneratorType(UuidV7IdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7Id {
+}
@@ -0,0 +1,9 @@
+package org.identityshelf.data.repository;
+
+import java.util.UUID;
+
+/**
+ * Owner of an identifier as read from the covering resolution index, without loading the identifier itself
+ */
+public record IdentifierResolution(UUID identityUuid, boolean active, boolean primary) {
+}
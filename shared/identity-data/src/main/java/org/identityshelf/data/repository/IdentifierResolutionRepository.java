@@ -0,0 +1,85 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.valueobject.IdentifierCanonicalization;
+import org.identityshelf.data.cache.IdentifierExistenceFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves "which identity owns identifier (type, value)?" from the covering index
+ * idx_identity_identifier_resolution (see V24__add_identifier_resolution_index.sql).
+ *
+ * The identifier probe only reads columns held in the index, so PostgreSQL answers it with an index-only
+ * scan as long as the visibility map is current; the owner is then checked by primary key so tombstoned
+ * (DELETED) identities do not resolve. No entity or aggregate is instantiated. Values the
+ * {@link IdentifierExistenceFilter} rules out are not probed at all.
+ */
+@Repository
+public class IdentifierResolutionRepository {
+
+    private static final RowMapper<Probe> PROBE_ROW_MAPPER = (rs, rowNum) -> new Probe(
+            new IdentifierResolution(
+                    rs.getObject("identity_uuid", UUID.class),
+                    rs.getBoolean("is_active"),
+                    rs.getBoolean("is_primary")),
+            rs.getBoolean("owner_deleted"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentifierExistenceFilter existenceFilter;
+
+    public IdentifierResolutionRepository(JdbcTemplate jdbcTemplate, IdentifierExistenceFilter existenceFilter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.existenceFilter = existenceFilter;
+    }
+
+    /**
+     * Resolve the owner of an identifier; an active identifier wins over deactivated ones with the same value
+     * @return empty if the type is unknown or nothing matches
+     */
+    public Optional<IdentifierResolution> resolve(String identifierTypeName, String value) {
+        List<TypeKey> types = jdbcTemplate.query(
+                "SELECT uuid, canonicalization FROM identifier_types WHERE name = ? AND is_active = TRUE",
+                (rs, rowNum) -> new TypeKey(
+                        rs.getObject("uuid", UUID.class),
+                        IdentifierCanonicalization.fromString(rs.getString("canonicalization"))),
+                identifierTypeName);
+        if (types.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return resolve(types.get(0).uuid(), types.get(0).canonicalization().canonicalize(value));
+    }
+
+    /**
+     * Resolve the owner of an identifier by type and an already canonical value
+     */
+    public Optional<IdentifierResolution> resolve(UUID identifierTypeUuid, String normalizedValue) {
+        if (!existenceFilter.mightContain(identifierTypeUuid, normalizedValue)) {
+            return Optional.empty();
+        }
+        // Rows of tombstoned owners sort last and are still returned, so that a value the filter rightly
+        // holds is not counted as a false positive
+        List<Probe> probes = jdbcTemplate.query(
+                "SELECT ii.identity_uuid, ii.is_active, ii.is_primary, i.status = 'DELETED' AS owner_deleted " +
+                "FROM identity_identifiers ii " +
+                "JOIN identities i ON i.uuid = ii.identity_uuid " +
+                "WHERE ii.identifier_type_uuid = ? AND ii.normalized_value = ? " +
+                "ORDER BY owner_deleted, ii.is_active DESC LIMIT 1",
+                PROBE_ROW_MAPPER, identifierTypeUuid, normalizedValue);
+        if (probes.isEmpty()) {
+            existenceFilter.recordFalsePositive();
+            return Optional.empty();
+        }
+        Probe probe = probes.get(0);
+        return probe.ownerDeleted() ? Optional.empty() : Optional.of(probe.resolution());
+    }
+
+    private record TypeKey(UUID uuid, IdentifierCanonicalization canonicalization) {}
+
+    private record Probe(IdentifierResolution resolution, boolean ownerDeleted) {}
+}
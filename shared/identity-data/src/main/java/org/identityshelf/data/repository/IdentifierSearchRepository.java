@@ -0,0 +1,211 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.IdentifierType;
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.IdentityIdentifier;
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentifierCanonicalization;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.data.cache.IdentifierExistenceFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Exact lookups and typeahead queries over identifier values.
+ *
+ * Exact lookups canonicalize the input with the identifier type's rule and probe normalized_value by equality.
+ * Typeahead puts prefix matches first, in byte order of the value, from the text_pattern_ops index; the
+ * remaining slots are filled with substring matches from the trigram index. Both compare lower-cased values
+ * and only consider active identifiers of searchable identifier types. Exact lookups for values the
+ * {@link IdentifierExistenceFilter} rules out do not query identity_identifiers at all; uniqueness checks always
+ * do, because the filter learns about new values only after they commit.
+ */
+@Repository
+public class IdentifierSearchRepository {
+
+    private static final String SELECT_IDENTIFIER =
+            "SELECT ii.uuid, ii.identity_uuid, ii.identifier_type_uuid, t.name AS type_name, " +
+            "t.display_name AS type_display_name, ii.identifier_value, ii.is_primary, ii.is_verified, " +
+            "ii.verified_at, ii.verified_by, ii.is_active, ii.created_at, ii.updated_at, " +
+            "i.display_name AS identity_display_name, i.status AS identity_status, it.name AS identity_type_name, " +
+            "i.created_at AS identity_created_at, i.updated_at AS identity_updated_at " +
+            "FROM identity_identifiers ii " +
+            "JOIN identifier_types t ON t.uuid = ii.identifier_type_uuid " +
+            "JOIN identities i ON i.uuid = ii.identity_uuid " +
+            "JOIN identity_types it ON it.uuid = i.identity_type_uuid " +
+            "WHERE ii.is_active = TRUE AND i.status <> 'DELETED' ";
+
+    private static final String SELECT_SEARCHABLE_IDENTIFIER = SELECT_IDENTIFIER + "AND t.is_searchable = TRUE ";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentifierExistenceFilter existenceFilter;
+
+    public IdentifierSearchRepository(JdbcTemplate jdbcTemplate, IdentifierExistenceFilter existenceFilter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.existenceFilter = existenceFilter;
+    }
+
+    /**
+     * Suggest identifiers whose value starts with or contains the partial input
+     * @param identifierTypeId restrict to one identifier type, or null for all
+     */
+    public List<IdentityIdentifier> findSuggestions(String partial, UUID identifierTypeId, int limit) {
+        String needle = escapeLike(partial.toLowerCase());
+        String typeFilter = identifierTypeId != null ? "AND ii.identifier_type_uuid = ? " : "";
+
+        List<Object> args = new ArrayList<>();
+        args.add(needle + "%");
+        if (identifierTypeId != null) {
+            args.add(identifierTypeId);
+        }
+        args.add(limit);
+        args.add("%" + needle + "%");
+        args.add(needle + "%");
+        if (identifierTypeId != null) {
+            args.add(identifierTypeId);
+        }
+        args.add(limit);
+        args.add(limit);
+
+        // Each branch is limited on its own so neither has to materialise all matches. Prefix matches are
+        // ordered with the text_pattern_ops operator (byte order) so the index scan returns them pre-sorted;
+        // a plain ORDER BY would sort by the database collation and need every match first
+        String sql =
+                "(" + SELECT_SEARCHABLE_IDENTIFIER +
+                "AND lower(ii.identifier_value) LIKE ? " + typeFilter +
+                "ORDER BY lower(ii.identifier_value) USING ~<~ LIMIT ?) " +
+                "UNION ALL " +
+                "(" + SELECT_SEARCHABLE_IDENTIFIER +
+                "AND lower(ii.identifier_value) LIKE ? AND lower(ii.identifier_value) NOT LIKE ? " + typeFilter +
+                "LIMIT ?) " +
+                "LIMIT ?";
+        return jdbcTemplate.query(sql, IDENTIFIER_ROW_MAPPER, args.toArray());
+    }
+
+    /**
+     * Find the active identifier of a type whose value is equal to the given one in canonical form
+     */
+    public Optional<IdentityIdentifier> findByTypeAndValue(String identifierTypeName, String value) {
+        List<Map.Entry<UUID, IdentifierCanonicalization>> types = jdbcTemplate.query(
+                "SELECT uuid, canonicalization FROM identifier_types WHERE name = ? AND is_active = TRUE",
+                (rs, rowNum) -> Map.entry(
+                        rs.getObject("uuid", UUID.class),
+                        IdentifierCanonicalization.fromString(rs.getString("canonicalization"))),
+                identifierTypeName);
+        if (types.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Values without a proper canonical form (legacy malformed phone numbers) are compared as trimmed,
+        // the same way V23 backfilled them
+        String normalizedValue = types.get(0).getValue().canonicalize(value);
+        UUID typeUuid = types.get(0).getKey();
+        if (!existenceFilter.mightContain(typeUuid, normalizedValue)) {
+            return Optional.empty();
+        }
+
+        List<IdentityIdentifier> identifiers = jdbcTemplate.query(
+                SELECT_IDENTIFIER + "AND ii.identifier_type_uuid = ? AND ii.normalized_value = ? LIMIT 1",
+                IDENTIFIER_ROW_MAPPER, typeUuid, normalizedValue);
+        if (identifiers.isEmpty()) {
+            recordIfFalsePositive(typeUuid, normalizedValue);
+        }
+        return identifiers.stream().findFirst();
+    }
+
+    /**
+     * Find an active identifier of a live identity by its uuid
+     */
+    public Optional<IdentityIdentifier> findById(UUID identifierUuid) {
+        return jdbcTemplate.query(SELECT_IDENTIFIER + "AND ii.uuid = ?", IDENTIFIER_ROW_MAPPER, identifierUuid)
+                .stream().findFirst();
+    }
+
+    /**
+     * Uniqueness check before adding an identifier: is the type unique and does an active identifier of it
+     * already hold this value in canonical form? For unique types the value stays locked until the calling
+     * transaction ends, so two transactions adding the same value cannot both pass; call it in the transaction
+     * that inserts the identifier, see {@link IdentityIdentifierRepository#add}
+     * @throws IllegalArgumentException if the identifier type does not exist
+     */
+    public boolean violatesUniqueness(UUID identifierTypeUuid, String value) {
+        List<Map.Entry<Boolean, IdentifierCanonicalization>> types = jdbcTemplate.query(
+                "SELECT is_unique, canonicalization FROM identifier_types WHERE uuid = ?",
+                (rs, rowNum) -> Map.entry(
+                        rs.getBoolean("is_unique"),
+                        IdentifierCanonicalization.fromString(rs.getString("canonicalization"))),
+                identifierTypeUuid);
+        if (types.isEmpty()) {
+            throw new IllegalArgumentException("Identifier type not found: " + identifierTypeUuid);
+        }
+        String normalizedValue = types.get(0).getValue().canonicalize(value);
+        if (!types.get(0).getKey()) {
+            return false;
+        }
+
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtextextended(?, 0))", rs -> { },
+                identifierTypeUuid + ":" + normalizedValue);
+
+        // Not short-circuited by the existence filter: a value committed moments ago, on this node or another,
+        // may not have reached it yet, and letting it through would admit a duplicate
+        Boolean taken = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM identity_identifiers " +
+                "WHERE identifier_type_uuid = ? AND normalized_value = ? AND is_active = TRUE)",
+                Boolean.class, identifierTypeUuid, normalizedValue);
+        return Boolean.TRUE.equals(taken);
+    }
+
+    /**
+     * The filter holds deactivated identifiers and those of deleted identities too; it only erred if no row
+     * of the type has the value at all
+     */
+    private void recordIfFalsePositive(UUID identifierTypeUuid, String normalizedValue) {
+        Boolean stored = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM identity_identifiers WHERE identifier_type_uuid = ? AND normalized_value = ?)",
+                Boolean.class, identifierTypeUuid, normalizedValue);
+        if (!Boolean.TRUE.equals(stored)) {
+            existenceFilter.recordFalsePositive();
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static final RowMapper<IdentityIdentifier> IDENTIFIER_ROW_MAPPER = (rs, rowNum) -> {
+        IdentifierType type = new IdentifierType();
+        type.setUuid(rs.getObject("identifier_type_uuid", UUID.class));
+        type.setName(rs.getString("type_name"));
+        type.setDisplayName(rs.getString("type_display_name"));
+
+        Identity identity = Identity.reconstitute(
+                IdentityId.of(rs.getObject("identity_uuid", UUID.class)),
+                DisplayName.of(rs.getString("identity_display_name")),
+                IdentityStatus.fromString(rs.getString("identity_status")),
+                rs.getString("identity_type_name"),
+                rs.getObject("identity_created_at", OffsetDateTime.class),
+                rs.getObject("identity_updated_at", OffsetDateTime.class));
+
+        return new IdentityIdentifier(
+                rs.getObject("uuid", UUID.class),
+                identity,
+                type,
+                rs.getString("identifier_value"),
+                rs.getBoolean("is_primary"),
+                rs.getBoolean("is_verified"),
+                rs.getObject("verified_at", OffsetDateTime.class),
+                rs.getString("verified_by"),
+                rs.getBoolean("is_active"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class));
+    };
+}
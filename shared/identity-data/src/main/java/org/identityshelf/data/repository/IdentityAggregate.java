@@ -0,0 +1,12 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.IdentityIdentifier;
+
+import java.util.List;
+
+/**
+ * An identity together with its attribute values and identifiers, as loaded by {@link IdentityAggregateLoader}
+ */
+public record IdentityAggregate(Identity identity, List<IdentityIdentifier> identifiers) {
+}
@@ -0,0 +1,155 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.IdentifierType;
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.IdentityIdentifier;
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hydrates pages of identities with their attributes and identifiers using set-based queries:
+ * one for the identities, one for all their attribute values and one for all their identifiers.
+ * The query count does not depend on the page size. Child rows are always filtered by identity_uuid,
+ * so hash-partitioned child tables (V21) prune to the partitions holding the page.
+ */
+@Repository
+public class IdentityAggregateLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentityAttributeStore attributeStore;
+
+    public IdentityAggregateLoader(JdbcTemplate jdbcTemplate, IdentityAttributeStore attributeStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.attributeStore = attributeStore;
+    }
+
+    /**
+     * Load identities by id, in the order given; unknown and deleted ids are skipped
+     */
+    @Transactional(readOnly = true)
+    public List<IdentityAggregate> load(Collection<UUID> identityUuids) {
+        if (identityUuids.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, Identity> identities = new HashMap<>();
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "SELECT i.uuid, i.display_name, i.status, t.name AS identity_type_name, " +
+                            "i.created_at, i.updated_at, i.version " +
+                            "FROM identities i JOIN identity_types t ON t.uuid = i.identity_type_uuid " +
+                            "WHERE i.uuid = ANY(?) AND i.status <> 'DELETED'");
+                    ps.setArray(1, con.createArrayOf("uuid", identityUuids.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    UUID uuid = rs.getObject("uuid", UUID.class);
+                    identities.put(uuid, Identity.reconstitute(
+                            IdentityId.of(uuid),
+                            DisplayName.of(rs.getString("display_name")),
+                            IdentityStatus.fromString(rs.getString("status")),
+                            rs.getString("identity_type_name"),
+                            rs.getObject("created_at", OffsetDateTime.class),
+                            rs.getObject("updated_at", OffsetDateTime.class),
+                            Map.of(),
+                            rs.getLong("version")));
+                });
+
+        List<Identity> ordered = new ArrayList<>(identities.size());
+        for (UUID uuid : identityUuids) {
+            Identity identity = identities.get(uuid);
+            if (identity != null) {
+                ordered.add(identity);
+            }
+        }
+        return hydrate(ordered);
+    }
+
+    /**
+     * Attach attributes and identifiers to identities that were already loaded, e.g. a keyset slice
+     */
+    @Transactional(readOnly = true)
+    public List<IdentityAggregate> hydrate(List<Identity> identities) {
+        if (identities.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> uuids = identities.stream().map(Identity::getUuid).toList();
+        Map<UUID, Map<String, AttributeValue>> attributes = attributeStore.loadAll(uuids);
+        Map<UUID, List<IdentityIdentifier>> identifiers = loadIdentifiers(uuids);
+
+        List<IdentityAggregate> aggregates = new ArrayList<>(identities.size());
+        for (Identity identity : identities) {
+            Identity withAttributes = Identity.reconstitute(
+                    identity.getId(),
+                    identity.getDisplayName(),
+                    identity.getStatus(),
+                    identity.getIdentityTypeName(),
+                    identity.getCreatedAt(),
+                    identity.getUpdatedAt(),
+                    attributes.getOrDefault(identity.getUuid(), Map.of()),
+                    identity.getVersion());
+            List<IdentityIdentifier> own = identifiers.getOrDefault(identity.getUuid(), List.of());
+            own.forEach(identifier -> identifier.setIdentity(withAttributes));
+            aggregates.add(new IdentityAggregate(withAttributes, own));
+        }
+        return aggregates;
+    }
+
+    private Map<UUID, List<IdentityIdentifier>> loadIdentifiers(List<UUID> identityUuids) {
+        Map<UUID, List<IdentityIdentifier>> result = new HashMap<>();
+        Map<UUID, IdentifierType> types = new HashMap<>();
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "SELECT ii.uuid, ii.identity_uuid, ii.identifier_type_uuid, t.name AS type_name, " +
+                            "t.display_name AS type_display_name, ii.identifier_value, ii.is_primary, ii.is_verified, " +
+                            "ii.verified_at, ii.verified_by, ii.is_active, ii.created_at, ii.updated_at " +
+                            "FROM identity_identifiers ii " +
+                            "JOIN identifier_types t ON t.uuid = ii.identifier_type_uuid " +
+                            "WHERE ii.identity_uuid = ANY(?) AND ii.is_active = TRUE " +
+                            "ORDER BY ii.identity_uuid, ii.is_primary DESC, t.name");
+                    ps.setArray(1, con.createArrayOf("uuid", identityUuids.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    // Identifier types repeat across a page; share one instance per type
+                    UUID typeUuid = rs.getObject("identifier_type_uuid", UUID.class);
+                    IdentifierType type = types.get(typeUuid);
+                    if (type == null) {
+                        type = new IdentifierType();
+                        type.setUuid(typeUuid);
+                        type.setName(rs.getString("type_name"));
+                        type.setDisplayName(rs.getString("type_display_name"));
+                        types.put(typeUuid, type);
+                    }
+
+                    IdentityIdentifier identifier = new IdentityIdentifier();
+                    identifier.setUuid(rs.getObject("uuid", UUID.class));
+                    identifier.setIdentifierType(type);
+                    identifier.setIdentifierValue(rs.getString("identifier_value"));
+                    identifier.setPrimary(rs.getBoolean("is_primary"));
+                    identifier.setVerified(rs.getBoolean("is_verified"));
+                    identifier.setVerifiedAt(rs.getObject("verified_at", OffsetDateTime.class));
+                    identifier.setVerifiedBy(rs.getString("verified_by"));
+                    identifier.setActive(rs.getBoolean("is_active"));
+                    identifier.setCreatedAt(rs.getObject("created_at", OffsetDateTime.class));
+                    identifier.setUpdatedAt(rs.getObject("updated_at", OffsetDateTime.class));
+                    result.computeIfAbsent(rs.getObject("identity_uuid", UUID.class), k -> new ArrayList<>())
+                            .add(identifier);
+                });
+        return result;
+    }
+}
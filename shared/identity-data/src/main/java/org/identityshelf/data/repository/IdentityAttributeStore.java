@@ -0,0 +1,41 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Storage layout for identity attribute values.
+ *
+ * Selected per deployment with {@code app.data.attribute-storage}:
+ * {@code rows} (default) keeps one identity_attribute_values row per attribute,
+ * {@code jsonb} keeps all attributes of an identity in the identities.attributes document.
+ */
+public interface IdentityAttributeStore {
+
+    /**
+     * Load the attributes of all given identities in a single query
+     * Identities without attributes are absent from the result
+     */
+    Map<UUID, Map<String, AttributeValue>> loadAll(Collection<UUID> identityUuids);
+
+    /**
+     * Replace the stored attributes of the given identities
+     * The identity rows must already be flushed
+     */
+    void writeAll(Map<UUID, Map<String, AttributeValue>> attributesByIdentity);
+
+    /**
+     * Write the given attributes of existing identities: empty values clear the attribute,
+     * attributes not in the map keep their stored value
+     */
+    void mergeAll(Map<UUID, Map<String, AttributeValue>> attributesByIdentity);
+
+    /**
+     * Find identities whose attribute has exactly the given value
+     */
+    List<UUID> findIdentityUuidsByAttribute(String attributeName, String value);
+}
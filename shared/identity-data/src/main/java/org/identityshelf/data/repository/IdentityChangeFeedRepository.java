@@ -0,0 +1,75 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityChangeCursor;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads identities in the order they were last changed (see V29__add_identity_change_feed.sql).
+ *
+ * Each page is one range scan of idx_identities_change_feed starting after the cursor. Only changes of
+ * transactions below the snapshot's xmin are served, so a transaction that is still running when a page
+ * is read can never commit a change behind the returned cursor. A long-running write transaction
+ * therefore holds the feed back until it ends, but never makes it skip anything.
+ *
+ * Tombstoned identities are included so clients see deletes; once the purge job has removed a
+ * tombstone, clients further behind than the purge retention miss the delete.
+ */
+@Repository
+public class IdentityChangeFeedRepository {
+
+    private static final String SELECT_CHANGES =
+            "SELECT i.uuid, i.display_name, i.status, t.name AS identity_type_name, " +
+            "i.created_at, i.updated_at, i.version, i.change_xid::text AS change_xid " +
+            "FROM identities i JOIN identity_types t ON t.uuid = i.identity_type_uuid " +
+            "WHERE (i.change_xid, i.uuid) > (?::text::xid8, ?) " +
+            "AND i.change_xid < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "ORDER BY i.change_xid, i.uuid LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdentityChangeFeedRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Changes after the cursor, oldest first
+     * @param limit maximum number of identities on the page
+     */
+    @Transactional(readOnly = true)
+    public IdentityChangePage findChanges(IdentityChangeCursor after, int limit) {
+        List<Identity> changes = new ArrayList<>(limit);
+        long[] lastSequence = {after.getChangeSequence()};
+        jdbcTemplate.query(SELECT_CHANGES,
+                rs -> {
+                    changes.add(Identity.reconstitute(
+                            IdentityId.of(rs.getObject("uuid", UUID.class)),
+                            DisplayName.of(rs.getString("display_name")),
+                            IdentityStatus.fromString(rs.getString("status")),
+                            rs.getString("identity_type_name"),
+                            rs.getObject("created_at", OffsetDateTime.class),
+                            rs.getObject("updated_at", OffsetDateTime.class),
+                            Map.of(),
+                            rs.getLong("version")));
+                    lastSequence[0] = Long.parseLong(rs.getString("change_xid"));
+                },
+                Long.toString(after.getChangeSequence()), after.getUuid(), limit);
+
+        if (changes.isEmpty()) {
+            return new IdentityChangePage(changes, after, false);
+        }
+        IdentityChangeCursor next = IdentityChangeCursor.after(lastSequence[0], changes.get(changes.size() - 1).getUuid());
+        return new IdentityChangePage(changes, next, changes.size() == limit);
+    }
+}
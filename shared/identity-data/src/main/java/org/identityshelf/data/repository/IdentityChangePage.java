@@ -0,0 +1,17 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.valueobject.IdentityChangeCursor;
+
+import java.util.List;
+
+/**
+ * One page of the identity change feed, in change order. Deleted identities appear with status DELETED.
+ * @param nextCursor where the next poll continues; equals the requested cursor when nothing changed
+ * @param hasMore whether further changes were already available when the page was read
+ */
+public record IdentityChangePage(
+        List<Identity> changes,
+        IdentityChangeCursor nextCursor,
+        boolean hasMore) {
+}
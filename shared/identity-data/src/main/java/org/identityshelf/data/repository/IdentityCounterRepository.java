@@ -0,0 +1,96 @@
+package org.identityshelf.data.repository;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Reads the counters maintained by the triggers on identities and identity_identifiers
+ * (see V19__create_identity_counters.sql). Each count sums at most eight stripe rows.
+ */
+@Repository
+public class IdentityCounterRepository {
+
+    private static final String SCOPE_IDENTITY_TYPE = "IDENTITY_TYPE";
+    private static final String SCOPE_IDENTITY_STATUS = "IDENTITY_STATUS";
+    private static final String SCOPE_IDENTIFIER_TYPE = "IDENTIFIER_TYPE";
+
+    private final EntityManager entityManager;
+
+    public IdentityCounterRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Count identities of the identity type with the given name
+     */
+    public long countIdentitiesByTypeName(String identityTypeName) {
+        Number count = (Number) entityManager.createNativeQuery(
+                "SELECT coalesce(sum(c.value), 0) FROM identity_counters c " +
+                "JOIN identity_types t ON c.counter_key = t.uuid::text " +
+                "WHERE c.scope = :scope AND t.name = :name")
+                .setParameter("scope", SCOPE_IDENTITY_TYPE)
+                .setParameter("name", identityTypeName)
+                .getSingleResult();
+        return count.longValue();
+    }
+
+    /**
+     * Count identities with the given status
+     */
+    public long countIdentitiesByStatus(String status) {
+        return sum(SCOPE_IDENTITY_STATUS, status);
+    }
+
+    /**
+     * Count active identifiers of the given identifier type
+     */
+    public long countActiveIdentifiersByType(UUID identifierTypeId) {
+        return sum(SCOPE_IDENTIFIER_TYPE, identifierTypeId.toString());
+    }
+
+    /**
+     * Recompute all counters from the base tables and fold the stripes into one row per counter.
+     * Writers are blocked for the duration, readers are not.
+     * @return number of counters whose stored value had drifted from the actual count
+     */
+    @Transactional
+    public int reconcile() {
+        entityManager.createNativeQuery("LOCK TABLE identities, identity_identifiers IN SHARE MODE")
+                .executeUpdate();
+
+        Number drifted = (Number) entityManager.createNativeQuery(
+                "WITH actual AS (" + ACTUAL_COUNTS + "), " +
+                "stored AS (SELECT scope, counter_key, sum(value) AS value FROM identity_counters GROUP BY scope, counter_key) " +
+                "SELECT count(*) FROM actual a FULL JOIN stored s ON a.scope = s.scope AND a.counter_key = s.counter_key " +
+                "WHERE coalesce(a.value, 0) <> coalesce(s.value, 0)")
+                .getSingleResult();
+
+        entityManager.createNativeQuery("DELETE FROM identity_counters").executeUpdate();
+        entityManager.createNativeQuery(
+                "INSERT INTO identity_counters (scope, counter_key, slot, value) " +
+                "SELECT scope, counter_key, 0, value FROM (" + ACTUAL_COUNTS + ") actual")
+                .executeUpdate();
+        return drifted.intValue();
+    }
+
+    private long sum(String scope, String key) {
+        Number count = (Number) entityManager.createNativeQuery(
+                "SELECT coalesce(sum(value), 0) FROM identity_counters WHERE scope = :scope AND counter_key = :key")
+                .setParameter("scope", scope)
+                .setParameter("key", key)
+                .getSingleResult();
+        return count.longValue();
+    }
+
+    private static final String ACTUAL_COUNTS =
+            "SELECT 'IDENTITY_TYPE' AS scope, identity_type_uuid::text AS counter_key, count(*) AS value " +
+            "FROM identities WHERE status <> 'DELETED' GROUP BY identity_type_uuid " +
+            "UNION ALL " +
+            "SELECT 'IDENTITY_STATUS', status, count(*) FROM identities GROUP BY status " +
+            "UNION ALL " +
+            "SELECT 'IDENTIFIER_TYPE', identifier_type_uuid::text, count(*) " +
+            "FROM identity_identifiers WHERE is_active GROUP BY identifier_type_uuid";
+}
@@ -0,0 +1,110 @@
+package org.identityshelf.data.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.identityshelf.core.domain.AttributeDataType;
+import org.identityshelf.core.domain.IdentifierType;
+import org.identityshelf.core.domain.IdentityType;
+import org.identityshelf.data.cache.DefinitionCacheRegions;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read access to the definition entities through the second-level cache.
+ *
+ * Lookups by id hit the entity region; lookups by name and listings are cacheable queries in
+ * {@link DefinitionCacheRegions#QUERIES}, which Hibernate invalidates on local writes to the queried tables
+ * and {@code DefinitionCacheInvalidationListener} on writes from other nodes. Single results are read as
+ * lists: result streams are neither served from nor put into the query cache.
+ */
+@Repository
+public class IdentityDefinitionRepository {
+
+    private final EntityManager entityManager;
+
+    public IdentityDefinitionRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Optional<IdentityType> findIdentityTypeByName(String name) {
+        return entityManager.createQuery(
+                        "select t from IdentityType t where t.name = :name",
+                        org.identityshelf.data.entity.IdentityType.class)
+                .setParameter("name", name)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, DefinitionCacheRegions.QUERIES)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(IdentityDefinitionRepository::toDomain);
+    }
+
+    public Optional<IdentifierType> findIdentifierTypeById(UUID uuid) {
+        return Optional.ofNullable(entityManager.find(org.identityshelf.data.entity.IdentifierType.class, uuid))
+                .map(IdentityDefinitionRepository::toDomain);
+    }
+
+    public Optional<IdentifierType> findIdentifierTypeByName(String name) {
+        return entityManager.createQuery(
+                        "select t from IdentifierType t where t.name = :name",
+                        org.identityshelf.data.entity.IdentifierType.class)
+                .setParameter("name", name)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, DefinitionCacheRegions.QUERIES)
+                .setMaxResults(1)
+                .getResultList()
+                .stream()
+                .findFirst()
+                .map(IdentityDefinitionRepository::toDomain);
+    }
+
+    /**
+     * All identifier types ordered by name
+     * @param searchableOnly restrict to active, searchable identifier types
+     */
+    public List<IdentifierType> findIdentifierTypes(boolean searchableOnly) {
+        String jpql = searchableOnly
+                ? "select t from IdentifierType t where t.active = true and t.searchable = true order by t.name"
+                : "select t from IdentifierType t order by t.name";
+        return entityManager.createQuery(jpql, org.identityshelf.data.entity.IdentifierType.class)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setHint(HibernateHints.HINT_CACHE_REGION, DefinitionCacheRegions.QUERIES)
+                .getResultList()
+                .stream()
+                .map(IdentityDefinitionRepository::toDomain)
+                .toList();
+    }
+
+    private static IdentityType toDomain(org.identityshelf.data.entity.IdentityType entity) {
+        return new IdentityType(
+                entity.getUuid(),
+                entity.getName(),
+                entity.getDisplayName(),
+                entity.getDescription(),
+                entity.isActive(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt());
+    }
+
+    private static IdentifierType toDomain(org.identityshelf.data.entity.IdentifierType entity) {
+        IdentifierType identifierType = new IdentifierType(
+                entity.getUuid(),
+                entity.getName(),
+                entity.getDisplayName(),
+                entity.getDescription(),
+                AttributeDataType.valueOf(entity.getDataType().name()),
+                entity.getValidationRegex(),
+                entity.getDefaultValue(),
+                entity.isUnique(),
+                entity.isSearchable(),
+                entity.isActive(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt());
+        identifierType.setCanonicalization(entity.getCanonicalization());
+        return identifierType;
+    }
+}
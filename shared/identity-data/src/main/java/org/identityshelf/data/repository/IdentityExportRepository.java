@@ -0,0 +1,90 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads all identities of a type for bulk export, with memory use independent of the result size.
+ *
+ * The identities come from one server-side cursor: inside the read-only transaction the driver fetches
+ * streamFetchSize rows per round trip instead of buffering the result. Every streamFetchSize identities
+ * are hydrated with their attributes and identifiers through IdentityAggregateLoader and handed to the
+ * caller, which writes them out before the next chunk is read.
+ */
+@Repository
+public class IdentityExportRepository {
+
+    private static final String SELECT_BY_TYPE =
+            "SELECT i.uuid, i.display_name, i.status, t.name AS identity_type_name, " +
+            "i.created_at, i.updated_at, i.version " +
+            "FROM identities i JOIN identity_types t ON t.uuid = i.identity_type_uuid " +
+            "WHERE t.name = ? AND i.status <> 'DELETED'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentityAggregateLoader aggregateLoader;
+    private final int streamFetchSize;
+
+    public IdentityExportRepository(JdbcTemplate jdbcTemplate,
+                                    IdentityAggregateLoader aggregateLoader,
+                                    @Value("${app.data.stream-fetch-size:1000}") int streamFetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.aggregateLoader = aggregateLoader;
+        this.streamFetchSize = streamFetchSize;
+    }
+
+    /**
+     * Hand every live identity of the type to the consumer, one hydrated chunk at a time
+     * @return number of identities exported
+     */
+    @Transactional(readOnly = true)
+    public long exportByType(String identityTypeName, Consumer<List<IdentityAggregate>> chunkConsumer) {
+        List<Identity> chunk = new ArrayList<>(streamFetchSize);
+        long[] exported = {0};
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(SELECT_BY_TYPE);
+                    ps.setFetchSize(streamFetchSize);
+                    ps.setString(1, identityTypeName);
+                    return ps;
+                },
+                rs -> {
+                    chunk.add(Identity.reconstitute(
+                            IdentityId.of(rs.getObject("uuid", UUID.class)),
+                            DisplayName.of(rs.getString("display_name")),
+                            IdentityStatus.fromString(rs.getString("status")),
+                            rs.getString("identity_type_name"),
+                            rs.getObject("created_at", OffsetDateTime.class),
+                            rs.getObject("updated_at", OffsetDateTime.class),
+                            Map.of(),
+                            rs.getLong("version")));
+                    if (chunk.size() == streamFetchSize) {
+                        exported[0] += flush(chunk, chunkConsumer);
+                    }
+                });
+        exported[0] += flush(chunk, chunkConsumer);
+        return exported[0];
+    }
+
+    private int flush(List<Identity> chunk, Consumer<List<IdentityAggregate>> chunkConsumer) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        int size = chunk.size();
+        chunkConsumer.accept(aggregateLoader.hydrate(chunk));
+        chunk.clear();
+        return size;
+    }
+}
@@ -0,0 +1,70 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.exception.IdentityConflictException;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
+import org.identityshelf.core.domain.valueobject.IdentityId;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes identifiers of an identity.
+ *
+ * Once identity_identifiers is partitioned by identity the database no longer enforces canonical uniqueness
+ * (see V33__enforce_canonical_identifier_uniqueness.sql), so every add goes through
+ * {@link IdentifierSearchRepository#violatesUniqueness(UUID, String)} in the inserting transaction.
+ */
+@Repository
+public class IdentityIdentifierRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentifierSearchRepository searchRepository;
+
+    public IdentityIdentifierRepository(JdbcTemplate jdbcTemplate, IdentifierSearchRepository searchRepository) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.searchRepository = searchRepository;
+    }
+
+    /**
+     * Add an active identifier to a live identity; a primary one takes over from the identity's current primary
+     * @return the uuid of the new identifier
+     * @throws IdentityNotFoundException if the identity does not exist or is deleted
+     * @throws IdentityConflictException if the identifier type is unique and the value is already in use
+     * @throws IllegalArgumentException if the identifier type does not exist
+     */
+    @Transactional
+    public UUID add(IdentityId identityId, UUID identifierTypeUuid, String value, boolean primary) {
+        // Locks the identity against a concurrent delete or primary change until the identifier is in
+        List<UUID> identity = jdbcTemplate.queryForList(
+                "SELECT uuid FROM identities WHERE uuid = ? AND status <> 'DELETED' FOR UPDATE",
+                UUID.class, identityId.getValue());
+        if (identity.isEmpty()) {
+            throw new IdentityNotFoundException(identityId);
+        }
+
+        if (searchRepository.violatesUniqueness(identifierTypeUuid, value)) {
+            throw new IdentityConflictException(identityId,
+                    "Identifier value is already in use for identifier type " + identifierTypeUuid);
+        }
+
+        if (primary) {
+            jdbcTemplate.update(
+                    "UPDATE identity_identifiers SET is_primary = FALSE, updated_at = now() " +
+                    "WHERE identity_uuid = ? AND is_primary = TRUE",
+                    identityId.getValue());
+        }
+
+        // canonicalize_identifier_value matches IdentifierCanonicalization, see V33
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO identity_identifiers (uuid, identity_uuid, identifier_type_uuid, identifier_value, " +
+                "normalized_value, is_primary, is_verified, is_active, created_at, updated_at) " +
+                "SELECT gen_random_uuid(), ?, t.uuid, ?, canonicalize_identifier_value(?, t.canonicalization), ?, " +
+                "FALSE, TRUE, now(), now() " +
+                "FROM identifier_types t WHERE t.uuid = ? " +
+                "RETURNING uuid",
+                UUID.class, identityId.getValue(), value, value, primary, identifierTypeUuid);
+    }
+}
@@ -0,0 +1,139 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.event.DomainEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Transactional outbox for domain events (see V28__create_identity_outbox.sql).
+ *
+ * Events are appended by the repository that stores the aggregate, inside the same transaction, so an
+ * event exists exactly when its change committed. The relay claims batches with FOR UPDATE SKIP LOCKED,
+ * hands them to the sinks and deletes them in the claiming transaction; delivery is at-least-once and
+ * consumers deduplicate on the event id.
+ */
+@Repository
+public class IdentityOutboxRepository {
+
+    private static final RowMapper<OutboxEvent> OUTBOX_ROW_MAPPER = (rs, rowNum) -> new OutboxEvent(
+            rs.getLong("id"),
+            rs.getObject("event_uuid", UUID.class),
+            rs.getString("aggregate_type"),
+            rs.getObject("aggregate_uuid", UUID.class),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getObject("occurred_at", OffsetDateTime.class),
+            rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdentityOutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Append events in the caller's transaction; the payload becomes a JSON object of its name/value pairs
+     */
+    public void append(Collection<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        // jsonb_object_agg over an empty set is NULL, hence the coalesce
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO identity_outbox (event_uuid, aggregate_type, aggregate_uuid, event_type, payload, occurred_at) " +
+                "VALUES (?, ?, ?, ?, coalesce(" +
+                "(SELECT jsonb_object_agg(t.name, t.value) FROM unnest(?::text[], ?::text[]) AS t(name, value)), " +
+                "'{}'::jsonb), ?)",
+                new ArrayList<>(events),
+                events.size(),
+                (ps, event) -> {
+                    List<String> names = new ArrayList<>(event.getPayload().keySet());
+                    List<String> values = new ArrayList<>(event.getPayload().values());
+                    ps.setObject(1, event.getEventId());
+                    ps.setString(2, event.getAggregateType());
+                    ps.setObject(3, event.getAggregateId());
+                    ps.setString(4, event.getEventType());
+                    ps.setArray(5, ps.getConnection().createArrayOf("text", names.toArray()));
+                    ps.setArray(6, ps.getConnection().createArrayOf("text", values.toArray()));
+                    ps.setObject(7, event.getOccurredOn());
+                });
+    }
+
+    /**
+     * Claim the oldest deliverable events for the current transaction. Rows locked by another relay are
+     * skipped, and events that already failed maxAttempts times stay parked for an operator. An event that
+     * failed n times waits backoff * 2^(n-1), at most maxBackoff, after its last attempt before it is claimed
+     * again, so a failing sink is not hammered every run and later events are not held up behind it.
+     */
+    public List<OutboxEvent> claimBatch(int batchSize, int maxAttempts, Duration backoff, Duration maxBackoff) {
+        return jdbcTemplate.query(
+                "SELECT id, event_uuid, aggregate_type, aggregate_uuid, event_type, payload::text AS payload, " +
+                "occurred_at, attempts FROM identity_outbox WHERE attempts < ? " +
+                "AND (attempts = 0 OR last_attempt_at <= now() - make_interval(secs => least(? * power(2, attempts - 1), ?))) " +
+                "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+                OUTBOX_ROW_MAPPER, maxAttempts, backoff.toMillis() / 1000.0, maxBackoff.toMillis() / 1000.0, batchSize);
+    }
+
+    /**
+     * Remove delivered events
+     */
+    public void delete(Collection<Long> ids) {
+        jdbcTemplate.update(
+                con -> {
+                    var ps = con.prepareStatement("DELETE FROM identity_outbox WHERE id = ANY(?)");
+                    ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+                    return ps;
+                });
+    }
+
+    /**
+     * Count a failed delivery against the events; run it after the claiming transaction rolled back
+     */
+    public void recordFailure(Collection<Long> ids, String error) {
+        jdbcTemplate.update(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "UPDATE identity_outbox SET attempts = attempts + 1, last_error = ?, last_attempt_at = now() " +
+                            "WHERE id = ANY(?)");
+                    ps.setString(1, error);
+                    ps.setArray(2, con.createArrayOf("bigint", ids.toArray()));
+                    return ps;
+                });
+    }
+
+    /**
+     * Events still to be delivered
+     */
+    public long countPending(int maxAttempts) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM identity_outbox WHERE attempts < ?", Long.class, maxAttempts);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Events that exhausted their delivery attempts
+     */
+    public long countParked(int maxAttempts) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM identity_outbox WHERE attempts >= ?", Long.class, maxAttempts);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Age of the oldest deliverable event, i.e. how far the relay is behind; zero when the outbox is drained
+     */
+    public Duration oldestPendingAge(int maxAttempts) {
+        Double seconds = jdbcTemplate.queryForObject(
+                "SELECT coalesce(extract(epoch FROM now() - min(created_at)), 0) FROM identity_outbox WHERE attempts < ?",
+                Double.class, maxAttempts);
+        return seconds != null ? Duration.ofMillis((long) (seconds * 1000)) : Duration.ZERO;
+    }
+}
@@ -0,0 +1,52 @@
+package org.identityshelf.data.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+/**
+ * Physically removes tombstoned (DELETED) identities once their retention has passed.
+ * Identifiers go with them through ON DELETE CASCADE; the attribute value foreign key does not
+ * cascade, so the same statement deletes their attribute rows first.
+ *
+ * Each chunk locks its victims with FOR UPDATE SKIP LOCKED: rows another purge worker holds are
+ * skipped rather than waited on, so parallel runs split the backlog instead of serialising on it.
+ */
+@Repository
+public class IdentityPurgeRepository {
+
+    private static final String PURGE_CHUNK =
+            "WITH doomed AS (" +
+            "SELECT uuid FROM identities " +
+            "WHERE status = 'DELETED' AND deleted_at < now() - make_interval(secs => ?) " +
+            "ORDER BY deleted_at LIMIT ? FOR UPDATE SKIP LOCKED), " +
+            "attributes AS (" +
+            "DELETE FROM identity_attribute_values v USING doomed d WHERE v.identity_uuid = d.uuid) " +
+            "DELETE FROM identities i USING doomed d WHERE i.uuid = d.uuid";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdentityPurgeRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Delete up to chunkSize tombstones older than the retention, oldest first.
+     * Run it in its own short transaction so the row locks are held for one chunk only.
+     * @return number of identities removed; 0 when nothing eligible is left
+     */
+    public int purgeChunk(Duration retention, int chunkSize) {
+        return jdbcTemplate.update(PURGE_CHUNK, retention.toSeconds(), chunkSize);
+    }
+
+    /**
+     * Tombstones already past their retention, i.e. the work the purge has not caught up with yet
+     */
+    public long countOverdue(Duration retention) {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM identities WHERE status = 'DELETED' AND deleted_at < now() - make_interval(secs => ?)",
+                Long.class, retention.toSeconds());
+        return count != null ? count : 0;
+    }
+}
@@ -1,16 +1,44 @@
 package org.identityshelf.data.repository;
 
 import org.identityshelf.core.domain.Identity;
+import org.identityshelf.core.domain.definition.DefinitionSnapshotService;
+import org.identityshelf.core.domain.definition.IdentityTypeDefinition;
+import org.identityshelf.core.domain.event.DomainEvent;
+import org.identityshelf.core.domain.exception.IdentityConflictException;
+import org.identityshelf.core.domain.exception.IdentityNotFoundException;
+import org.identityshelf.core.domain.valueobject.AttributeValue;
 import org.identityshelf.core.domain.valueobject.IdentityId;
 import org.identityshelf.core.domain.valueobject.DisplayName;
+import org.identityshelf.core.domain.valueobject.IdentityCursor;
+import org.identityshelf.core.domain.valueobject.IdentitySortOrder;
 import org.identityshelf.core.domain.valueobject.IdentityStatus;
+import org.identityshelf.core.repository.IdentityPatch;
 import org.identityshelf.core.repository.IdentityRepository;
+import org.identityshelf.core.repository.IdentitySlice;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * JPA implementation of IdentityRepository
@@ -19,31 +47,223 @@ import java.util.UUID;
 @Repository
 public class JpaIdentityRepository implements IdentityRepository {
     
+    // Statuses that allow changes to the display name, as IdentityStatus.canBeModified() decides
+    private static final String MODIFIABLE_STATUSES = Arrays.stream(IdentityStatus.values())
+            .filter(IdentityStatus::canBeModified)
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", "));
+    
     private final SpringDataIdentityRepository springDataRepo;
+    private final IdentityCounterRepository counterRepository;
+    private final IdentityAttributeStore attributeStore;
+    private final IdentityOutboxRepository outboxRepository;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final DefinitionSnapshotService definitionSnapshots;
+    private final int streamFetchSize;
+    private final int batchSize;
     
-    public JpaIdentityRepository(SpringDataIdentityRepository springDataRepo) {
+    public JpaIdentityRepository(SpringDataIdentityRepository springDataRepo,
+                                 IdentityCounterRepository counterRepository,
+                                 IdentityAttributeStore attributeStore,
+                                 IdentityOutboxRepository outboxRepository,
+                                 EntityManager entityManager,
+                                 JdbcTemplate jdbcTemplate,
+                                 DefinitionSnapshotService definitionSnapshots,
+                                 @Value("${app.data.stream-fetch-size:1000}") int streamFetchSize,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.springDataRepo = springDataRepo;
+        this.counterRepository = counterRepository;
+        this.attributeStore = attributeStore;
+        this.outboxRepository = outboxRepository;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.definitionSnapshots = definitionSnapshots;
+        this.streamFetchSize = streamFetchSize;
+        this.batchSize = batchSize;
     }
     
     @Override
+    @Transactional
     public Identity save(Identity identity) {
         // Convert domain entity to JPA entity and save
         org.identityshelf.data.entity.Identity entity = convertToEntity(identity);
-        org.identityshelf.data.entity.Identity savedEntity = springDataRepo.save(entity);
-        return convertToDomain(savedEntity);
+        org.identityshelf.data.entity.Identity savedEntity;
+        try {
+            savedEntity = springDataRepo.save(entity);
+            entityManager.flush();
+        } catch (OptimisticLockException | OptimisticLockingFailureException e) {
+            throw concurrentModification(identity);
+        }
+        
+        // A new aggregate stores exactly its attributes; an existing one writes those it carries and keeps the rest
+        if (identity.isNew()) {
+            attributeStore.writeAll(Map.of(identity.getUuid(), identity.getAttributes()));
+        } else if (!identity.getAttributes().isEmpty()) {
+            attributeStore.mergeAll(Map.of(identity.getUuid(), identity.getAttributes()));
+        }
+        
+        // Raised events commit or roll back together with the change that raised them
+        outboxRepository.append(identity.getDomainEvents());
+        identity.clearDomainEvents();
+        return convertToDomain(savedEntity, identity.getAttributes());
+    }
+    
+    @Override
+    @Transactional
+    public List<Identity> saveAll(Collection<Identity> identities) {
+        List<Identity> saved = new ArrayList<>(identities.size());
+        List<org.identityshelf.data.entity.Identity> batch = new ArrayList<>(batchSize);
+        Map<UUID, Map<String, AttributeValue>> attributes = new LinkedHashMap<>();
+        Map<UUID, Map<String, AttributeValue>> newAttributes = new LinkedHashMap<>();
+        Map<UUID, Map<String, AttributeValue>> changedAttributes = new LinkedHashMap<>();
+        List<DomainEvent> events = new ArrayList<>();
+        for (Identity identity : identities) {
+            org.identityshelf.data.entity.Identity entity = convertToEntity(identity);
+            if (entity.isNew()) {
+                entityManager.persist(entity);
+                newAttributes.put(identity.getUuid(), identity.getAttributes());
+            } else {
+                try {
+                    entity = entityManager.merge(entity);
+                } catch (OptimisticLockException e) {
+                    throw concurrentModification(identity);
+                }
+                if (!identity.getAttributes().isEmpty()) {
+                    changedAttributes.put(identity.getUuid(), identity.getAttributes());
+                }
+            }
+            batch.add(entity);
+            attributes.put(identity.getUuid(), identity.getAttributes());
+            events.addAll(identity.getDomainEvents());
+            identity.clearDomainEvents();
+            
+            // Flush once per JDBC batch and clear so the persistence context stays bounded
+            if (batch.size() == batchSize) {
+                flushAndClear(batch, attributes, saved);
+            }
+        }
+        flushAndClear(batch, attributes, saved);
+        attributeStore.writeAll(newAttributes);
+        attributeStore.mergeAll(changedAttributes);
+        outboxRepository.append(events);
+        return saved;
+    }
+    
+    @Override
+    @Transactional
+    public Identity patch(IdentityId id, Long expectedVersion, IdentityPatch patch) {
+        StringBuilder sql = new StringBuilder("UPDATE identities i SET version = i.version + 1, updated_at = now()");
+        StringBuilder conditions = new StringBuilder(" WHERE i.uuid = ? AND i.status <> 'DELETED'");
+        List<Object> setArgs = new ArrayList<>();
+        List<Object> whereArgs = new ArrayList<>();
+        whereArgs.add(id.getValue());
+        
+        if (expectedVersion != null) {
+            conditions.append(" AND i.version = ?");
+            whereArgs.add(expectedVersion);
+        }
+        patch.newDisplayName().ifPresent(displayName -> {
+            sql.append(", display_name = ?");
+            setArgs.add(displayName.getValue());
+            conditions.append(" AND i.status IN (").append(MODIFIABLE_STATUSES).append(")")
+                    .append(" AND NOT EXISTS (SELECT 1 FROM identities o WHERE o.identity_type_uuid = i.identity_type_uuid")
+                    .append(" AND o.display_name = ? AND o.uuid <> i.uuid AND o.status <> 'DELETED')");
+            whereArgs.add(displayName.getValue());
+        });
+        patch.newStatus().ifPresent(status -> {
+            sql.append(", status = ?");
+            setArgs.add(status.name());
+            conditions.append(" AND i.status <> ?");
+            whereArgs.add(status.name());
+        });
+        sql.append(conditions)
+                .append(" RETURNING i.uuid, i.display_name, i.status, i.created_at, i.updated_at, i.version,")
+                .append(" (SELECT t.name FROM identity_types t WHERE t.uuid = i.identity_type_uuid) AS identity_type_name");
+        
+        List<Object> args = new ArrayList<>(setArgs);
+        args.addAll(whereArgs);
+        List<Identity> updated = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> Identity.reconstitute(
+                IdentityId.of(rs.getObject("uuid", UUID.class)),
+                DisplayName.of(rs.getString("display_name")),
+                IdentityStatus.fromString(rs.getString("status")),
+                rs.getString("identity_type_name"),
+                rs.getObject("created_at", OffsetDateTime.class),
+                rs.getObject("updated_at", OffsetDateTime.class),
+                Map.of(),
+                rs.getLong("version")), args.toArray());
+        if (!updated.isEmpty()) {
+            return updated.get(0);
+        }
+        throw explainRejectedPatch(id, expectedVersion, patch);
+    }
+    
+    /**
+     * Write the pending batch and hand back its aggregates as stored: no longer new and at the version the
+     * flush gave them. An update that finds its row at another version is a concurrent modification.
+     */
+    private void flushAndClear(List<org.identityshelf.data.entity.Identity> batch,
+                               Map<UUID, Map<String, AttributeValue>> attributes, List<Identity> saved) {
+        try {
+            entityManager.flush();
+        } catch (OptimisticLockException e) {
+            if (e.getEntity() instanceof org.identityshelf.data.entity.Identity entity) {
+                IdentityId id = IdentityId.of(entity.getUuid());
+                throw new IdentityConflictException(id, "Identity " + id + " was modified concurrently");
+            }
+            throw e;
+        }
+        for (org.identityshelf.data.entity.Identity entity : batch) {
+            saved.add(convertToDomain(entity, attributes.get(entity.getUuid())));
+        }
+        batch.clear();
+        attributes.clear();
+        entityManager.clear();
+    }
+    
+    /**
+     * The aggregate was read at a version that has since moved on, reported like a rejected versioned patch
+     */
+    private static IdentityConflictException concurrentModification(Identity identity) {
+        return new IdentityConflictException(identity.getId(), "Identity " + identity.getId()
+                + " was modified concurrently: expected version " + identity.getVersion());
+    }
+    
+    /**
+     * Find out why a conditional update matched no row; only runs on the failure path
+     */
+    private RuntimeException explainRejectedPatch(IdentityId id, Long expectedVersion, IdentityPatch patch) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT status, version FROM identities WHERE uuid = ? AND status <> 'DELETED'", id.getValue());
+        if (rows.isEmpty()) {
+            return new IdentityNotFoundException(id);
+        }
+        IdentityStatus current = IdentityStatus.fromString((String) rows.get(0).get("status"));
+        long currentVersion = ((Number) rows.get(0).get("version")).longValue();
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            return new IdentityConflictException(id, "Identity " + id + " was modified concurrently: expected version "
+                    + expectedVersion + " but found " + currentVersion);
+        }
+        if (patch.newStatus().filter(status -> status == current).isPresent()) {
+            return new IdentityConflictException(id, "Identity is already " + current.getDisplayName().toLowerCase());
+        }
+        if (patch.newDisplayName().isPresent() && !current.canBeModified()) {
+            return new IdentityConflictException(id, "Cannot modify identity with status: " + current);
+        }
+        return new IdentityConflictException(id, "Display name already exists: " + patch.displayName().getValue());
     }
     
     @Override
     public Optional<Identity> findById(IdentityId id) {
         return springDataRepo.findById(id.getValue())
-                .map(this::convertToDomain);
+                .map(this::convertToDomainWithAttributes);
     }
     
     @Override
     public Optional<Identity> findByDisplayNameAndType(DisplayName displayName, String identityTypeName) {
         return springDataRepo.findByDisplayNameAndIdentityTypeName(
                 displayName.getValue(), identityTypeName)
-                .map(this::convertToDomain);
+                .map(this::convertToDomainWithAttributes);
     }
     
     @Override
@@ -75,18 +295,104 @@ public class JpaIdentityRepository implements IdentityRepository {
     }
     
     @Override
+    public Stream<Identity> streamByType(String identityTypeName) {
+        return streamEntities(
+                "select i from Identity i join IdentityType t on t.uuid = i.identityTypeUuid where t.name = :value",
+                identityTypeName);
+    }
+    
+    @Override
+    public Stream<Identity> streamByStatus(String status) {
+        return streamEntities(
+                "select i from Identity i where i.status = :value",
+                status);
+    }
+    
+    @Override
+    public IdentitySlice findSlice(IdentitySortOrder sortOrder, IdentityCursor after, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (after != null && after.getSortOrder() != sortOrder) {
+            throw new IllegalArgumentException("Cursor was issued for sort order " + after.getSortOrder().getParameterName());
+        }
+        
+        // Row-value comparison lets PostgreSQL seek straight into the matching
+        // (sort column, uuid) index instead of skipping over an offset
+        String sortColumn = switch (sortOrder) {
+            case CREATED_AT -> "i.createdAt";
+            case DISPLAY_NAME -> "i.displayName";
+        };
+        String jpql = "select i from Identity i"
+                + (after != null ? " where (" + sortColumn + ", i.uuid) > (:sortKey, :uuid)" : "")
+                + " order by " + sortColumn + ", i.uuid";
+        
+        TypedQuery<org.identityshelf.data.entity.Identity> query =
+                entityManager.createQuery(jpql, org.identityshelf.data.entity.Identity.class)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .setMaxResults(limit + 1);
+        if (after != null) {
+            query.setParameter("sortKey", sortOrder == IdentitySortOrder.CREATED_AT
+                    ? after.getCreatedAtKey() : after.getSortKey());
+            query.setParameter("uuid", after.getUuid());
+        }
+        
+        // One extra row tells us whether another page exists without a count(*)
+        List<Identity> identities = query.getResultList()
+                .stream()
+                .map(this::convertToDomain)
+                .toList();
+        if (identities.size() <= limit) {
+            return new IdentitySlice(identities, null);
+        }
+        List<Identity> page = identities.subList(0, limit);
+        return new IdentitySlice(page, IdentityCursor.after(sortOrder, page.get(limit - 1)));
+    }
+    
+    @Override
+    @Transactional
     public void deleteById(IdentityId id) {
-        springDataRepo.deleteById(id.getValue());
+        // Tombstone the identity and release its identifiers in one round trip; the purge job removes the rows
+        Long tombstoned = jdbcTemplate.queryForObject(
+                "WITH tombstoned AS (" +
+                "UPDATE identities SET status = 'DELETED', deleted_at = now(), updated_at = now(), version = version + 1 " +
+                "WHERE uuid = ? AND status <> 'DELETED' RETURNING uuid), " +
+                "released AS (" +
+                "UPDATE identity_identifiers ii SET is_active = FALSE, is_primary = FALSE, updated_at = now() " +
+                "FROM tombstoned t WHERE ii.identity_uuid = t.uuid AND ii.is_active RETURNING ii.uuid) " +
+                "SELECT count(*) FROM tombstoned",
+                Long.class, id.getValue());
+        if (tombstoned == null || tombstoned == 0) {
+            throw new IdentityNotFoundException(id);
+        }
     }
     
     @Override
     public long countByType(String identityTypeName) {
-        return springDataRepo.countByIdentityTypeName(identityTypeName);
+        return counterRepository.countIdentitiesByTypeName(identityTypeName);
     }
     
     @Override
     public long countByStatus(String status) {
-        return springDataRepo.countByStatus(status);
+        return counterRepository.countIdentitiesByStatus(status);
+    }
+    
+    /**
+     * Runs the query as a forward-only cursor. With a fetch size set and the surrounding
+     * transaction holding the connection, the PostgreSQL driver reads rows in batches of
+     * streamFetchSize instead of buffering the full result. Each entity is detached once
+     * converted so the persistence context does not grow with the result.
+     */
+    private Stream<Identity> streamEntities(String jpql, String value) {
+        return entityManager.createQuery(jpql, org.identityshelf.data.entity.Identity.class)
+                .setParameter("value", value)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, streamFetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(entity -> {
+                    entityManager.detach(entity);
+                    return convertToDomain(entity);
+                });
     }
     
     // Conversion methods between domain and JPA entities
@@ -95,49 +401,45 @@ public class JpaIdentityRepository implements IdentityRepository {
         entity.setUuid(domain.getUuid());
         entity.setDisplayName(domain.getDisplayName().getValue());
         entity.setStatus(domain.getStatus().name());
+        entity.setIdentityTypeUuid(identityTypeUuid(domain.getIdentityTypeName()));
         entity.setIdentityTypeName(domain.getIdentityTypeName());
         entity.setCreatedAt(domain.getCreatedAt());
         entity.setUpdatedAt(domain.getUpdatedAt());
+        entity.setVersion(domain.getVersion());
+        entity.setNewEntity(domain.isNew());
         return entity;
     }
     
-    private Identity convertToDomain(org.identityshelf.data.entity.Identity entity) {
-        // Create domain identity using reflection to access private constructor
-        // This is necessary because the domain Identity only has a factory method
-        try {
-            java.lang.reflect.Constructor<Identity> constructor = Identity.class.getDeclaredConstructor();
-            constructor.setAccessible(true);
-            Identity identity = constructor.newInstance();
-            
-            // Set fields using reflection
-            java.lang.reflect.Field idField = Identity.class.getDeclaredField("id");
-            idField.setAccessible(true);
-            idField.set(identity, IdentityId.of(entity.getUuid()));
-            
-            java.lang.reflect.Field displayNameField = Identity.class.getDeclaredField("displayName");
-            displayNameField.setAccessible(true);
-            displayNameField.set(identity, DisplayName.of(entity.getDisplayName()));
-            
-            java.lang.reflect.Field statusField = Identity.class.getDeclaredField("status");
-            statusField.setAccessible(true);
-            statusField.set(identity, IdentityStatus.fromString(entity.getStatus()));
-            
-            java.lang.reflect.Field typeField = Identity.class.getDeclaredField("identityTypeName");
-            typeField.setAccessible(true);
-            typeField.set(identity, entity.getIdentityTypeName());
-            
-            java.lang.reflect.Field createdAtField = Identity.class.getDeclaredField("createdAt");
-            createdAtField.setAccessible(true);
-            createdAtField.set(identity, entity.getCreatedAt());
-            
-            java.lang.reflect.Field updatedAtField = Identity.class.getDeclaredField("updatedAt");
-            updatedAtField.setAccessible(true);
-            updatedAtField.set(identity, entity.getUpdatedAt());
-            
-            return identity;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to convert JPA entity to domain entity", e);
+    /**
+     * identities references its type by UUID; the snapshot resolves the name without a query
+     */
+    private UUID identityTypeUuid(String identityTypeName) {
+        IdentityTypeDefinition type = definitionSnapshots.findIdentityType(identityTypeName);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown identity type: " + identityTypeName);
         }
+        return type.uuid();
+    }
+    
+    private Identity convertToDomain(org.identityshelf.data.entity.Identity entity) {
+        return convertToDomain(entity, Map.of());
+    }
+    
+    private Identity convertToDomainWithAttributes(org.identityshelf.data.entity.Identity entity) {
+        return convertToDomain(entity, attributeStore.loadAll(List.of(entity.getUuid()))
+                .getOrDefault(entity.getUuid(), Map.of()));
+    }
+    
+    private Identity convertToDomain(org.identityshelf.data.entity.Identity entity, Map<String, AttributeValue> attributes) {
+        return Identity.reconstitute(
+                IdentityId.of(entity.getUuid()),
+                DisplayName.of(entity.getDisplayName()),
+                IdentityStatus.fromString(entity.getStatus()),
+                entity.getIdentityTypeName(),
+                entity.getCreatedAt(),
+                entity.getUpdatedAt(),
+                attributes,
+                entity.getVersion());
     }
     
     /**
@@ -145,12 +447,28 @@ public class JpaIdentityRepository implements IdentityRepository {
      * This handles the actual database operations
      */
     public interface SpringDataIdentityRepository extends JpaRepository<org.identityshelf.data.entity.Identity, UUID> {
-        Optional<org.identityshelf.data.entity.Identity> findByDisplayNameAndIdentityTypeName(String displayName, String identityTypeName);
-        boolean existsByDisplayNameAndIdentityTypeName(String displayName, String identityTypeName);
-        boolean existsByDisplayNameAndIdentityTypeNameAndUuidNot(String displayName, String identityTypeName, UUID excludeId);
-        List<org.identityshelf.data.entity.Identity> findByIdentityTypeName(String identityTypeName);
+        // identities stores the type by UUID; the type name is matched through identity_types
+        @Query("select i from Identity i join IdentityType t on t.uuid = i.identityTypeUuid " +
+               "where i.displayName = :displayName and t.name = :identityTypeName")
+        Optional<org.identityshelf.data.entity.Identity> findByDisplayNameAndIdentityTypeName(
+                @Param("displayName") String displayName, @Param("identityTypeName") String identityTypeName);
+        
+        @Query("select case when count(i) > 0 then true else false end from Identity i " +
+               "join IdentityType t on t.uuid = i.identityTypeUuid " +
+               "where i.displayName = :displayName and t.name = :identityTypeName")
+        boolean existsByDisplayNameAndIdentityTypeName(
+                @Param("displayName") String displayName, @Param("identityTypeName") String identityTypeName);
+        
+        @Query("select case when count(i) > 0 then true else false end from Identity i " +
+               "join IdentityType t on t.uuid = i.identityTypeUuid " +
+               "where i.displayName = :displayName and t.name = :identityTypeName and i.uuid <> :excludeId")
+        boolean existsByDisplayNameAndIdentityTypeNameAndUuidNot(
+                @Param("displayName") String displayName, @Param("identityTypeName") String identityTypeName,
+                @Param("excludeId") UUID excludeId);
+        
+        @Query("select i from Identity i join IdentityType t on t.uuid = i.identityTypeUuid where t.name = :identityTypeName")
+        List<org.identityshelf.data.entity.Identity> findByIdentityTypeName(@Param("identityTypeName") String identityTypeName);
+        
         List<org.identityshelf.data.entity.Identity> findByStatus(String status);
-        long countByIdentityTypeName(String identityTypeName);
-        long countByStatus(String status);
     }
 }
@@ -0,0 +1,104 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Document layout: all attributes of an identity live in identities.attributes as one JSONB object
+ * of attribute name to value. Equality lookups go through the jsonb_path_ops GIN index.
+ */
+@Repository
+@ConditionalOnProperty(name = "app.data.attribute-storage", havingValue = "jsonb")
+public class JsonbIdentityAttributeStore implements IdentityAttributeStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JsonbIdentityAttributeStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<UUID, Map<String, AttributeValue>> loadAll(Collection<UUID> identityUuids) {
+        Map<UUID, Map<String, AttributeValue>> result = new HashMap<>();
+        if (identityUuids.isEmpty()) {
+            return result;
+        }
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "SELECT i.uuid, a.key, a.value FROM identities i " +
+                            "CROSS JOIN LATERAL jsonb_each_text(i.attributes) a " +
+                            "WHERE i.uuid = ANY(?)");
+                    ps.setArray(1, con.createArrayOf("uuid", identityUuids.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    String name = rs.getString("key");
+                    result.computeIfAbsent(rs.getObject("uuid", UUID.class), k -> new LinkedHashMap<>())
+                            .put(name, AttributeValue.of(rs.getString("value"), name));
+                });
+        return result;
+    }
+
+    @Override
+    public void writeAll(Map<UUID, Map<String, AttributeValue>> attributesByIdentity) {
+        write(attributesByIdentity, false);
+    }
+
+    @Override
+    public void mergeAll(Map<UUID, Map<String, AttributeValue>> attributesByIdentity) {
+        write(attributesByIdentity, true);
+    }
+
+    private void write(Map<UUID, Map<String, AttributeValue>> attributesByIdentity, boolean merge) {
+        List<Object[]> updates = new ArrayList<>(attributesByIdentity.size());
+        attributesByIdentity.forEach((identityUuid, attributes) -> {
+            List<String> names = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            attributes.values().stream()
+                    .filter(AttributeValue::hasValue)
+                    .forEach(attribute -> {
+                        names.add(attribute.getAttributeName());
+                        values.add(attribute.getValue());
+                    });
+            updates.add(new Object[] {attributes.keySet().toArray(String[]::new),
+                    names.toArray(String[]::new), values.toArray(String[]::new), identityUuid});
+        });
+
+        // A merge drops every named attribute and adds back those with a value; a write starts from an
+        // empty document. jsonb_object_agg over an empty set is NULL, hence the coalesce
+        String base = merge ? "(attributes - ?::text[])" : "'{}'::jsonb";
+        jdbcTemplate.batchUpdate(
+                "UPDATE identities SET attributes = " + base + " || coalesce(" +
+                "(SELECT jsonb_object_agg(t.name, t.value) FROM unnest(?::text[], ?::text[]) AS t(name, value)), " +
+                "'{}'::jsonb) WHERE uuid = ?",
+                updates,
+                updates.size(),
+                (ps, update) -> {
+                    int index = 1;
+                    if (merge) {
+                        ps.setArray(index++, ps.getConnection().createArrayOf("text", (String[]) update[0]));
+                    }
+                    ps.setArray(index++, ps.getConnection().createArrayOf("text", (String[]) update[1]));
+                    ps.setArray(index++, ps.getConnection().createArrayOf("text", (String[]) update[2]));
+                    ps.setObject(index, update[3]);
+                });
+    }
+
+    @Override
+    public List<UUID> findIdentityUuidsByAttribute(String attributeName, String value) {
+        return jdbcTemplate.queryForList(
+                "SELECT uuid FROM identities WHERE attributes @> jsonb_build_object(?::text, ?::text) AND status <> 'DELETED'",
+                UUID.class, attributeName, value);
+    }
+}
@@ -0,0 +1,20 @@
+package org.identityshelf.data.repository;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A domain event as stored in identity_outbox, waiting to be relayed
+ * @param id outbox position; increases with insert order, which need not match commit order
+ * @param payload the event data as a JSON object
+ */
+public record OutboxEvent(
+        long id,
+        UUID eventId,
+        String aggregateType,
+        UUID aggregateId,
+        String eventType,
+        String payload,
+        OffsetDateTime occurredOn,
+        int attempts) {
+}
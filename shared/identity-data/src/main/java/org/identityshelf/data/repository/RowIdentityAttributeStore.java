@@ -0,0 +1,207 @@
+package org.identityshelf.data.repository;
+
+import org.identityshelf.core.domain.valueobject.AttributeValue;
+import org.identityshelf.core.domain.valueobject.UuidV7;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Row-per-attribute layout: one identity_attribute_values row with typed value columns per attribute
+ */
+@Repository
+@ConditionalOnProperty(name = "app.data.attribute-storage", havingValue = "rows", matchIfMissing = true)
+public class RowIdentityAttributeStore implements IdentityAttributeStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RowIdentityAttributeStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<UUID, Map<String, AttributeValue>> loadAll(Collection<UUID> identityUuids) {
+        Map<UUID, Map<String, AttributeValue>> result = new HashMap<>();
+        if (identityUuids.isEmpty()) {
+            return result;
+        }
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement(
+                            "SELECT v.identity_uuid, a.name, a.data_type, v.string_value, v.integer_value, " +
+                            "v.decimal_value, v.boolean_value, v.date_value " +
+                            "FROM identity_attribute_values v " +
+                            "JOIN attribute_types a ON a.uuid = v.attribute_type_uuid " +
+                            "WHERE v.identity_uuid = ANY(?)");
+                    ps.setArray(1, con.createArrayOf("uuid", identityUuids.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    String name = rs.getString("name");
+                    String value = switch (rs.getString("data_type")) {
+                        case "INTEGER" -> format(rs.getObject("integer_value", Long.class));
+                        case "DECIMAL" -> format(rs.getObject("decimal_value", Double.class));
+                        case "BOOLEAN" -> format(rs.getObject("boolean_value", Boolean.class));
+                        case "DATE" -> formatDate(rs.getObject("date_value", OffsetDateTime.class));
+                        case "DATETIME" -> formatDateTime(rs.getObject("date_value", OffsetDateTime.class));
+                        default -> rs.getString("string_value");
+                    };
+                    result.computeIfAbsent(rs.getObject("identity_uuid", UUID.class), k -> new LinkedHashMap<>())
+                            .put(name, AttributeValue.of(value, name));
+                });
+        return result;
+    }
+
+    @Override
+    public void writeAll(Map<UUID, Map<String, AttributeValue>> attributesByIdentity) {
+        if (attributesByIdentity.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = toRows(attributesByIdentity);
+
+        jdbcTemplate.update(con -> {
+            var ps = con.prepareStatement("DELETE FROM identity_attribute_values WHERE identity_uuid = ANY(?)");
+            ps.setArray(1, con.createArrayOf("uuid", attributesByIdentity.keySet().toArray()));
+            return ps;
+        });
+        insertRows(rows);
+    }
+
+    @Override
+    public void mergeAll(Map<UUID, Map<String, AttributeValue>> attributesByIdentity) {
+        if (attributesByIdentity.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = toRows(attributesByIdentity);
+
+        // Only the named attributes are replaced; empty values are deleted and not re-inserted
+        List<Map.Entry<UUID, String[]>> replaced = attributesByIdentity.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().keySet().toArray(String[]::new)))
+                .toList();
+        jdbcTemplate.batchUpdate(
+                "DELETE FROM identity_attribute_values v USING attribute_types a " +
+                "WHERE a.uuid = v.attribute_type_uuid AND v.identity_uuid = ? AND a.name = ANY(?)",
+                replaced,
+                replaced.size(),
+                (ps, entry) -> {
+                    ps.setObject(1, entry.getKey());
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar", entry.getValue()));
+                });
+        insertRows(rows);
+    }
+
+    private List<Object[]> toRows(Map<UUID, Map<String, AttributeValue>> attributesByIdentity) {
+        Set<String> names = attributesByIdentity.values().stream()
+                .flatMap(attributes -> attributes.keySet().stream())
+                .collect(Collectors.toSet());
+        Map<String, AttributeTypeRef> types = loadAttributeTypes(names);
+
+        List<Object[]> rows = new ArrayList<>();
+        attributesByIdentity.forEach((identityUuid, attributes) -> attributes.values().forEach(attribute -> {
+            if (attribute.isEmpty()) {
+                return;
+            }
+            AttributeTypeRef type = types.get(attribute.getAttributeName());
+            if (type == null) {
+                throw new IllegalArgumentException("Unknown attribute type: " + attribute.getAttributeName());
+            }
+            rows.add(toRow(identityUuid, type, attribute.getValue()));
+        }));
+        return rows;
+    }
+
+    private void insertRows(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO identity_attribute_values (uuid, identity_uuid, attribute_type_uuid, string_value, " +
+                "integer_value, decimal_value, boolean_value, date_value, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, now(), now())",
+                rows,
+                new int[] {Types.OTHER, Types.OTHER, Types.OTHER, Types.VARCHAR, Types.BIGINT,
+                        Types.DOUBLE, Types.BOOLEAN, Types.TIMESTAMP_WITH_TIMEZONE});
+    }
+
+    @Override
+    public List<UUID> findIdentityUuidsByAttribute(String attributeName, String value) {
+        return jdbcTemplate.queryForList(
+                "SELECT v.identity_uuid FROM identity_attribute_values v " +
+                "JOIN attribute_types a ON a.uuid = v.attribute_type_uuid " +
+                "JOIN identities i ON i.uuid = v.identity_uuid " +
+                "WHERE a.name = ? AND coalesce(v.string_value, v.integer_value::text, v.boolean_value::text) = ? " +
+                "AND i.status <> 'DELETED'",
+                UUID.class, attributeName, value);
+    }
+
+    private Map<String, AttributeTypeRef> loadAttributeTypes(Set<String> names) {
+        Map<String, AttributeTypeRef> types = new HashMap<>();
+        if (names.isEmpty()) {
+            return types;
+        }
+        jdbcTemplate.query(
+                con -> {
+                    var ps = con.prepareStatement("SELECT uuid, name, data_type FROM attribute_types WHERE name = ANY(?)");
+                    ps.setArray(1, con.createArrayOf("varchar", names.toArray()));
+                    return ps;
+                },
+                rs -> {
+                    types.put(rs.getString("name"),
+                            new AttributeTypeRef(rs.getObject("uuid", UUID.class), rs.getString("data_type")));
+                });
+        return types;
+    }
+
+    private static Object[] toRow(UUID identityUuid, AttributeTypeRef type, String raw) {
+        Object[] row = new Object[8];
+        row[0] = UuidV7.generate();
+        row[1] = identityUuid;
+        row[2] = type.uuid();
+        try {
+            switch (type.dataType()) {
+                case "INTEGER" -> row[4] = Long.parseLong(raw);
+                case "DECIMAL" -> row[5] = new BigDecimal(raw).doubleValue();
+                case "BOOLEAN" -> row[6] = Boolean.parseBoolean(raw);
+                case "DATE" -> row[7] = Timestamp.from(LocalDate.parse(raw).atStartOfDay().toInstant(ZoneOffset.UTC));
+                case "DATETIME" -> row[7] = Timestamp.from(OffsetDateTime.parse(raw).toInstant());
+                default -> row[3] = raw;
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Value '" + raw + "' is not a valid " + type.dataType());
+        }
+        return row;
+    }
+
+    private static String format(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private static String formatDate(OffsetDateTime value) {
+        return value == null ? null : value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate().toString();
+    }
+
+    /**
+     * UTC with seconds always and the fraction without trailing zeros; the JSONB backfill
+     * (copy_identity_attribute_rows_to_jsonb, V32) renders the same text
+     */
+    private static String formatDateTime(OffsetDateTime value) {
+        return value == null ? null : value.withOffsetSameInstant(ZoneOffset.UTC).format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    private record AttributeTypeRef(UUID uuid, String dataType) {}
+}
@@ -0,0 +1,7 @@
+-- Composite indexes backing keyset (seek) pagination on identities
+-- Each index matches an ORDER BY <sort column>, uuid so a continuation cursor
+-- resolves to a single index seek regardless of how deep the page is
+
+CREATE INDEX IF NOT EXISTS idx_identities_created_at_uuid ON identities(created_at, uuid);
+
+CREATE INDEX IF NOT EXISTS idx_identities_display_name_uuid ON identities(display_name, uuid);
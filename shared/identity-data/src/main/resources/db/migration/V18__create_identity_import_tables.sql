@@ -0,0 +1,70 @@
+-- Bulk identity import: run bookkeeping, per-row rejects and COPY staging tables
+
+-- Step 1: One row per imported file; committed_line makes a run resumable
+CREATE TABLE import_runs (
+    uuid UUID PRIMARY KEY,
+    file_name VARCHAR(500) NOT NULL,
+    file_checksum VARCHAR(64) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    committed_line BIGINT NOT NULL DEFAULT 0,
+    imported_rows BIGINT NOT NULL DEFAULT 0,
+    rejected_rows BIGINT NOT NULL DEFAULT 0,
+    error_message TEXT,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE,
+
+    CONSTRAINT uk_import_runs_checksum UNIQUE (file_checksum),
+    CONSTRAINT chk_import_runs_status CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED'))
+);
+
+-- Step 2: Rejected rows with the reason, reported per source line
+CREATE TABLE import_rejects (
+    uuid UUID PRIMARY KEY,
+    run_uuid UUID NOT NULL,
+    line_number BIGINT NOT NULL,
+    reason TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+
+    CONSTRAINT fk_import_rejects_run FOREIGN KEY (run_uuid) REFERENCES import_runs(uuid) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_import_rejects_run_line ON import_rejects(run_uuid, line_number);
+
+-- Step 3: Staging tables filled through COPY and drained by set-based merges.
+-- UNLOGGED: contents only live for the duration of one chunk transaction.
+CREATE UNLOGGED TABLE import_stage_identities (
+    run_uuid UUID NOT NULL,
+    line_number BIGINT NOT NULL,
+    uuid UUID NOT NULL,
+    display_name VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    identity_type_uuid UUID NOT NULL
+);
+
+CREATE UNLOGGED TABLE import_stage_attribute_values (
+    run_uuid UUID NOT NULL,
+    line_number BIGINT NOT NULL,
+    uuid UUID NOT NULL,
+    identity_uuid UUID NOT NULL,
+    attribute_type_uuid UUID NOT NULL,
+    string_value TEXT,
+    integer_value BIGINT,
+    decimal_value DOUBLE PRECISION,
+    boolean_value BOOLEAN,
+    date_value TIMESTAMP WITH TIME ZONE
+);
+
+CREATE UNLOGGED TABLE import_stage_identifiers (
+    run_uuid UUID NOT NULL,
+    line_number BIGINT NOT NULL,
+    uuid UUID NOT NULL,
+    identity_uuid UUID NOT NULL,
+    identifier_type_uuid UUID NOT NULL,
+    identifier_value VARCHAR(500) NOT NULL,
+    is_primary BOOLEAN NOT NULL
+);
+
+CREATE INDEX idx_import_stage_identities_run ON import_stage_identities(run_uuid, line_number);
+CREATE INDEX idx_import_stage_attribute_values_run ON import_stage_attribute_values(run_uuid, line_number);
+CREATE INDEX idx_import_stage_identifiers_run ON import_stage_identifiers(run_uuid, identifier_type_uuid, identifier_value);
@@ -0,0 +1,142 @@
+-- Maintained counters for identities per type / status and active identifiers per type.
+-- Statement-level triggers keep them in step with every write in the same transaction,
+-- so count endpoints read a handful of rows instead of scanning the tables.
+
+-- Step 1: Counter store; each counter is striped over a few slots so concurrent
+-- writers of the same type/status rarely wait on the same row lock
+CREATE TABLE identity_counters (
+    scope VARCHAR(30) NOT NULL,
+    counter_key VARCHAR(100) NOT NULL,
+    slot SMALLINT NOT NULL,
+    value BIGINT NOT NULL,
+
+    CONSTRAINT pk_identity_counters PRIMARY KEY (scope, counter_key, slot),
+    CONSTRAINT chk_identity_counters_scope CHECK (scope IN ('IDENTITY_TYPE', 'IDENTITY_STATUS', 'IDENTIFIER_TYPE'))
+);
+
+-- Step 2: Apply a set of (scope, key, delta) rows to the calling backend's slot
+CREATE OR REPLACE FUNCTION apply_identity_counter_deltas(deltas JSONB) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO identity_counters (scope, counter_key, slot, value)
+    SELECT d.scope, d.counter_key, pg_backend_pid() % 8, d.delta
+    FROM jsonb_to_recordset(deltas) AS d(scope VARCHAR, counter_key VARCHAR, delta BIGINT)
+    WHERE d.delta <> 0
+    ON CONFLICT (scope, counter_key, slot)
+    DO UPDATE SET value = identity_counters.value + EXCLUDED.value;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 3: identities -> IDENTITY_TYPE and IDENTITY_STATUS counters
+CREATE OR REPLACE FUNCTION track_identity_counters() RETURNS TRIGGER AS $$
+DECLARE
+    deltas JSONB;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTITY_TYPE' AS scope, identity_type_uuid::text AS counter_key, count(*) AS delta
+            FROM new_rows GROUP BY identity_type_uuid
+            UNION ALL
+            SELECT 'IDENTITY_STATUS', status, count(*) FROM new_rows GROUP BY status
+        ) d;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTITY_TYPE' AS scope, identity_type_uuid::text AS counter_key, -count(*) AS delta
+            FROM old_rows GROUP BY identity_type_uuid
+            UNION ALL
+            SELECT 'IDENTITY_STATUS', status, -count(*) FROM old_rows GROUP BY status
+        ) d;
+    ELSE
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTITY_TYPE' AS scope, t.counter_key, sum(t.delta) AS delta
+            FROM (SELECT identity_type_uuid::text AS counter_key, 1 AS delta FROM new_rows
+                  UNION ALL
+                  SELECT identity_type_uuid::text, -1 FROM old_rows) t
+            GROUP BY t.counter_key
+            UNION ALL
+            SELECT 'IDENTITY_STATUS', s.counter_key, sum(s.delta)
+            FROM (SELECT status AS counter_key, 1 AS delta FROM new_rows
+                  UNION ALL
+                  SELECT status, -1 FROM old_rows) s
+            GROUP BY s.counter_key
+        ) d;
+    END IF;
+
+    IF deltas IS NOT NULL THEN
+        PERFORM apply_identity_counter_deltas(deltas);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_identities_counters_insert
+    AFTER INSERT ON identities
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION track_identity_counters();
+
+CREATE TRIGGER trg_identities_counters_update
+    AFTER UPDATE ON identities
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION track_identity_counters();
+
+CREATE TRIGGER trg_identities_counters_delete
+    AFTER DELETE ON identities
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION track_identity_counters();
+
+-- Step 4: identity_identifiers -> IDENTIFIER_TYPE counters (active identifiers only)
+CREATE OR REPLACE FUNCTION track_identifier_counters() RETURNS TRIGGER AS $$
+DECLARE
+    deltas JSONB;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTIFIER_TYPE' AS scope, identifier_type_uuid::text AS counter_key, count(*) AS delta
+            FROM new_rows WHERE is_active GROUP BY identifier_type_uuid
+        ) d;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTIFIER_TYPE' AS scope, identifier_type_uuid::text AS counter_key, -count(*) AS delta
+            FROM old_rows WHERE is_active GROUP BY identifier_type_uuid
+        ) d;
+    ELSE
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTIFIER_TYPE' AS scope, t.counter_key, sum(t.delta) AS delta
+            FROM (SELECT identifier_type_uuid::text AS counter_key, 1 AS delta FROM new_rows WHERE is_active
+                  UNION ALL
+                  SELECT identifier_type_uuid::text, -1 FROM old_rows WHERE is_active) t
+            GROUP BY t.counter_key
+        ) d;
+    END IF;
+
+    IF deltas IS NOT NULL THEN
+        PERFORM apply_identity_counter_deltas(deltas);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_identity_identifiers_counters_insert
+    AFTER INSERT ON identity_identifiers
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION track_identifier_counters();
+
+CREATE TRIGGER trg_identity_identifiers_counters_update
+    AFTER UPDATE ON identity_identifiers
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION track_identifier_counters();
+
+CREATE TRIGGER trg_identity_identifiers_counters_delete
+    AFTER DELETE ON identity_identifiers
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION track_identifier_counters();
+
+-- Step 5: Seed the counters from the current data
+INSERT INTO identity_counters (scope, counter_key, slot, value)
+SELECT 'IDENTITY_TYPE', identity_type_uuid::text, 0, count(*) FROM identities GROUP BY identity_type_uuid;
+
+INSERT INTO identity_counters (scope, counter_key, slot, value)
+SELECT 'IDENTITY_STATUS', status, 0, count(*) FROM identities GROUP BY status;
+
+INSERT INTO identity_counters (scope, counter_key, slot, value)
+SELECT 'IDENTIFIER_TYPE', identifier_type_uuid::text, 0, count(*)
+FROM identity_identifiers WHERE is_active GROUP BY identifier_type_uuid;
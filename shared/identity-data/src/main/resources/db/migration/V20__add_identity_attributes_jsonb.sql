@@ -0,0 +1,49 @@
+-- Alternative attribute storage: one JSONB document per identity (app.data.attribute-storage=jsonb)
+
+-- Step 1: Document column, empty object when an identity has no attributes
+ALTER TABLE identities ADD COLUMN attributes JSONB NOT NULL DEFAULT '{}'::jsonb;
+
+-- Step 2: Containment lookups (attributes @> '{"name": "value"}') on any attribute
+CREATE INDEX idx_identities_attributes ON identities USING GIN (attributes jsonb_path_ops);
+
+-- Step 3: Copy the row layout into the documents; run again before switching a deployment to jsonb
+CREATE OR REPLACE FUNCTION copy_identity_attribute_rows_to_jsonb() RETURNS BIGINT AS $$
+DECLARE
+    updated BIGINT;
+BEGIN
+    UPDATE identities i
+    SET attributes = doc.attributes
+    FROM (
+        SELECT v.identity_uuid,
+               jsonb_object_agg(a.name, CASE a.data_type
+                   WHEN 'INTEGER' THEN v.integer_value::text
+                   WHEN 'DECIMAL' THEN v.decimal_value::text
+                   WHEN 'BOOLEAN' THEN v.boolean_value::text
+                   WHEN 'DATE' THEN to_char(v.date_value AT TIME ZONE 'UTC', 'YYYY-MM-DD')
+                   WHEN 'DATETIME' THEN to_char(v.date_value AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS"Z"')
+                   ELSE v.string_value
+               END) AS attributes
+        FROM identity_attribute_values v
+        JOIN attribute_types a ON a.uuid = v.attribute_type_uuid
+        GROUP BY v.identity_uuid
+    ) doc
+    WHERE i.uuid = doc.identity_uuid;
+
+    GET DIAGNOSTICS updated = ROW_COUNT;
+    RETURN updated;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT copy_identity_attribute_rows_to_jsonb();
+
+-- Step 4: Expression index for an attribute that is searched by value or range,
+-- e.g. SELECT create_identity_attribute_index('email');
+CREATE OR REPLACE FUNCTION create_identity_attribute_index(attribute_name TEXT) RETURNS VOID AS $$
+BEGIN
+    IF attribute_name !~ '^[A-Za-z0-9_]+$' THEN
+        RAISE EXCEPTION 'Invalid attribute name for index: %', attribute_name;
+    END IF;
+    EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON identities ((attributes ->> %L))',
+                   'idx_identities_attr_' || lower(attribute_name), attribute_name);
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,107 @@
+-- Optional hash partitioning for identity_identifiers and identity_attribute_values.
+--
+-- Nothing is partitioned by this migration; it installs a function operators run once,
+-- in a maintenance window, to convert the two tables in place:
+--
+--   SELECT partition_identity_tables();                          -- identifiers by type, 16 partitions
+--   SELECT partition_identity_tables('identity_uuid', 32);       -- identifiers by identity, 32 partitions
+--
+-- identity_attribute_values is always partitioned by identity_uuid. identity_identifiers is
+-- partitioned by identifier_type_uuid (default) or identity_uuid:
+--   * identifier_type_uuid keeps the active (type, value) unique index, since it contains the
+--     partition key, and prunes type/value lookups to one partition. Few identifier types means
+--     few hot partitions.
+--   * identity_uuid spreads rows evenly and prunes per-identity loads, but PostgreSQL cannot
+--     enforce a unique index without the partition key: (type, value) uniqueness then relies on
+--     the application checks.
+-- Queries prune only when the partition key is in the WHERE clause; lookups by uuid alone
+-- visit every partition's primary key index.
+
+-- Step 1: Convert one table into a hash-partitioned table with the same columns and contents
+CREATE OR REPLACE FUNCTION convert_to_hash_partitions(table_name TEXT, partition_key TEXT, partition_count INT)
+RETURNS VOID AS $$
+DECLARE
+    legacy_name TEXT := table_name || '_unpartitioned';
+    i INT;
+BEGIN
+    IF (SELECT c.relkind FROM pg_class c WHERE c.oid = table_name::regclass) = 'p' THEN
+        RAISE EXCEPTION 'Table % is already partitioned', table_name;
+    END IF;
+    IF partition_count < 2 THEN
+        RAISE EXCEPTION 'At least two partitions are required, got %', partition_count;
+    END IF;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', table_name, legacy_name);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY HASH (%I)',
+                   table_name, legacy_name, partition_key);
+    FOR i IN 0 .. partition_count - 1 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       table_name || '_p' || i, table_name, partition_count, i);
+    END LOOP;
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', table_name, legacy_name);
+    -- Drops the legacy indexes, constraints and triggers along with the table
+    EXECUTE format('DROP TABLE %I', legacy_name);
+
+    -- Primary keys of partitioned tables must contain the partition key
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (uuid, %I)',
+                   table_name, table_name || '_pkey', partition_key);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 2: Convert both tables and recreate their indexes, foreign keys and counter triggers
+CREATE OR REPLACE FUNCTION partition_identity_tables(identifier_partition_key TEXT DEFAULT 'identifier_type_uuid',
+                                                     partition_count INT DEFAULT 16)
+RETURNS VOID AS $$
+BEGIN
+    IF identifier_partition_key NOT IN ('identifier_type_uuid', 'identity_uuid') THEN
+        RAISE EXCEPTION 'identity_identifiers can be partitioned by identifier_type_uuid or identity_uuid, not %',
+                        identifier_partition_key;
+    END IF;
+
+    -- identity_identifiers
+    PERFORM convert_to_hash_partitions('identity_identifiers', identifier_partition_key, partition_count);
+
+    ALTER TABLE identity_identifiers
+        ADD CONSTRAINT fk_identity_identifier_identity FOREIGN KEY (identity_uuid) REFERENCES identities(uuid) ON DELETE CASCADE,
+        ADD CONSTRAINT fk_identity_identifier_type FOREIGN KEY (identifier_type_uuid) REFERENCES identifier_types(uuid) ON DELETE CASCADE;
+
+    CREATE INDEX idx_identity_identifier_value ON identity_identifiers(identifier_value);
+    CREATE INDEX idx_identity_identifier_identity ON identity_identifiers(identity_uuid);
+    CREATE INDEX idx_identity_identifier_search ON identity_identifiers(identifier_type_uuid, identifier_value);
+    CREATE INDEX idx_identity_identifier_primary ON identity_identifiers(identity_uuid, is_primary) WHERE is_primary = TRUE;
+    CREATE INDEX idx_identity_identifier_verified ON identity_identifiers(is_verified, verified_at);
+
+    IF identifier_partition_key = 'identifier_type_uuid' THEN
+        -- A plain type index is redundant here: the search index leads with the type and lookups prune
+        CREATE UNIQUE INDEX idx_identity_identifier_unique
+            ON identity_identifiers(identifier_type_uuid, identifier_value) WHERE is_active = TRUE;
+    ELSE
+        CREATE INDEX idx_identity_identifier_type ON identity_identifiers(identifier_type_uuid);
+        RAISE NOTICE 'identity_identifiers partitioned by identity_uuid: active (type, value) uniqueness is no longer enforced by the database';
+    END IF;
+
+    CREATE TRIGGER trg_identity_identifiers_counters_insert
+        AFTER INSERT ON identity_identifiers
+        REFERENCING NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION track_identifier_counters();
+    CREATE TRIGGER trg_identity_identifiers_counters_update
+        AFTER UPDATE ON identity_identifiers
+        REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION track_identifier_counters();
+    CREATE TRIGGER trg_identity_identifiers_counters_delete
+        AFTER DELETE ON identity_identifiers
+        REFERENCING OLD TABLE AS old_rows
+        FOR EACH STATEMENT EXECUTE FUNCTION track_identifier_counters();
+
+    -- identity_attribute_values
+    PERFORM convert_to_hash_partitions('identity_attribute_values', 'identity_uuid', partition_count);
+
+    ALTER TABLE identity_attribute_values
+        ADD CONSTRAINT fk_identity_attribute_values_identity FOREIGN KEY (identity_uuid) REFERENCES identities(uuid),
+        ADD CONSTRAINT fk_identity_attribute_values_attribute_type FOREIGN KEY (attribute_type_uuid) REFERENCES attribute_types(uuid);
+
+    CREATE INDEX idx_identity_attribute_values_identity_id ON identity_attribute_values(identity_uuid);
+    CREATE INDEX idx_identity_attribute_values_attribute_type_id ON identity_attribute_values(attribute_type_uuid);
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,90 @@
+-- Typeahead over identifier values: trigram GIN index for substring matches and a
+-- text_pattern_ops B-tree for prefix matches, both case-insensitive over active identifiers
+
+-- Step 1: Trigram support
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Step 2: Substring matches (lower(identifier_value) LIKE '%x%')
+CREATE INDEX idx_identity_identifier_value_trgm
+ON identity_identifiers USING GIN (lower(identifier_value) gin_trgm_ops)
+WHERE is_active = TRUE;
+
+-- Step 3: Prefix matches (lower(identifier_value) LIKE 'x%'), returned in index order
+CREATE INDEX idx_identity_identifier_value_prefix
+ON identity_identifiers (lower(identifier_value) text_pattern_ops)
+WHERE is_active = TRUE;
+
+-- Step 4: Carry every index, foreign key and trigger of a table across the partition
+-- conversion from V21, so indexes added after V21 survive it as well
+CREATE OR REPLACE FUNCTION convert_to_hash_partitions(table_name TEXT, partition_key TEXT, partition_count INT)
+RETURNS VOID AS $$
+DECLARE
+    legacy_name TEXT := table_name || '_unpartitioned';
+    index_defs TEXT[];
+    foreign_key_defs TEXT[];
+    trigger_defs TEXT[];
+    def TEXT;
+    i INT;
+BEGIN
+    IF (SELECT c.relkind FROM pg_class c WHERE c.oid = table_name::regclass) = 'p' THEN
+        RAISE EXCEPTION 'Table % is already partitioned', table_name;
+    END IF;
+    IF partition_count < 2 THEN
+        RAISE EXCEPTION 'At least two partitions are required, got %', partition_count;
+    END IF;
+
+    SELECT array_agg(pg_get_indexdef(x.indexrelid)) INTO index_defs
+    FROM pg_index x WHERE x.indrelid = table_name::regclass AND NOT x.indisprimary;
+    SELECT array_agg(format('ALTER TABLE %I ADD CONSTRAINT %I %s', table_name, c.conname, pg_get_constraintdef(c.oid)))
+    INTO foreign_key_defs
+    FROM pg_constraint c WHERE c.conrelid = table_name::regclass AND c.contype = 'f';
+    SELECT array_agg(pg_get_triggerdef(t.oid)) INTO trigger_defs
+    FROM pg_trigger t WHERE t.tgrelid = table_name::regclass AND NOT t.tgisinternal;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', table_name, legacy_name);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY HASH (%I)',
+                   table_name, legacy_name, partition_key);
+    FOR i IN 0 .. partition_count - 1 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       table_name || '_p' || i, table_name, partition_count, i);
+    END LOOP;
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', table_name, legacy_name);
+    EXECUTE format('DROP TABLE %I', legacy_name);
+
+    -- Primary keys of partitioned tables must contain the partition key
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (uuid, %I)',
+                   table_name, table_name || '_pkey', partition_key);
+
+    -- Definitions captured before the rename still name the original table
+    FOREACH def IN ARRAY coalesce(index_defs, '{}') LOOP
+        BEGIN
+            EXECUTE def;
+        EXCEPTION WHEN feature_not_supported OR invalid_table_definition THEN
+            -- Unique indexes without the partition key cannot exist on a partitioned table
+            RAISE NOTICE 'Recreating as non-unique, uniqueness is no longer enforced by the database: %', def;
+            EXECUTE replace(def, 'CREATE UNIQUE INDEX', 'CREATE INDEX');
+        END;
+    END LOOP;
+    FOREACH def IN ARRAY coalesce(foreign_key_defs, '{}') LOOP
+        EXECUTE def;
+    END LOOP;
+    FOREACH def IN ARRAY coalesce(trigger_defs, '{}') LOOP
+        EXECUTE def;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION partition_identity_tables(identifier_partition_key TEXT DEFAULT 'identifier_type_uuid',
+                                                     partition_count INT DEFAULT 16)
+RETURNS VOID AS $$
+BEGIN
+    IF identifier_partition_key NOT IN ('identifier_type_uuid', 'identity_uuid') THEN
+        RAISE EXCEPTION 'identity_identifiers can be partitioned by identifier_type_uuid or identity_uuid, not %',
+                        identifier_partition_key;
+    END IF;
+
+    PERFORM convert_to_hash_partitions('identity_identifiers', identifier_partition_key, partition_count);
+    PERFORM convert_to_hash_partitions('identity_attribute_values', 'identity_uuid', partition_count);
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,105 @@
+-- Canonicalized identifier values: each identifier type names the canonical form its values are
+-- compared in, the canonical value is stored next to the raw one and exact lookups probe it by equality
+
+-- Step 1: Canonicalization per identifier type (NONE, CASE_FOLD, STRIP_SEPARATORS, E164)
+ALTER TABLE identifier_types ADD COLUMN canonicalization VARCHAR(30) NOT NULL DEFAULT 'NONE';
+ALTER TABLE identifier_types ADD CONSTRAINT chk_identifier_types_canonicalization
+    CHECK (canonicalization IN ('NONE', 'CASE_FOLD', 'STRIP_SEPARATORS', 'E164'));
+
+ALTER TABLE identifier_types_hst ADD COLUMN canonicalization VARCHAR(30);
+
+UPDATE identifier_types SET canonicalization = 'STRIP_SEPARATORS'
+WHERE name IN ('ssn', 'passport', 'driver_license', 'employee_id', 'tax_id');
+UPDATE identifier_types SET canonicalization = 'CASE_FOLD' WHERE data_type = 'EMAIL';
+UPDATE identifier_types SET canonicalization = 'E164' WHERE data_type = 'PHONE';
+
+-- Step 2: Keep the history trigger in step with the new column
+CREATE OR REPLACE FUNCTION fn_identifier_types_history_trigger()
+RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        INSERT INTO identifier_types_hst (
+            hst_uuid, hst_operation, hst_timestamp, hst_user,
+            uuid, name, display_name, description, data_type, validation_regex,
+            default_value, canonicalization, is_unique, is_searchable, is_active, created_at, updated_at
+        ) VALUES (
+            gen_random_uuid(), 'DELETE', NOW(), current_user,
+            OLD.uuid, OLD.name, OLD.display_name, OLD.description, OLD.data_type, OLD.validation_regex,
+            OLD.default_value, OLD.canonicalization, OLD.is_unique, OLD.is_searchable, OLD.is_active, OLD.created_at, OLD.updated_at
+        );
+        RETURN OLD;
+    ELSIF TG_OP = 'UPDATE' THEN
+        INSERT INTO identifier_types_hst (
+            hst_uuid, hst_operation, hst_timestamp, hst_user,
+            uuid, name, display_name, description, data_type, validation_regex,
+            default_value, canonicalization, is_unique, is_searchable, is_active, created_at, updated_at
+        ) VALUES (
+            gen_random_uuid(), 'UPDATE', NOW(), current_user,
+            NEW.uuid, NEW.name, NEW.display_name, NEW.description, NEW.data_type, NEW.validation_regex,
+            NEW.default_value, NEW.canonicalization, NEW.is_unique, NEW.is_searchable, NEW.is_active, NEW.created_at, NEW.updated_at
+        );
+        RETURN NEW;
+    ELSIF TG_OP = 'INSERT' THEN
+        INSERT INTO identifier_types_hst (
+            hst_uuid, hst_operation, hst_timestamp, hst_user,
+            uuid, name, display_name, description, data_type, validation_regex,
+            default_value, canonicalization, is_unique, is_searchable, is_active, created_at, updated_at
+        ) VALUES (
+            gen_random_uuid(), 'INSERT', NOW(), current_user,
+            NEW.uuid, NEW.name, NEW.display_name, NEW.description, NEW.data_type, NEW.validation_regex,
+            NEW.default_value, NEW.canonicalization, NEW.is_unique, NEW.is_searchable, NEW.is_active, NEW.created_at, NEW.updated_at
+        );
+        RETURN NEW;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 3: SQL mirror of IdentifierCanonicalization, used for the backfill and for ad-hoc queries.
+-- Unlike the Java side it does not reject malformed phone numbers; they keep their trimmed value.
+CREATE OR REPLACE FUNCTION canonicalize_identifier_value(raw_value TEXT, canonicalization TEXT)
+RETURNS TEXT AS $$
+DECLARE
+    trimmed TEXT := regexp_replace(raw_value, '^\s+|\s+$', '', 'g');
+    phone TEXT;
+BEGIN
+    IF canonicalization = 'CASE_FOLD' THEN
+        RETURN lower(trimmed);
+    ELSIF canonicalization = 'STRIP_SEPARATORS' THEN
+        RETURN upper(regexp_replace(trimmed, '[\s\-./]', '', 'g'));
+    ELSIF canonicalization = 'E164' THEN
+        phone := regexp_replace(trimmed, '[\s\-.()/]', '', 'g');
+        IF phone ~ '^(\+|00)[1-9][0-9]{1,14}$' THEN
+            RETURN '+' || regexp_replace(phone, '^(\+|00)', '');
+        END IF;
+        RETURN trimmed;
+    END IF;
+    RETURN trimmed;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE;
+
+-- Step 4: Canonical value per identifier, backfilled from the owning type
+ALTER TABLE identity_identifiers ADD COLUMN normalized_value VARCHAR(500);
+
+UPDATE identity_identifiers ii
+SET normalized_value = canonicalize_identifier_value(ii.identifier_value, t.canonicalization)
+FROM identifier_types t
+WHERE t.uuid = ii.identifier_type_uuid;
+
+ALTER TABLE identity_identifiers ALTER COLUMN normalized_value SET NOT NULL;
+
+-- Step 5: Exact lookups by type and canonical value
+CREATE INDEX idx_identity_identifier_normalized
+ON identity_identifiers(identifier_type_uuid, normalized_value)
+WHERE is_active = TRUE;
+
+-- Step 6: The bulk import stage carries the canonical value its conflict check compares.
+-- Stage rows never outlive a chunk transaction, so the table is empty here.
+TRUNCATE import_stage_identifiers;
+ALTER TABLE import_stage_identifiers ADD COLUMN normalized_value VARCHAR(500) NOT NULL;
+
+DROP INDEX idx_import_stage_identifiers_run;
+CREATE INDEX idx_import_stage_identifiers_run ON import_stage_identifiers(run_uuid, identifier_type_uuid, normalized_value);
+
+COMMENT ON COLUMN identifier_types.canonicalization IS 'Canonical form identifier values of this type are compared in';
+COMMENT ON COLUMN identity_identifiers.normalized_value IS 'identifier_value in the canonical form of its identifier type';
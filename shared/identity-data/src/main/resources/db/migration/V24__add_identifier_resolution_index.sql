@@ -0,0 +1,14 @@
+-- Covering index for identifier resolution: (type, canonical value) -> owning identity.
+-- Every column the resolution probe reads lives in the index, so it runs as an index-only scan.
+
+-- Step 1: Covering index over all identifiers, active or not, so the probe can report deactivated matches
+CREATE INDEX idx_identity_identifier_resolution
+ON identity_identifiers(identifier_type_uuid, normalized_value)
+INCLUDE (identity_uuid, is_active, is_primary);
+
+-- Step 2: The partial lookup index from V23 is a subset of the covering one
+DROP INDEX idx_identity_identifier_normalized;
+
+-- Step 3: Index-only scans skip the heap only for pages marked all-visible; vacuum this
+-- write-heavy table more eagerly so the visibility map keeps up
+ALTER TABLE identity_identifiers SET (autovacuum_vacuum_scale_factor = 0.05, autovacuum_vacuum_insert_scale_factor = 0.05);
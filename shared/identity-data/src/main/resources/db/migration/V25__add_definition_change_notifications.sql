@@ -0,0 +1,33 @@
+-- Change notifications for the definition tables. The services cache these rows in the Hibernate
+-- second-level cache and LISTEN on identity_definition_changes to evict them when any node writes.
+-- NOTIFY is delivered on commit and duplicates within one transaction are folded into one.
+
+-- Step 1: One notification per modifying statement, carrying the table name
+CREATE OR REPLACE FUNCTION notify_definition_change()
+RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM pg_notify('identity_definition_changes', TG_TABLE_NAME);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 2: Attach it to every cached definition table
+CREATE TRIGGER trig_identity_types_definition_change
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON identity_types
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_definition_change();
+
+CREATE TRIGGER trig_attribute_types_definition_change
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON attribute_types
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_definition_change();
+
+CREATE TRIGGER trig_identifier_types_definition_change
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON identifier_types
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_definition_change();
+
+CREATE TRIGGER trig_identity_type_attribute_mappings_definition_change
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON identity_type_attribute_mappings
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_definition_change();
+
+CREATE TRIGGER trig_identity_type_identifier_mappings_definition_change
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON identity_type_identifier_mappings
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_definition_change();
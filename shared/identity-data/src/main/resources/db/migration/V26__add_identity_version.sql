@@ -0,0 +1,12 @@
+-- Optimistic versioning for identities: every write bumps version, conditional updates
+-- (UPDATE ... WHERE uuid = ? AND version = ?) detect lost updates without loading the row first
+
+-- Step 1: Version column; existing rows start at 0
+ALTER TABLE identities ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+-- Step 2: Allow every status of the domain model, status changes are now written as-is
+ALTER TABLE identities DROP CONSTRAINT IF EXISTS chk_status_values;
+ALTER TABLE identities ADD CONSTRAINT chk_status_values
+    CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED', 'PENDING', 'ARCHIVED', 'ESTABLISHED'));
+
+COMMENT ON COLUMN identities.version IS 'Optimistic lock version, incremented by every update';
@@ -0,0 +1,60 @@
+-- Soft delete: deleting an identity writes a DELETED tombstone that every read filters out.
+-- The job system purges tombstones past their retention in small chunks, locking with
+-- FOR UPDATE SKIP LOCKED so concurrent purge runs never queue behind each other.
+
+-- Step 1: Tombstone timestamp, set exactly when the status is DELETED
+ALTER TABLE identities ADD COLUMN deleted_at TIMESTAMPTZ;
+
+ALTER TABLE identities DROP CONSTRAINT IF EXISTS chk_status_values;
+ALTER TABLE identities ADD CONSTRAINT chk_status_values
+    CHECK (status IN ('ACTIVE', 'INACTIVE', 'SUSPENDED', 'PENDING', 'ARCHIVED', 'ESTABLISHED', 'DELETED'));
+ALTER TABLE identities ADD CONSTRAINT chk_identities_deleted_at
+    CHECK ((status = 'DELETED') = (deleted_at IS NOT NULL));
+
+-- Step 2: The purge scans only tombstones, oldest first
+CREATE INDEX idx_identities_tombstones ON identities(deleted_at) WHERE status = 'DELETED';
+
+-- Step 3: Per-type counters count live identities only; the IDENTITY_STATUS counter
+-- for DELETED is the purge backlog
+CREATE OR REPLACE FUNCTION track_identity_counters() RETURNS TRIGGER AS $$
+DECLARE
+    deltas JSONB;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTITY_TYPE' AS scope, identity_type_uuid::text AS counter_key, count(*) AS delta
+            FROM new_rows WHERE status <> 'DELETED' GROUP BY identity_type_uuid
+            UNION ALL
+            SELECT 'IDENTITY_STATUS', status, count(*) FROM new_rows GROUP BY status
+        ) d;
+    ELSIF TG_OP = 'DELETE' THEN
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTITY_TYPE' AS scope, identity_type_uuid::text AS counter_key, -count(*) AS delta
+            FROM old_rows WHERE status <> 'DELETED' GROUP BY identity_type_uuid
+            UNION ALL
+            SELECT 'IDENTITY_STATUS', status, -count(*) FROM old_rows GROUP BY status
+        ) d;
+    ELSE
+        SELECT jsonb_agg(d) INTO deltas FROM (
+            SELECT 'IDENTITY_TYPE' AS scope, t.counter_key, sum(t.delta) AS delta
+            FROM (SELECT identity_type_uuid::text AS counter_key, 1 AS delta FROM new_rows WHERE status <> 'DELETED'
+                  UNION ALL
+                  SELECT identity_type_uuid::text, -1 FROM old_rows WHERE status <> 'DELETED') t
+            GROUP BY t.counter_key
+            UNION ALL
+            SELECT 'IDENTITY_STATUS', s.counter_key, sum(s.delta)
+            FROM (SELECT status AS counter_key, 1 AS delta FROM new_rows
+                  UNION ALL
+                  SELECT status, -1 FROM old_rows) s
+            GROUP BY s.counter_key
+        ) d;
+    END IF;
+
+    IF deltas IS NOT NULL THEN
+        PERFORM apply_identity_counter_deltas(deltas);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON COLUMN identities.deleted_at IS 'When the identity was tombstoned; the purge job removes it after the retention period';
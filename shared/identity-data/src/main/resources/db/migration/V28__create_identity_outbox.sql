@@ -0,0 +1,31 @@
+-- Transactional outbox: domain events are written in the transaction that stores the aggregate
+-- and relayed to downstream sinks by the job system, off the request path
+
+-- Step 1: Outbox table; rows are deleted once delivered, so it only holds the relay backlog
+CREATE TABLE identity_outbox (
+    id BIGINT GENERATED ALWAYS AS IDENTITY,
+    event_uuid UUID NOT NULL,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_uuid UUID NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload JSONB NOT NULL DEFAULT '{}'::jsonb,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    attempts INTEGER NOT NULL DEFAULT 0,
+    last_attempt_at TIMESTAMPTZ,
+    last_error TEXT,
+
+    CONSTRAINT pk_identity_outbox PRIMARY KEY (id),
+    CONSTRAINT uk_identity_outbox_event UNIQUE (event_uuid)
+);
+
+-- Step 2: Queue-style churn (insert, then delete shortly after): vacuum by row count, not table fraction
+ALTER TABLE identity_outbox SET (
+    autovacuum_vacuum_scale_factor = 0.0,
+    autovacuum_vacuum_threshold = 5000,
+    autovacuum_analyze_scale_factor = 0.0,
+    autovacuum_analyze_threshold = 5000
+);
+
+COMMENT ON TABLE identity_outbox IS 'Domain events awaiting relay; written with the aggregate, deleted after delivery';
+COMMENT ON COLUMN identity_outbox.attempts IS 'Failed delivery attempts; events at the relay limit stay parked';
@@ -0,0 +1,78 @@
+-- Incremental change feed: every write to an identity, its attributes or its identifiers stamps the
+-- identity with the 64-bit id of the writing transaction (xid8), and the feed pages through
+-- (change_xid, uuid) as a range scan.
+--
+-- Transaction ids are used instead of a sequence because they give a safe read horizon: every
+-- transaction with an id below pg_snapshot_xmin(pg_current_snapshot()) has finished, and every
+-- later one gets a higher id. Serving only changes below that horizon means a change can never
+-- appear behind a cursor a client has already passed, which a sequence (allocated before commit,
+-- visible in commit order) cannot guarantee.
+
+-- Step 1: Change stamp; existing rows share one stamp and are returned in uuid order on a first sync
+ALTER TABLE identities ADD COLUMN change_xid xid8 NOT NULL DEFAULT '1';
+ALTER TABLE identities ALTER COLUMN change_xid SET DEFAULT pg_current_xact_id();
+
+-- Step 2: Re-stamp on every update of the identity row itself (status changes and tombstones included)
+CREATE OR REPLACE FUNCTION stamp_identity_change() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id();
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_identities_change_stamp
+    BEFORE UPDATE ON identities
+    FOR EACH ROW EXECUTE FUNCTION stamp_identity_change();
+
+-- Step 3: Attribute and identifier writes re-stamp their identity, once per transaction
+CREATE OR REPLACE FUNCTION stamp_parent_identity_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        UPDATE identities i SET change_xid = pg_current_xact_id()
+        WHERE i.uuid IN (SELECT identity_uuid FROM new_rows) AND i.change_xid <> pg_current_xact_id();
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE identities i SET change_xid = pg_current_xact_id()
+        WHERE i.uuid IN (SELECT identity_uuid FROM old_rows) AND i.change_xid <> pg_current_xact_id();
+    ELSE
+        UPDATE identities i SET change_xid = pg_current_xact_id()
+        WHERE i.uuid IN (SELECT identity_uuid FROM new_rows UNION SELECT identity_uuid FROM old_rows)
+          AND i.change_xid <> pg_current_xact_id();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_identity_identifiers_change_insert
+    AFTER INSERT ON identity_identifiers
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_parent_identity_change();
+
+CREATE TRIGGER trg_identity_identifiers_change_update
+    AFTER UPDATE ON identity_identifiers
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_parent_identity_change();
+
+CREATE TRIGGER trg_identity_identifiers_change_delete
+    AFTER DELETE ON identity_identifiers
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_parent_identity_change();
+
+CREATE TRIGGER trg_identity_attribute_values_change_insert
+    AFTER INSERT ON identity_attribute_values
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_parent_identity_change();
+
+CREATE TRIGGER trg_identity_attribute_values_change_update
+    AFTER UPDATE ON identity_attribute_values
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_parent_identity_change();
+
+CREATE TRIGGER trg_identity_attribute_values_change_delete
+    AFTER DELETE ON identity_attribute_values
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION stamp_parent_identity_change();
+
+-- Step 4: Each poll is one range scan from the client's cursor
+CREATE INDEX idx_identities_change_feed ON identities(change_xid, uuid);
+
+COMMENT ON COLUMN identities.change_xid IS 'Id of the last transaction that changed the identity, its attributes or identifiers; orders the change feed';
@@ -0,0 +1,54 @@
+-- Change notifications for identities. The public API caches assembled identities per node and
+-- LISTENs on identity_changes to evict the ones another node or service wrote.
+--
+-- Only the identities table needs a trigger: attribute and identifier writes re-stamp their identity
+-- (V29), so they arrive here as updates of the identity row. Inserts are not notified, absent
+-- identities are never cached. NOTIFY is delivered on commit and identical payloads within one
+-- transaction are folded into one.
+
+-- Step 1: One notification per statement carrying the changed identity uuids, comma separated and in
+-- chunks that stay well below the 8000 byte payload limit. Statements touching more identities than
+-- a cache would sensibly evict one by one (bulk imports, purges) send '*' to clear the caches instead.
+CREATE OR REPLACE FUNCTION notify_identity_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    changed UUID[];
+    i INT;
+BEGIN
+    IF TG_OP = 'TRUNCATE' THEN
+        PERFORM pg_notify('identity_changes', '*');
+        RETURN NULL;
+    END IF;
+
+    SELECT array_agg(DISTINCT uuid) INTO changed FROM changed_rows;
+    IF changed IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    IF cardinality(changed) > 1000 THEN
+        PERFORM pg_notify('identity_changes', '*');
+    ELSE
+        FOR i IN 1 .. cardinality(changed) BY 100 LOOP
+            PERFORM pg_notify('identity_changes', array_to_string(changed[i:i + 99], ','));
+        END LOOP;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 2: Updates (status changes, tombstones and child writes included), hard deletes and truncates
+CREATE TRIGGER trg_identities_change_notify_update
+    AFTER UPDATE ON identities
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_identity_change();
+
+CREATE TRIGGER trg_identities_change_notify_delete
+    AFTER DELETE ON identities
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_identity_change();
+
+CREATE TRIGGER trg_identities_change_notify_truncate
+    AFTER TRUNCATE ON identities
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_identity_change();
+
+COMMENT ON FUNCTION notify_identity_change() IS 'Notifies identity_changes with the uuids of changed identities, or * for large statements';
@@ -0,0 +1,54 @@
+-- Change notifications for identifier values. The services keep a Bloom filter of the canonical values
+-- per identifier type and LISTEN on identifier_value_changes to add the values any node or service writes.
+--
+-- Payloads carry identifier uuids, never values; listeners read the values back. Only new canonical
+-- values are announced: deactivations and deletes leave the filters a superset, which is safe.
+
+-- Step 1: One notification per statement with the uuids of identifiers whose canonical value is new,
+-- comma separated and in chunks below the 8000 byte payload limit. Statements writing more values than
+-- is sensible to read back (bulk imports, re-canonicalization) send 'type:<identifier type uuid>' per
+-- affected type instead, which makes listeners rebuild that type's filter.
+CREATE OR REPLACE FUNCTION notify_identifier_value_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    changed UUID[];
+    type_uuid UUID;
+    i INT;
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        SELECT array_agg(uuid) INTO changed FROM new_rows;
+    ELSE
+        SELECT array_agg(n.uuid) INTO changed
+        FROM new_rows n JOIN old_rows o ON o.uuid = n.uuid
+        WHERE n.normalized_value IS DISTINCT FROM o.normalized_value
+           OR n.identifier_type_uuid IS DISTINCT FROM o.identifier_type_uuid;
+    END IF;
+    IF changed IS NULL THEN
+        RETURN NULL;
+    END IF;
+
+    IF cardinality(changed) > 10000 THEN
+        FOR type_uuid IN SELECT DISTINCT identifier_type_uuid FROM new_rows LOOP
+            PERFORM pg_notify('identifier_value_changes', 'type:' || type_uuid);
+        END LOOP;
+    ELSE
+        FOR i IN 1 .. cardinality(changed) BY 100 LOOP
+            PERFORM pg_notify('identifier_value_changes', array_to_string(changed[i:i + 99], ','));
+        END LOOP;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 2: Inserts and value-changing updates; convert_to_hash_partitions (V22) carries both triggers over
+CREATE TRIGGER trg_identity_identifiers_value_notify_insert
+    AFTER INSERT ON identity_identifiers
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_identifier_value_change();
+
+CREATE TRIGGER trg_identity_identifiers_value_notify_update
+    AFTER UPDATE ON identity_identifiers
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_identifier_value_change();
+
+COMMENT ON FUNCTION notify_identifier_value_change() IS 'Notifies identifier_value_changes with the uuids of identifiers holding new canonical values';
@@ -0,0 +1,42 @@
+-- The JSONB backfill (V20) rendered DATETIME attributes without their fractional seconds, while the row
+-- layout reads them back as ISO-8601 in UTC with the fraction. Both now produce the same text, so switching
+-- app.data.attribute-storage does not change values seen by clients.
+
+-- Step 1: Seconds always, the fraction only when there is one and without trailing zeros, then Z
+CREATE OR REPLACE FUNCTION format_identity_attribute_datetime(value TIMESTAMPTZ) RETURNS TEXT AS $$
+    SELECT to_char(value AT TIME ZONE 'UTC', 'YYYY-MM-DD"T"HH24:MI:SS')
+        || CASE WHEN to_char(value AT TIME ZONE 'UTC', 'US') = '000000' THEN ''
+                ELSE '.' || rtrim(to_char(value AT TIME ZONE 'UTC', 'US'), '0') END
+        || 'Z';
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Step 2: Same backfill as V20 with the aligned DATETIME rendering; existing documents are left as they are
+-- and pick it up the next time the backfill is run before a switch
+CREATE OR REPLACE FUNCTION copy_identity_attribute_rows_to_jsonb() RETURNS BIGINT AS $$
+DECLARE
+    updated BIGINT;
+BEGIN
+    UPDATE identities i
+    SET attributes = doc.attributes
+    FROM (
+        SELECT v.identity_uuid,
+               jsonb_object_agg(a.name, CASE a.data_type
+                   WHEN 'INTEGER' THEN v.integer_value::text
+                   WHEN 'DECIMAL' THEN v.decimal_value::text
+                   WHEN 'BOOLEAN' THEN v.boolean_value::text
+                   WHEN 'DATE' THEN to_char(v.date_value AT TIME ZONE 'UTC', 'YYYY-MM-DD')
+                   WHEN 'DATETIME' THEN format_identity_attribute_datetime(v.date_value)
+                   ELSE v.string_value
+               END) AS attributes
+        FROM identity_attribute_values v
+        JOIN attribute_types a ON a.uuid = v.attribute_type_uuid
+        GROUP BY v.identity_uuid
+    ) doc
+    WHERE i.uuid = doc.identity_uuid;
+
+    GET DIAGNOSTICS updated = ROW_COUNT;
+    RETURN updated;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMENT ON FUNCTION format_identity_attribute_datetime(TIMESTAMPTZ) IS 'DATETIME attribute text as RowIdentityAttributeStore renders it';
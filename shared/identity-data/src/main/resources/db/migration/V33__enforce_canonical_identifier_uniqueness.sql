@@ -0,0 +1,43 @@
+-- Active identifier uniqueness on the canonical value instead of the raw one: 123-45-6789 and 123456789
+-- are the same SSN, and lookups by (type, normalized_value) must match at most one active identifier.
+-- A unique canonical value implies a unique raw value, so the raw unique index is dropped.
+
+-- Step 1: Active identifiers that already share a canonical value keep the oldest one active
+DO $$
+DECLARE
+    deactivated BIGINT;
+BEGIN
+    WITH ranked AS (
+        SELECT uuid, row_number() OVER (PARTITION BY identifier_type_uuid, normalized_value
+                                        ORDER BY created_at, uuid) AS rank
+        FROM identity_identifiers
+        WHERE is_active = TRUE
+    )
+    UPDATE identity_identifiers ii
+    SET is_active = FALSE, is_primary = FALSE, updated_at = now()
+    FROM ranked r
+    WHERE r.uuid = ii.uuid AND r.rank > 1;
+
+    GET DIAGNOSTICS deactivated = ROW_COUNT;
+    IF deactivated > 0 THEN
+        RAISE NOTICE 'Deactivated % identifiers duplicating the canonical value of an older active identifier', deactivated;
+    END IF;
+END;
+$$;
+
+-- Step 2: Unique active (type, canonical value); convert_to_hash_partitions (V22) carries it over. Tables
+-- partitioned by identity_uuid cannot hold it, there uniqueness stays with the application checks.
+DO $$
+BEGIN
+    CREATE UNIQUE INDEX idx_identity_identifier_normalized_unique
+        ON identity_identifiers(identifier_type_uuid, normalized_value) WHERE is_active = TRUE;
+    COMMENT ON INDEX idx_identity_identifier_normalized_unique IS 'One active identifier per type and canonical value';
+EXCEPTION WHEN feature_not_supported OR invalid_table_definition THEN
+    RAISE NOTICE 'identity_identifiers is partitioned without identifier_type_uuid: canonical uniqueness is not enforced by the database';
+END;
+$$;
+
+DROP INDEX IF EXISTS idx_identity_identifier_unique;
+
+COMMENT ON FUNCTION canonicalize_identifier_value(TEXT, TEXT) IS
+    'Canonical identifier value; IdentifierCanonicalization.canonicalize gives the same result, malformed phone numbers included';
@@ -0,0 +1,83 @@
+-- Keep a table's storage parameters across the partition conversion from V21. The conversion creates
+-- new tables, so settings made on the original, such as the autovacuum tuning of identity_identifiers
+-- from V24, were dropped with it. A partitioned table holds no data and takes no storage parameters,
+-- so they are applied to every partition instead.
+
+-- Step 1: Same conversion as V22, creating each partition with the original table's storage parameters
+CREATE OR REPLACE FUNCTION convert_to_hash_partitions(table_name TEXT, partition_key TEXT, partition_count INT)
+RETURNS VOID AS $$
+DECLARE
+    legacy_name TEXT := table_name || '_unpartitioned';
+    storage_options TEXT;
+    index_defs TEXT[];
+    foreign_key_defs TEXT[];
+    trigger_defs TEXT[];
+    def TEXT;
+    i INT;
+BEGIN
+    IF (SELECT c.relkind FROM pg_class c WHERE c.oid = table_name::regclass) = 'p' THEN
+        RAISE EXCEPTION 'Table % is already partitioned', table_name;
+    END IF;
+    IF partition_count < 2 THEN
+        RAISE EXCEPTION 'At least two partitions are required, got %', partition_count;
+    END IF;
+
+    -- reloptions holds one name=value entry per parameter set with ALTER TABLE ... SET
+    SELECT array_to_string(c.reloptions, ', ') INTO storage_options
+    FROM pg_class c WHERE c.oid = table_name::regclass;
+    SELECT array_agg(pg_get_indexdef(x.indexrelid)) INTO index_defs
+    FROM pg_index x WHERE x.indrelid = table_name::regclass AND NOT x.indisprimary;
+    SELECT array_agg(format('ALTER TABLE %I ADD CONSTRAINT %I %s', table_name, c.conname, pg_get_constraintdef(c.oid)))
+    INTO foreign_key_defs
+    FROM pg_constraint c WHERE c.conrelid = table_name::regclass AND c.contype = 'f';
+    SELECT array_agg(pg_get_triggerdef(t.oid)) INTO trigger_defs
+    FROM pg_trigger t WHERE t.tgrelid = table_name::regclass AND NOT t.tgisinternal;
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', table_name, legacy_name);
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY HASH (%I)',
+                   table_name, legacy_name, partition_key);
+    FOR i IN 0 .. partition_count - 1 LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+                       table_name || '_p' || i, table_name, partition_count, i);
+        IF storage_options IS NOT NULL THEN
+            EXECUTE format('ALTER TABLE %I SET (%s)', table_name || '_p' || i, storage_options);
+        END IF;
+    END LOOP;
+
+    EXECUTE format('INSERT INTO %I SELECT * FROM %I', table_name, legacy_name);
+    EXECUTE format('DROP TABLE %I', legacy_name);
+
+    -- Primary keys of partitioned tables must contain the partition key
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I PRIMARY KEY (uuid, %I)',
+                   table_name, table_name || '_pkey', partition_key);
+
+    -- Definitions captured before the rename still name the original table
+    FOREACH def IN ARRAY coalesce(index_defs, '{}') LOOP
+        BEGIN
+            EXECUTE def;
+        EXCEPTION WHEN feature_not_supported OR invalid_table_definition THEN
+            -- Unique indexes without the partition key cannot exist on a partitioned table
+            RAISE NOTICE 'Recreating as non-unique, uniqueness is no longer enforced by the database: %', def;
+            EXECUTE replace(def, 'CREATE UNIQUE INDEX', 'CREATE INDEX');
+        END;
+    END LOOP;
+    FOREACH def IN ARRAY coalesce(foreign_key_defs, '{}') LOOP
+        EXECUTE def;
+    END LOOP;
+    FOREACH def IN ARRAY coalesce(trigger_defs, '{}') LOOP
+        EXECUTE def;
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Step 2: Tables converted before this migration lost their settings; give identity_identifiers'
+-- partitions the V24 autovacuum tuning
+DO $$
+DECLARE
+    part REGCLASS;
+BEGIN
+    FOR part IN SELECT i.inhrelid::regclass FROM pg_inherits i WHERE i.inhparent = 'identity_identifiers'::regclass LOOP
+        EXECUTE format('ALTER TABLE %s SET (autovacuum_vacuum_scale_factor = 0.05, autovacuum_vacuum_insert_scale_factor = 0.05)',
+                       part);
+    END LOOP;
+END $$;